@@ -0,0 +1,40 @@
+package com.badlogic.unisim.benchmarks;
+
+import com.badlogic.unisim.BuildingAssetsManager;
+import com.badlogic.unisim.PlacementPreviewMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading a building's name and type from its texture's path.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BuildingAssetsManagerBenchmark {
+    private static final String PATH = "building-textures-default/recreation_zero-g-bowling.png";
+    private BuildingAssetsManager buildingAssetsManager;
+
+    @Setup
+    public void setUp() {
+        // Nothing is loaded, so no AssetManager is needed.
+        buildingAssetsManager = new BuildingAssetsManager(null, PlacementPreviewMode.TINT);
+    }
+
+    @Benchmark
+    public String extractName() {
+        return buildingAssetsManager.extractName(PATH);
+    }
+
+    @Benchmark
+    public String extractType() {
+        return buildingAssetsManager.extractType(PATH);
+    }
+}
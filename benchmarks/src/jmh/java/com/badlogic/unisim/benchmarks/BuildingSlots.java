@@ -0,0 +1,55 @@
+package com.badlogic.unisim.benchmarks;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.unisim.Building;
+
+import java.util.Random;
+
+/**
+ * This class is responsible for spreading benchmark buildings across the map
+ * without any of them overlapping. The map is split into square slots, each
+ * of which holds at most one building.
+ */
+final class BuildingSlots {
+
+    private BuildingSlots() {
+    }
+
+    /**
+     * Lists every slot on the map in a shuffled order.
+     * @param mapSize width and height of the map in tiles.
+     * @param slotSpacing width and height of a slot in tiles.
+     * @param random the source of the order, seeded so runs are repeatable.
+     * @return the indices of the slots.
+     */
+    static int[] shuffled(int mapSize, int slotSpacing, Random random) {
+        int slotsPerRow = mapSize / slotSpacing;
+        int[] slots = new int[slotsPerRow * slotsPerRow];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = i;
+        }
+        for (int i = slots.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int slot = slots[i];
+            slots[i] = slots[j];
+            slots[j] = slot;
+        }
+        return slots;
+    }
+
+    /**
+     * Creates an 'eat' building in the bottom left corner of a slot.
+     * @param region the texture region of the building.
+     * @param slot the index of the slot.
+     * @param mapSize width and height of the map in tiles.
+     * @param slotSpacing width and height of a slot in tiles.
+     * @return the new building.
+     */
+    static Building createBuilding(TextureRegion region, int slot, int mapSize,
+                                   int slotSpacing) {
+        int slotsPerRow = mapSize / slotSpacing;
+        int positionX = (slot % slotsPerRow) * slotSpacing * HeadlessBenchmarkSupport.TILE_SIZE;
+        int positionY = (slot / slotsPerRow) * slotSpacing * HeadlessBenchmarkSupport.TILE_SIZE;
+        return new Building(null, "eat", region, region, region, positionX, positionY);
+    }
+}
@@ -0,0 +1,66 @@
+package com.badlogic.unisim.benchmarks;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.unisim.Building;
+import com.badlogic.unisim.BuildingsTracker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures placing and deleting a building, which updates the tracker's
+ * counts, spatial grid and building picker.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BuildingsTrackerBenchmark {
+    private static final int MAP_SIZE = 128;
+    private static final int BUILDING_SIZE = 3;
+    private static final int SLOT_SPACING = 4;
+    // Buildings added and removed in turn, kept apart from the placed ones.
+    private static final int POOL_SIZE = 16;
+
+    @Param({"0", "100", "1000"})
+    public int placedBuildings;
+
+    private BuildingsTracker buildingsTracker;
+    private Building[] pool;
+    private int nextBuilding;
+
+    @Setup
+    public void setUp() {
+        HeadlessBenchmarkSupport.start();
+        buildingsTracker = new BuildingsTracker(
+            HeadlessBenchmarkSupport.createBuildableLayer(MAP_SIZE, MAP_SIZE));
+        TextureRegion region =
+            HeadlessBenchmarkSupport.createBuildingRegion(BUILDING_SIZE, BUILDING_SIZE);
+        int[] slots = BuildingSlots.shuffled(MAP_SIZE, SLOT_SPACING, new Random(42));
+        for (int i = 0; i < placedBuildings; i++) {
+            buildingsTracker.addBuilding(BuildingSlots.createBuilding(region, slots[i],
+                MAP_SIZE, SLOT_SPACING));
+        }
+        pool = new Building[POOL_SIZE];
+        for (int i = 0; i < POOL_SIZE; i++) {
+            pool[i] = BuildingSlots.createBuilding(region, slots[slots.length - 1 - i],
+                MAP_SIZE, SLOT_SPACING);
+        }
+    }
+
+    @Benchmark
+    public int addThenRemoveBuilding() {
+        Building building = pool[nextBuilding];
+        nextBuilding = (nextBuilding + 1) & (POOL_SIZE - 1);
+        buildingsTracker.addBuilding(building);
+        buildingsTracker.removeBuilding(building);
+        return buildingsTracker.getModificationCount();
+    }
+}
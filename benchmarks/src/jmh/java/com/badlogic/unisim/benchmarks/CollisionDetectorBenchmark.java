@@ -0,0 +1,96 @@
+package com.badlogic.unisim.benchmarks;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.unisim.BuildingsTracker;
+import com.badlogic.unisim.CollisionDetector;
+import com.badlogic.unisim.FootprintMask;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the collision check run whenever the selected building is moved
+ * onto a different tile, for a rectangular building and for an L-shaped
+ * building of the same size.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CollisionDetectorBenchmark {
+    private static final int MAP_SIZE = 128;
+    // Placed buildings are 3x3 tiles, one every 4 tiles in each direction.
+    private static final int BUILDING_SIZE = 3;
+    private static final int SLOT_SPACING = 4;
+    private static final int QUERY_COUNT = 1024;
+
+    @Param({"1", "3", "8", "16"})
+    public int footprintSize;
+
+    @Param({"0", "100", "1000"})
+    public int placedBuildings;
+
+    private CollisionDetector collisionDetector;
+    private FootprintMask lShapedMask;
+    private int[] queryTileX;
+    private int[] queryTileY;
+    private int nextQuery;
+
+    @Setup
+    public void setUp() {
+        HeadlessBenchmarkSupport.start();
+        TiledMapTileLayer buildableLayer =
+            HeadlessBenchmarkSupport.createBuildableLayer(MAP_SIZE, MAP_SIZE);
+        BuildingsTracker buildingsTracker = new BuildingsTracker(buildableLayer);
+        TextureRegion region =
+            HeadlessBenchmarkSupport.createBuildingRegion(BUILDING_SIZE, BUILDING_SIZE);
+        int[] slots = BuildingSlots.shuffled(MAP_SIZE, SLOT_SPACING, new Random(42));
+        for (int i = 0; i < placedBuildings; i++) {
+            buildingsTracker.addBuilding(BuildingSlots.createBuilding(region, slots[i],
+                MAP_SIZE, SLOT_SPACING));
+        }
+        collisionDetector = new CollisionDetector(buildableLayer,
+            buildingsTracker.getBuildingPicker());
+
+        // Only the left column and bottom row of the footprint are covered.
+        String[] rows = new String[footprintSize];
+        for (int y = 0; y < footprintSize - 1; y++) {
+            rows[y] = "X" + ".".repeat(footprintSize - 1);
+        }
+        rows[footprintSize - 1] = "X".repeat(footprintSize);
+        lShapedMask = FootprintMask.fromRows(rows);
+
+        // The same pseudo-random positions are checked on every run.
+        Random random = new Random(7);
+        queryTileX = new int[QUERY_COUNT];
+        queryTileY = new int[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            queryTileX[i] = random.nextInt(MAP_SIZE - footprintSize + 1);
+            queryTileY[i] = random.nextInt(MAP_SIZE - footprintSize + 1);
+        }
+    }
+
+    @Benchmark
+    public boolean isBuildingBuildable() {
+        int query = nextQuery;
+        nextQuery = (query + 1) & (QUERY_COUNT - 1);
+        return collisionDetector.isBuildingBuildable(queryTileX[query], queryTileY[query],
+            footprintSize, footprintSize);
+    }
+
+    @Benchmark
+    public boolean isLShapedBuildingBuildable() {
+        int query = nextQuery;
+        nextQuery = (query + 1) & (QUERY_COUNT - 1);
+        return collisionDetector.isBuildingBuildable(queryTileX[query], queryTileY[query],
+            lShapedMask);
+    }
+}
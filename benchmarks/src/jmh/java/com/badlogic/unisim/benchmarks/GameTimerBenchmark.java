@@ -0,0 +1,57 @@
+package com.badlogic.unisim.benchmarks;
+
+import com.badlogic.unisim.GameTimer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures formatting the timer and date shown on the HUD.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GameTimerBenchmark {
+    private GameTimer gameTimer;
+    private StringBuilder output;
+
+    @Setup
+    public void setUp() {
+        gameTimer = new GameTimer(5);
+        // Part way through the game, with two digit minutes and seconds.
+        gameTimer.resumeTime();
+        gameTimer.updateTime(83.5f);
+        gameTimer.pauseTime();
+        output = new StringBuilder(16);
+    }
+
+    @Benchmark
+    public String getFormattedTime() {
+        return gameTimer.getFormattedTime();
+    }
+
+    @Benchmark
+    public String getFormattedDate() {
+        return gameTimer.getFormattedDate();
+    }
+
+    @Benchmark
+    public int appendFormattedTime() {
+        output.setLength(0);
+        gameTimer.appendFormattedTime(output);
+        return output.length();
+    }
+
+    @Benchmark
+    public int appendFormattedDate() {
+        output.setLength(0);
+        gameTimer.appendFormattedDate(output);
+        return output.length();
+    }
+}
@@ -0,0 +1,69 @@
+package com.badlogic.unisim.benchmarks;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.unisim.headless.NoOpGL20;
+
+/**
+ * This class is responsible for setting up libGDX without a window, so that
+ * the game's classes can be benchmarked, and for creating the map layers and
+ * textures they need.
+ */
+final class HeadlessBenchmarkSupport {
+    static final int TILE_SIZE = 32;
+    private static HeadlessApplication application;
+
+    private HeadlessBenchmarkSupport() {
+    }
+
+    /**
+     * Starts the headless backend, if it has not been started yet. Textures
+     * are uploaded to a GL that does nothing, as the headless backend has none.
+     */
+    static synchronized void start() {
+        if (application != null) {
+            return;
+        }
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        // Only the Gdx globals are needed, not the render loop.
+        config.updatesPerSecond = -1;
+        application = new HeadlessApplication(new ApplicationAdapter() {}, config);
+        NoOpGL20.install();
+    }
+
+    /**
+     * Creates a blank texture region the size of a building.
+     * @param widthInTiles width of the building in tiles.
+     * @param heightInTiles height of the building in tiles.
+     * @return a region covering the whole of a new texture.
+     */
+    static TextureRegion createBuildingRegion(int widthInTiles, int heightInTiles) {
+        Pixmap pixmap = new Pixmap(widthInTiles * TILE_SIZE, heightInTiles * TILE_SIZE,
+            Pixmap.Format.RGBA8888);
+        Texture texture = new Texture(pixmap);
+        pixmap.dispose();
+        return new TextureRegion(texture);
+    }
+
+    /**
+     * Creates a buildable layer on which every tile is buildable.
+     * @param width width of the layer in tiles.
+     * @param height height of the layer in tiles.
+     * @return the buildable layer.
+     */
+    static TiledMapTileLayer createBuildableLayer(int width, int height) {
+        TiledMapTileLayer layer = new TiledMapTileLayer(width, height, TILE_SIZE, TILE_SIZE);
+        TiledMapTileLayer.Cell cell = new TiledMapTileLayer.Cell();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                layer.setCell(x, y, cell);
+            }
+        }
+        return layer;
+    }
+}
@@ -0,0 +1,84 @@
+package com.badlogic.unisim.benchmarks;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.unisim.Building;
+import com.badlogic.unisim.BuildingType;
+import com.badlogic.unisim.BuildingsTracker;
+import com.badlogic.unisim.InfluenceMaps;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures blurring the influence maps of a map scattered with recreation
+ * and learn buildings, both from scratch and after one building is placed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class InfluenceMapsBenchmark {
+    private static final int BUILDING_SIZE = 3;
+    // Gap between the scattered buildings, in tiles.
+    private static final int BUILDING_SPACING = 16;
+
+    @Param({"64", "512"})
+    public int mapSize;
+
+    @Param({"1", "8"})
+    public int parallelism;
+
+    private InfluenceMaps influenceMaps;
+    private Building building;
+
+    @Setup
+    public void setUp() {
+        HeadlessBenchmarkSupport.start();
+        TiledMapTileLayer layer = HeadlessBenchmarkSupport.createBuildableLayer(mapSize, mapSize);
+        BuildingsTracker buildingsTracker = new BuildingsTracker(layer);
+        TextureRegion region =
+            HeadlessBenchmarkSupport.createBuildingRegion(BUILDING_SIZE, BUILDING_SIZE);
+        int tileSize = HeadlessBenchmarkSupport.TILE_SIZE;
+        boolean isRecreation = true;
+        for (int y = 0; y + BUILDING_SIZE <= mapSize; y += BUILDING_SPACING) {
+            for (int x = 0; x + BUILDING_SIZE <= mapSize; x += BUILDING_SPACING) {
+                BuildingType buildingType = isRecreation ? BuildingType.RECREATION : BuildingType.LEARN;
+                buildingsTracker.addBuilding(new Building(null, buildingType.getName(),
+                    region, region, region, x * tileSize, y * tileSize));
+                isRecreation = !isRecreation;
+            }
+        }
+        influenceMaps = new InfluenceMaps(buildingsTracker, mapSize, mapSize, tileSize, tileSize,
+            parallelism);
+        // Placed between the scattered buildings, without being tracked.
+        int middle = (BUILDING_SPACING / 2) * tileSize;
+        building = new Building(null, BuildingType.RECREATION.getName(), region, region, region,
+            middle, middle);
+    }
+
+    @TearDown
+    public void tearDown() {
+        influenceMaps.dispose();
+    }
+
+    @Benchmark
+    public InfluenceMaps blurWholeMap() {
+        influenceMaps.buildingsReplaced();
+        return influenceMaps;
+    }
+
+    @Benchmark
+    public InfluenceMaps placeAndRemoveBuilding() {
+        influenceMaps.buildingAdded(building);
+        influenceMaps.buildingRemoved(building);
+        return influenceMaps;
+    }
+}
@@ -0,0 +1,86 @@
+package com.badlogic.unisim.benchmarks;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.unisim.Building;
+import com.badlogic.unisim.BuildingType;
+import com.badlogic.unisim.BuildingsTracker;
+import com.badlogic.unisim.FlowFieldCache;
+import com.badlogic.unisim.StudentSimulation;
+import com.badlogic.unisim.WalkingDistanceFields;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures one tick of the student simulation, with a building of each type
+ * placed in a different corner of the map for students to walk between
+ * along their flow fields.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StudentSimulationBenchmark {
+    private static final int MAP_SIZE = 64;
+    private static final int BUILDING_SIZE = 3;
+    private static final double TICK_SECONDS = 1.0 / 60;
+
+    @Param({"10000", "100000", "1000000"})
+    public int studentCount;
+
+    @Param({"1", "8"})
+    public int parallelism;
+
+    private FlowFieldCache flowFieldCache;
+    private StudentSimulation studentSimulation;
+
+    @Setup
+    public void setUp() {
+        HeadlessBenchmarkSupport.start();
+        TiledMapTileLayer groundLayer = HeadlessBenchmarkSupport.createBuildableLayer(MAP_SIZE, MAP_SIZE);
+        BuildingsTracker buildingsTracker = new BuildingsTracker(groundLayer);
+        TextureRegion region =
+            HeadlessBenchmarkSupport.createBuildingRegion(BUILDING_SIZE, BUILDING_SIZE);
+        int far = (MAP_SIZE - BUILDING_SIZE) * HeadlessBenchmarkSupport.TILE_SIZE;
+        int[][] corners = {{0, 0}, {far, 0}, {0, far}, {far, far}};
+        for (BuildingType buildingType : BuildingType.values()) {
+            int[] corner = corners[buildingType.getId()];
+            buildingsTracker.addBuilding(new Building(null, buildingType.getName(),
+                region, region, region, corner[0], corner[1]));
+        }
+        // Students follow the flow fields, which are computed up front so
+        // only the students' update is measured.
+        flowFieldCache = new FlowFieldCache(buildingsTracker, groundLayer);
+        flowFieldCache.update();
+        flowFieldCache.finishPending();
+        float mapPixels = MAP_SIZE * HeadlessBenchmarkSupport.TILE_SIZE;
+        WalkingDistanceFields walkingDistanceFields =
+            new WalkingDistanceFields(buildingsTracker, groundLayer);
+        studentSimulation = new StudentSimulation(buildingsTracker, flowFieldCache,
+            walkingDistanceFields, studentCount, mapPixels, mapPixels, 42, parallelism);
+        // Let students get going, so every state is being updated.
+        for (int i = 0; i < 600; i++) {
+            studentSimulation.update(TICK_SECONDS);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        studentSimulation.dispose();
+        flowFieldCache.dispose();
+    }
+
+    @Benchmark
+    public StudentSimulation updateTick() {
+        studentSimulation.update(TICK_SECONDS);
+        return studentSimulation;
+    }
+}
@@ -1,9 +1,8 @@
 package com.badlogic.unisim;
 
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.g2d.Sprite;
-import com.badlogic.gdx.scenes.scene2d.Actor;
-import com.badlogic.gdx.scenes.scene2d.Stage;
 
 /**
  * This class is responsible for the properties of each building that is placed
@@ -12,70 +11,148 @@ import com.badlogic.gdx.scenes.scene2d.Stage;
 public class Building {
     private final UniSimGame game;
     private final Sprite buildingSprite;
-    private final Actor buildingActor;
     private final String buildingType;
-    private final Texture defaultTexture;
-    private final Texture buildableTexture;
-    private final Texture nonBuildableTexture;
+    private final int buildingTypeId;
+    private final TextureRegion defaultRegion;
+    private final TextureRegion buildableRegion;
+    private final TextureRegion nonBuildableRegion;
+    private final int buildingWidth;
+    private final int buildingHeight;
     private int buildingPositionX;
     private int buildingPositionY;
+    private int buildingId;
+    // The tiles the building covers, or null if it covers its whole sprite.
+    private FootprintMask footprintMask;
+    // Index of the building in the building menu, see BuildingAssetsManager.
+    private final int menuIndex;
 
-    public Building(UniSimGame game, Stage stage, String buildingType, Texture defaultTexture,
-                    Texture buildableTexture, Texture nonBuildableTexture,
+    public Building(UniSimGame game, String buildingType, TextureRegion defaultRegion,
+                    TextureRegion buildableRegion, TextureRegion nonBuildableRegion,
                     int snappedPositionX, int snappedPositionY) {
+        this(game, buildingType, defaultRegion, buildableRegion, nonBuildableRegion,
+            snappedPositionX, snappedPositionY, null, -1);
+    }
+
+    /**
+     * Creates one of the buildings of the building menu, which may only
+     * cover some of the tiles under its sprite, e.g an L-shaped building.
+     * @param footprintMask the tiles covered by the building, or null if it
+     *                      covers every tile under its sprite.
+     * @param menuIndex the index of the building in the building menu, see
+     *                  BuildingAssetsManager, or -1 if it isn't in the menu.
+     */
+    public Building(UniSimGame game, String buildingType, TextureRegion defaultRegion,
+                    TextureRegion buildableRegion, TextureRegion nonBuildableRegion,
+                    int snappedPositionX, int snappedPositionY, FootprintMask footprintMask,
+                    int menuIndex) {
         this.game = game;
+        this.footprintMask = footprintMask;
+        this.menuIndex = menuIndex;
         this.buildingType = buildingType;
-        this.defaultTexture = defaultTexture;
-        this.buildableTexture = buildableTexture;
-        this.nonBuildableTexture = nonBuildableTexture;
+        this.buildingTypeId = BuildingType.fromName(buildingType).getId();
+        this.defaultRegion = defaultRegion;
+        this.buildableRegion = buildableRegion;
+        this.nonBuildableRegion = nonBuildableRegion;
         this.buildingPositionX = snappedPositionX;
         this.buildingPositionY = snappedPositionY;
         // Create new sprite for the building
-        this.buildingSprite = new Sprite(defaultTexture);
+        this.buildingSprite = new Sprite(defaultRegion);
         buildingSprite.setPosition(snappedPositionX, snappedPositionY);
-        // Create new clickable actor for the building
-        this.buildingActor = new Actor() {};
-        // Ensure the clickable region lies within the sprite
-        buildingActor.setBounds(snappedPositionX, snappedPositionY,
-            buildingSprite.getWidth(), buildingSprite.getHeight());
-
-        stage.addActor(buildingActor);
-    }
-
-    public Actor getBuildingActor() {
-        return buildingActor;
+        // Cache the bounds as integers, so collision checks don't have to
+        // recompute the sprite's bounding rectangle.
+        this.buildingWidth = (int) buildingSprite.getWidth();
+        this.buildingHeight = (int) buildingSprite.getHeight();
     }
 
     public Sprite getBuildingSprite() {
         return buildingSprite;
     }
 
-    public Texture getDefaultTexture() {
-        return defaultTexture;
+    public TextureRegion getDefaultRegion() {
+        return defaultRegion;
     }
 
-    public Texture getBuildableTexture() {
-        return buildableTexture;
+    public TextureRegion getBuildableRegion() {
+        return buildableRegion;
     }
 
-    public Texture getNonBuildableTexture() {
-        return nonBuildableTexture;
+    public TextureRegion getNonBuildableRegion() {
+        return nonBuildableRegion;
     }
 
     public String getBuildingType() {
         return buildingType;
     }
 
-    // Enables the clickable region of a sprite.
-    public void enableActor() {
-        buildingActor.setVisible(true);
+    /**
+     * Returns the ID of the building's type, see BuildingType.
+     * @return the ID of the building's type.
+     */
+    public int getBuildingTypeId() {
+        return buildingTypeId;
     }
 
     /**
-     * Temporarily removes the clickable region of a sprite.
+     * Returns the map x-coordinate of the bottom left corner of the building
+     * where it was last placed.
+     * @return the map x-coordinate of the placed building.
      */
-    public void disableActor() {
-        buildingActor.setVisible(false);
+    public int getPositionX() {
+        return buildingPositionX;
+    }
+
+    /**
+     * Returns the map y-coordinate of the bottom left corner of the building
+     * where it was last placed.
+     * @return the map y-coordinate of the placed building.
+     */
+    public int getPositionY() {
+        return buildingPositionY;
+    }
+
+    public int getWidth() {
+        return buildingWidth;
+    }
+
+    public int getHeight() {
+        return buildingHeight;
+    }
+
+    /**
+     * Returns the tiles covered by the building.
+     * @param tileWidth width of a map tile.
+     * @param tileHeight height of a map tile.
+     * @return the building's footprint, every tile under its sprite if it
+     * wasn't given one.
+     */
+    public FootprintMask getFootprintMask(int tileWidth, int tileHeight) {
+        if (footprintMask == null) {
+            footprintMask = FootprintMask.rectangle(buildingWidth / tileWidth,
+                buildingHeight / tileHeight);
+        }
+        return footprintMask;
+    }
+
+    /**
+     * Returns which building of the building menu this is, so that the same
+     * building can be created again, e.g when a save is loaded.
+     * @return the index of the building in the building menu, or -1 if it
+     * isn't in the menu.
+     */
+    public int getMenuIndex() {
+        return menuIndex;
+    }
+
+    /**
+     * Returns the ID used to look up the building from the tiles it covers.
+     * @return the building's ID, or 0 if it is not on the map.
+     */
+    public int getBuildingId() {
+        return buildingId;
+    }
+
+    public void setBuildingId(int buildingId) {
+        this.buildingId = buildingId;
     }
 
     /**
@@ -88,15 +165,10 @@ public class Building {
     public void place(int snappedPositionX, int snappedPositionY) {
         buildingPositionX = snappedPositionX;
         buildingPositionY = snappedPositionY;
-        buildingSprite.setTexture(defaultTexture);
+        buildingSprite.setRegion(defaultRegion);
+        // Remove any tint given to the building while it was being moved.
+        buildingSprite.setColor(Color.WHITE);
         buildingSprite.setPosition(buildingPositionX, buildingPositionY);
-        // Set the actor to be the same size as its sprite.
-        buildingActor.setBounds(buildingPositionX, buildingPositionY,
-            buildingSprite.getWidth(), buildingSprite.getHeight());
-    }
-
-    public void deleteActor() {
-        buildingActor.remove();
     }
 
     public void draw() {
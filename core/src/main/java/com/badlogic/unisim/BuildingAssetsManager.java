@@ -1,8 +1,15 @@
 package com.badlogic.unisim;
 
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.GdxRuntimeException;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -10,13 +17,26 @@ import java.util.Map;
  * and providing and organising building names and types accordingly.
  */
 public class BuildingAssetsManager {
+    // Both generated by the packBuildingTextures Gradle task.
+    private static final String ATLAS_PATH = "atlas/buildings.atlas";
+    private static final String VARIANTS_ATLAS_PATH = "atlas/building-variants.atlas";
+    private final PlacementPreviewMode previewMode;
     private final String[] defaultPaths;
     private final String[] buildablePaths;
     private final String[] nonBuildablePaths;
+    private final String[][] footprintRows;
+    private final AssetManager assetManager;
+    // Paths of the atlases or textures queued in the AssetManager.
+    private final List<String> queuedPaths;
+    // Shared by everything that needs the footprints, worked out on first use.
+    private FootprintMask[] footprintMasks;
 
-    public BuildingAssetsManager () {
+    public BuildingAssetsManager (AssetManager assetManager, PlacementPreviewMode previewMode) {
+        this.assetManager = assetManager;
+        this.previewMode = previewMode;
         // When adding additional building textures, ensure all their paths are in
-        // the same order in each array.
+        // the same order in each array. Saves and journals refer to buildings
+        // by their index in these arrays, so new buildings go at the end.
         defaultPaths =  new String[]{
             "building-textures-default/eat_potato-shop.png",
             "building-textures-default/learn_space-science.png",
@@ -38,51 +58,121 @@ public class BuildingAssetsManager {
             "building-textures-nonbuildable/sleep_motel-mars.png",
         };
 
+        // Tiles covered by each building, as the rows taken by
+        // FootprintMask.fromRows, or null if the building covers every tile
+        // of its texture. e.g {"XX", "X."} for an L-shaped building.
+        footprintRows = new String[][]{
+            null,
+            null,
+            null,
+            null,
+        };
+
+        queuedPaths = new ArrayList<>();
+
         // Check if all path arrays are of equal length
         if (defaultPaths.length != buildablePaths.length
-        || nonBuildablePaths.length != defaultPaths.length) {
+        || nonBuildablePaths.length != defaultPaths.length
+        || footprintRows.length != defaultPaths.length) {
             throw new IllegalArgumentException("The number of default, buildable"
-                + " and non-buildable paths must be equal.");
+                + " and non-buildable paths and footprints must be equal.");
         }
     }
 
     /**
-     * Creates an array of default building textures.
-     * @return a new array of default building textures.
+     * Queues the building textures to be loaded in the background by the
+     * AssetManager. Textures are taken from the packed building atlases if
+     * they exist (see the packBuildingTextures Gradle task), otherwise each
+     * .png is loaded as its own texture.
      */
-    public Texture[] loadDefaultTextures () {
-        Texture[] defaultTextures = new Texture[defaultPaths.length];
-        for (int i = 0; i < defaultPaths.length; i++) {
-            Texture texture = new Texture(defaultPaths[i]);
-            defaultTextures[i] = texture;
+    public void queueAssets() {
+        queueTextures(ATLAS_PATH, defaultPaths);
+        // Buildable and non-buildable textures are only needed when they are
+        // swapped in, rather than derived by tinting the default texture.
+        if (previewMode == PlacementPreviewMode.TEXTURES) {
+            queueTextures(VARIANTS_ATLAS_PATH, buildablePaths);
+            queueTextures(VARIANTS_ATLAS_PATH, nonBuildablePaths);
+        }
+    }
+
+    /**
+     * Creates an array of default building texture regions.
+     * @return a new array of default building texture regions.
+     */
+    public TextureRegion[] loadDefaultRegions() {
+        return loadRegions(ATLAS_PATH, defaultPaths);
+    }
+
+    /**
+     * Creates an array of buildable building texture regions. When buildings
+     * are tinted, these are the default regions and nothing extra is loaded.
+     * @return a new array of buildable building texture regions.
+     */
+    public TextureRegion[] loadBuildableRegions() {
+        if (previewMode == PlacementPreviewMode.TINT) {
+            return loadDefaultRegions();
         }
-        return defaultTextures;
+        return loadRegions(VARIANTS_ATLAS_PATH, buildablePaths);
     }
 
     /**
-     * Creates an array of buildable building textures.
-     * @return a new array of buildable building textures.
+     * Creates an array of non-buildable building texture regions. When
+     * buildings are tinted, these are the default regions and nothing extra
+     * is loaded.
+     * @return a new array of non-buildable building texture regions.
      */
-    public Texture[] loadBuildableTextures() {
-        Texture[] buildableTextures = new Texture[buildablePaths.length];
-        for (int i = 0; i < buildablePaths.length; i++) {
-            Texture texture = new Texture(buildablePaths[i]);
-            buildableTextures[i] = texture;
+    public TextureRegion[] loadNonBuildableRegions() {
+        if (previewMode == PlacementPreviewMode.TINT) {
+            return loadDefaultRegions();
         }
-        return buildableTextures;
+        return loadRegions(VARIANTS_ATLAS_PATH, nonBuildablePaths);
     }
 
     /**
-     * Creates an array of non-buildable building textures.
-     * @return a new array of non-buildable building textures
+     * Works out the tiles covered by each building, so that e.g an L-shaped
+     * building leaves the rest of its rectangle free. Buildings without a
+     * footprint cover every tile of their default texture. The masks are
+     * only worked out once, and the same array is returned to every caller.
+     * @param tileWidth width of a map tile in pixels.
+     * @param tileHeight height of a map tile in pixels.
+     * @return the footprint masks, in the same order as the default regions.
+     * The array must not be modified.
      */
-    public Texture[] loadNonBuildableTextures() {
-        Texture[] nonBuildableTextures = new Texture[nonBuildablePaths.length];
-        for (int i = 0; i < nonBuildablePaths.length; i++) {
-            Texture texture = new Texture(nonBuildablePaths[i]);
-            nonBuildableTextures[i] = texture;
+    public FootprintMask[] loadFootprintMasks(int tileWidth, int tileHeight) {
+        if (footprintMasks != null) {
+            return footprintMasks;
         }
-        return nonBuildableTextures;
+        TextureRegion[] defaultRegions = loadDefaultRegions();
+        FootprintMask[] footprintMasks = new FootprintMask[defaultPaths.length];
+        for (int i = 0; i < defaultPaths.length; i++) {
+            int widthInTiles = defaultRegions[i].getRegionWidth() / tileWidth;
+            int heightInTiles = defaultRegions[i].getRegionHeight() / tileHeight;
+            if (footprintRows[i] == null) {
+                footprintMasks[i] = FootprintMask.rectangle(widthInTiles, heightInTiles);
+                continue;
+            }
+            footprintMasks[i] = FootprintMask.fromRows(footprintRows[i]);
+            // Check the footprint is the size of the texture
+            if (footprintMasks[i].getWidthInTiles() != widthInTiles
+                || footprintMasks[i].getHeightInTiles() != heightInTiles) {
+                throw new IllegalArgumentException("The footprint of " + defaultPaths[i]
+                    + " must be " + widthInTiles + "x" + heightInTiles + " tiles.");
+            }
+        }
+        this.footprintMasks = footprintMasks;
+        return footprintMasks;
+    }
+
+    /**
+     * Unloads every texture queued by queueAssets from the AssetManager.
+     */
+    public void dispose() {
+        for (String queuedPath : queuedPaths) {
+            if (assetManager.contains(queuedPath)) {
+                assetManager.unload(queuedPath);
+            }
+        }
+        queuedPaths.clear();
     }
 
     /**
@@ -111,12 +201,68 @@ public class BuildingAssetsManager {
         return buildingNames;
     }
 
+    /**
+     * Queues either the atlas containing the given textures, or each of the
+     * textures on their own if the atlas has not been packed.
+     * @param atlasPath the path of the atlas the textures are packed into.
+     * @param paths the paths to the buildings' .png files.
+     */
+    private void queueTextures(String atlasPath, String[] paths) {
+        if (Gdx.files.internal(atlasPath).exists()) {
+            queue(atlasPath, TextureAtlas.class);
+            return;
+        }
+        for (String path : paths) {
+            queue(path, Texture.class);
+        }
+    }
+
+    private <T> void queue(String path, Class<T> type) {
+        // Each path is only queued once, as the AssetManager counts references.
+        if (!queuedPaths.contains(path)) {
+            assetManager.load(path, type);
+            queuedPaths.add(path);
+        }
+    }
+
+    /**
+     * Finds the texture region of each building texture path, from the atlas
+     * if it has been packed. Textures that are still loading are finished
+     * straight away.
+     * @param atlasPath the path of the atlas the textures are packed into.
+     * @param paths the paths to the buildings' .png files.
+     * @return a new array of texture regions, in the same order as the paths.
+     */
+    private TextureRegion[] loadRegions(String atlasPath, String[] paths) {
+        TextureRegion[] regions = new TextureRegion[paths.length];
+        if (queuedPaths.contains(atlasPath)) {
+            TextureAtlas atlas = assetManager.finishLoadingAsset(atlasPath);
+            for (int i = 0; i < paths.length; i++) {
+                // Atlas regions are named after their path, minus the extension.
+                regions[i] = atlas.findRegion(paths[i].substring(0, paths[i].length() - ".png".length()));
+                if (regions[i] == null) {
+                    throw new GdxRuntimeException("Building texture missing from "
+                        + atlasPath + ": " + paths[i]);
+                }
+            }
+            return regions;
+        }
+        for (int i = 0; i < paths.length; i++) {
+            if (!queuedPaths.contains(paths[i])) {
+                throw new GdxRuntimeException("Building texture was not queued: " + paths[i]);
+            }
+            Texture texture = assetManager.finishLoadingAsset(paths[i]);
+            regions[i] = new TextureRegion(texture);
+        }
+        return regions;
+    }
+
     /**
      * Extracts the name of a building from its pathname.
      * @param pathName the path to the building's .png file.
      * @return the name of the building.
      */
-    private String extractName(String pathName) {
+    public String extractName(String pathName) {
         // This regular expression will isolate the building name from a
         // path name e.g 'motel-mars' from '.../sleep_motel-mars.png'
         String regex = ".*/[^_/]+_([a-zA-Z]+[-a-zA-Z]*)\\.png$";
@@ -136,7 +282,7 @@ public class BuildingAssetsManager {
      * @param pathName the path to the building's .png file.
      * @return the type of building.
      */
-    private String extractType(String pathName) {
+    public String extractType(String pathName) {
         // This regular expression will isolate the building type from the
         // path name e.g 'sleep' from '.../sleep_motel-mars.png'
         String regex = ".*/([^_/]+)[_-]";
@@ -0,0 +1,44 @@
+package com.badlogic.unisim;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A change to the placed buildings made by the player, e.g placing a
+ * building. Commands only refer to buildings by their index in the building
+ * menu and their tile, so that a recorded command does the same thing when
+ * it is replayed.
+ */
+public abstract class BuildingCommand {
+    private final double gameTime;
+
+    protected BuildingCommand(double gameTime) {
+        this.gameTime = gameTime;
+    }
+
+    /**
+     * Returns when the command was given.
+     * @return the game time elapsed when the command was given, in seconds.
+     */
+    public double getGameTime() {
+        return gameTime;
+    }
+
+    /**
+     * Carries out the command.
+     * @param executor the executor that changes the placed buildings.
+     * @return true if the placed buildings were changed, false otherwise.
+     */
+    public abstract boolean execute(BuildingCommandExecutor executor);
+
+    /**
+     * Returns the code identifying the kind of command in a journal.
+     * @return the command's code.
+     */
+    abstract byte getCode();
+
+    /**
+     * Writes the command's fields, other than its code and game time.
+     * @param buffer the buffer to write to.
+     */
+    abstract void writeFields(ByteBuffer buffer);
+}
@@ -0,0 +1,342 @@
+package com.badlogic.unisim;
+
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+
+/**
+ * This class is responsible for carrying out building commands through the
+ * BuildingPlacer, the same way the player's clicks do, and for recording the
+ * commands that changed the campus in a journal and the undo history.
+ */
+public class BuildingCommandExecutor {
+    // Number of operations that can be undone.
+    private static final int HISTORY_CAPACITY = 256;
+    private final BuildingsTracker buildingsTracker;
+    private final BuildingPlacer buildingPlacer;
+    private final BuildingTypeRegions buildingTypeRegions;
+    private final int TILE_WIDTH;
+    private final int TILE_HEIGHT;
+    private final BuildingHistory history;
+    private CommandJournal journal;
+    // True while an operation is being undone or redone, so it isn't recorded
+    // in the history as a new operation.
+    private boolean isApplyingHistory;
+    private long commandsExecuted;
+    private long commandsSucceeded;
+
+    public BuildingCommandExecutor(BuildingsTracker buildingsTracker,
+                                   BuildingPlacer buildingPlacer,
+                                   BuildingTypeRegions buildingTypeRegions,
+                                   TiledMapTileLayer buildableLayer) {
+        this.buildingsTracker = buildingsTracker;
+        this.buildingPlacer = buildingPlacer;
+        this.buildingTypeRegions = buildingTypeRegions;
+        this.TILE_WIDTH = buildableLayer.getTileWidth();
+        this.TILE_HEIGHT = buildableLayer.getTileHeight();
+        this.history = new BuildingHistory(HISTORY_CAPACITY);
+    }
+
+    /**
+     * Carries out a command and records it in the journal, if there is one.
+     * @param command the command to carry out.
+     * @return true if the placed buildings were changed, false otherwise.
+     */
+    public boolean execute(BuildingCommand command) {
+        commandsExecuted++;
+        boolean isExecuted = command.execute(this);
+        if (!isExecuted) {
+            return false;
+        }
+        commandsSucceeded++;
+        // Only commands that changed the campus are recorded, as the others
+        // would not do anything when replayed either.
+        if (journal != null) {
+            journal.append(command);
+        }
+        return true;
+    }
+
+    /**
+     * Creates the command that places the selected building where it has
+     * been snapped to, i.e where the player clicked.
+     * @param gameTime the game time elapsed, in seconds.
+     * @return a place command for a new building, a move command for a placed
+     * building, or null if no building is selected.
+     */
+    public BuildingCommand createPlaceSelectedCommand(double gameTime) {
+        int tileX = buildingPlacer.getSnappedTileX();
+        int tileY = buildingPlacer.getSnappedTileY();
+        Building selectedBuilding = buildingPlacer.getSelectedPlacedBuilding();
+        if (selectedBuilding != null) {
+            return new MoveBuildingCommand(gameTime, getTileX(selectedBuilding),
+                getTileY(selectedBuilding), tileX, tileY);
+        }
+        String buildingType = buildingPlacer.getSelectedBuildingType();
+        if (buildingType == null) {
+            return null;
+        }
+        // Record exactly which building of the menu was placed, so that it
+        // is replayed as the same building.
+        int menuIndex = buildingPlacer.getSelectedMenuIndex();
+        if (menuIndex < 0) {
+            menuIndex = buildingTypeRegions.getDefaultMenuIndex(
+                BuildingType.fromName(buildingType).getId());
+        }
+        return new PlaceBuildingCommand(gameTime, menuIndex, tileX, tileY);
+    }
+
+    /**
+     * Creates the command that deletes the selected placed building.
+     * @param gameTime the game time elapsed, in seconds.
+     * @return a delete command, or null if no placed building is selected.
+     */
+    public BuildingCommand createDeleteSelectedCommand(double gameTime) {
+        Building selectedBuilding = buildingPlacer.getSelectedPlacedBuilding();
+        if (selectedBuilding == null) {
+            return null;
+        }
+        return new DeleteBuildingCommand(gameTime, getTileX(selectedBuilding),
+            getTileY(selectedBuilding));
+    }
+
+    /**
+     * Undoes the last building operation that hasn't been undone. It is
+     * carried out as the opposite command, so it is also journaled.
+     * @param gameTime the game time elapsed, in seconds.
+     * @return true if an operation was undone, false otherwise.
+     */
+    public boolean undo(double gameTime) {
+        if (!history.canUndo() || isBuildingSelected()) {
+            return false;
+        }
+        int index = history.getUndoIndex();
+        int fromTile = history.getFromTile(index);
+        int toTile = history.getToTile(index);
+        BuildingCommand command;
+        switch (history.getOperation(index)) {
+            case BuildingHistory.PLACE:
+                command = new DeleteBuildingCommand(gameTime, BuildingHistory.unpackTileX(toTile),
+                    BuildingHistory.unpackTileY(toTile));
+                break;
+            case BuildingHistory.MOVE:
+                command = new MoveBuildingCommand(gameTime, BuildingHistory.unpackTileX(toTile),
+                    BuildingHistory.unpackTileY(toTile), BuildingHistory.unpackTileX(fromTile),
+                    BuildingHistory.unpackTileY(fromTile));
+                break;
+            default:
+                command = new PlaceBuildingCommand(gameTime, history.getMenuIndex(index),
+                    BuildingHistory.unpackTileX(fromTile), BuildingHistory.unpackTileY(fromTile));
+                break;
+        }
+        if (!applyHistory(command)) {
+            return false;
+        }
+        history.markUndone();
+        return true;
+    }
+
+    /**
+     * Does the last undone building operation again.
+     * @param gameTime the game time elapsed, in seconds.
+     * @return true if an operation was redone, false otherwise.
+     */
+    public boolean redo(double gameTime) {
+        if (!history.canRedo() || isBuildingSelected()) {
+            return false;
+        }
+        int index = history.getRedoIndex();
+        int fromTile = history.getFromTile(index);
+        int toTile = history.getToTile(index);
+        BuildingCommand command;
+        switch (history.getOperation(index)) {
+            case BuildingHistory.PLACE:
+                command = new PlaceBuildingCommand(gameTime, history.getMenuIndex(index),
+                    BuildingHistory.unpackTileX(toTile), BuildingHistory.unpackTileY(toTile));
+                break;
+            case BuildingHistory.MOVE:
+                command = new MoveBuildingCommand(gameTime, BuildingHistory.unpackTileX(fromTile),
+                    BuildingHistory.unpackTileY(fromTile), BuildingHistory.unpackTileX(toTile),
+                    BuildingHistory.unpackTileY(toTile));
+                break;
+            default:
+                command = new DeleteBuildingCommand(gameTime,
+                    BuildingHistory.unpackTileX(fromTile), BuildingHistory.unpackTileY(fromTile));
+                break;
+        }
+        if (!applyHistory(command)) {
+            return false;
+        }
+        history.markRedone();
+        return true;
+    }
+
+    /**
+     * Forgets every operation that could be undone or redone, e.g when the
+     * campus is replaced by a save.
+     */
+    public void clearHistory() {
+        history.clear();
+    }
+
+    public BuildingHistory getHistory() {
+        return history;
+    }
+
+    /**
+     * Sets the journal that successful commands are recorded in.
+     * @param journal the journal to append to, or null to stop recording.
+     */
+    public void setJournal(CommandJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Stops recording commands and closes the journal, if there is one.
+     */
+    public void closeJournal() {
+        if (journal != null) {
+            journal.close();
+            journal = null;
+        }
+    }
+
+    public long getCommandsExecuted() {
+        return commandsExecuted;
+    }
+
+    public long getCommandsSucceeded() {
+        return commandsSucceeded;
+    }
+
+    /**
+     * Places a new building, using the building selected from the building
+     * menu if it is the same building.
+     */
+    boolean place(int menuIndex, int tileX, int tileY) {
+        if (!buildingTypeRegions.hasMenuBuilding(menuIndex)) {
+            return false;
+        }
+        int buildingTypeId = buildingTypeRegions.getMenuBuildingTypeId(menuIndex);
+        boolean isSelectedHere = buildingPlacer.getSelectedBuildingType() == null
+            || buildingPlacer.getSelectedMenuIndex() != menuIndex;
+        if (isSelectedHere) {
+            // The building menu doesn't allow selecting unavailable buildings.
+            if (buildingPlacer.isPlacedBuildingSelected
+                || !buildingsTracker.isBuildingTypeAvailable(buildingTypeId)) {
+                return false;
+            }
+            buildingTypeRegions.selectBuilding(buildingPlacer, menuIndex);
+        }
+        buildingPlacer.snapBuildingToTile(tileX, tileY);
+        if (!buildingPlacer.isBuildable) {
+            if (isSelectedHere) {
+                buildingPlacer.deselectBuilding();
+            }
+            return false;
+        }
+        buildingPlacer.placeBuildingAtTile(tileX, tileY);
+        buildingPlacer.deselectBuilding();
+        recordHistory(BuildingHistory.PLACE, buildingTypeId, menuIndex, 0,
+            BuildingHistory.packTile(tileX, tileY));
+        return true;
+    }
+
+    /**
+     * Moves a placed building, using the selected building if it has already
+     * been picked up from the given tile.
+     */
+    boolean move(int fromTileX, int fromTileY, int toTileX, int toTileY) {
+        Building building = buildingPlacer.getSelectedPlacedBuilding();
+        boolean isSelectedHere = building == null
+            || getTileX(building) != fromTileX || getTileY(building) != fromTileY;
+        if (isSelectedHere) {
+            if (buildingPlacer.isNewBuildingSelected || buildingPlacer.isPlacedBuildingSelected
+                || !buildingPlacer.selectBuildingWithAnchor(fromTileX, fromTileY)) {
+                return false;
+            }
+            building = buildingPlacer.getSelectedPlacedBuilding();
+        }
+        buildingPlacer.snapBuildingToTile(toTileX, toTileY);
+        if (!buildingPlacer.isBuildable) {
+            if (isSelectedHere) {
+                // Put the building back, as its old position is always free.
+                buildingPlacer.placeBuildingAtTile(getTileX(building), getTileY(building));
+                buildingPlacer.deselectBuilding();
+            }
+            return false;
+        }
+        buildingPlacer.placeBuildingAtTile(toTileX, toTileY);
+        buildingPlacer.deselectBuilding();
+        recordHistory(BuildingHistory.MOVE, building.getBuildingTypeId(), getMenuIndex(building),
+            BuildingHistory.packTile(fromTileX, fromTileY),
+            BuildingHistory.packTile(toTileX, toTileY));
+        return true;
+    }
+
+    /**
+     * Deletes a placed building, using the selected building if it has
+     * already been picked up from the given tile.
+     */
+    boolean delete(int tileX, int tileY) {
+        Building building = buildingPlacer.getSelectedPlacedBuilding();
+        boolean isSelectedHere = building == null
+            || getTileX(building) != tileX || getTileY(building) != tileY;
+        if (isSelectedHere) {
+            if (buildingPlacer.isNewBuildingSelected || buildingPlacer.isPlacedBuildingSelected
+                || !buildingPlacer.selectBuildingWithAnchor(tileX, tileY)) {
+                return false;
+            }
+            building = buildingPlacer.getSelectedPlacedBuilding();
+        }
+        buildingPlacer.deleteBuilding();
+        buildingPlacer.deselectBuilding();
+        recordHistory(BuildingHistory.DELETE, building.getBuildingTypeId(), getMenuIndex(building),
+            BuildingHistory.packTile(tileX, tileY), 0);
+        return true;
+    }
+
+    /**
+     * Carries out a command that undoes or redoes an operation. If it fails,
+     * the campus no longer matches the history, so the history is cleared.
+     * @return true if the command changed the campus, false otherwise.
+     */
+    private boolean applyHistory(BuildingCommand command) {
+        isApplyingHistory = true;
+        boolean isExecuted = execute(command);
+        isApplyingHistory = false;
+        if (!isExecuted) {
+            history.clear();
+        }
+        return isExecuted;
+    }
+
+    private void recordHistory(byte operation, int buildingTypeId, int menuIndex, int fromTile,
+                               int toTile) {
+        if (!isApplyingHistory) {
+            history.record(operation, buildingTypeId, menuIndex, fromTile, toTile);
+        }
+    }
+
+    /**
+     * Returns the menu index to put a building back as. Buildings that
+     * weren't picked from the menu are put back as their type's default
+     * building.
+     */
+    private int getMenuIndex(Building building) {
+        if (building.getMenuIndex() >= 0) {
+            return building.getMenuIndex();
+        }
+        return buildingTypeRegions.getDefaultMenuIndex(building.getBuildingTypeId());
+    }
+
+    private boolean isBuildingSelected() {
+        return buildingPlacer.isNewBuildingSelected || buildingPlacer.isPlacedBuildingSelected;
+    }
+
+    private int getTileX(Building building) {
+        return building.getPositionX() / TILE_WIDTH;
+    }
+
+    private int getTileY(Building building) {
+        return building.getPositionY() / TILE_HEIGHT;
+    }
+}
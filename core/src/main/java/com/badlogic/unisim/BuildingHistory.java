@@ -0,0 +1,139 @@
+package com.badlogic.unisim;
+
+/**
+ * This class is responsible for remembering the last building operations so
+ * that they can be undone and redone. Each operation is a few numbers stored
+ * in fixed-size arrays used as a ring buffer, so the history takes the same
+ * memory however long the game is played. Once full, the oldest operation is
+ * forgotten to make room for a new one.
+ */
+public class BuildingHistory {
+    static final byte PLACE = 1;
+    static final byte MOVE = 2;
+    static final byte DELETE = 3;
+    private final int capacity;
+    // All indexed by position in the ring buffer.
+    private final byte[] operations;
+    private final byte[] buildingTypeIds;
+    // Which building of the building menu it was, so an undone delete puts
+    // back the same building.
+    private final short[] menuIndexes;
+    // Tiles packed by packTile, unused for a place's from or a delete's to tile.
+    private final int[] fromTiles;
+    private final int[] toTiles;
+    private int oldest;
+    private int count;
+    // Number of operations, starting from the oldest, that are done.
+    private int doneCount;
+
+    public BuildingHistory(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The history must hold at least one operation.");
+        }
+        this.capacity = capacity;
+        this.operations = new byte[capacity];
+        this.buildingTypeIds = new byte[capacity];
+        this.menuIndexes = new short[capacity];
+        this.fromTiles = new int[capacity];
+        this.toTiles = new int[capacity];
+    }
+
+    /**
+     * Adds an operation that has just been done. Any undone operations can
+     * no longer be redone.
+     * @param operation PLACE, MOVE or DELETE.
+     * @param buildingTypeId the type of the building, see BuildingType.
+     * @param menuIndex the index of the building in the building menu, see
+     *                  BuildingAssetsManager.
+     * @param fromTile the packed tile the building was on before.
+     * @param toTile the packed tile the building is on after.
+     */
+    void record(byte operation, int buildingTypeId, int menuIndex, int fromTile, int toTile) {
+        count = doneCount;
+        if (count == capacity) {
+            oldest = (oldest + 1) % capacity;
+            count--;
+        }
+        int index = (oldest + count) % capacity;
+        operations[index] = operation;
+        buildingTypeIds[index] = (byte) buildingTypeId;
+        menuIndexes[index] = (short) menuIndex;
+        fromTiles[index] = fromTile;
+        toTiles[index] = toTile;
+        count++;
+        doneCount = count;
+    }
+
+    public boolean canUndo() {
+        return doneCount > 0;
+    }
+
+    public boolean canRedo() {
+        return doneCount < count;
+    }
+
+    /**
+     * Returns where the operation to undo next is stored.
+     * @return the index of the last done operation.
+     */
+    int getUndoIndex() {
+        return (oldest + doneCount - 1) % capacity;
+    }
+
+    /**
+     * Returns where the operation to redo next is stored.
+     * @return the index of the first undone operation.
+     */
+    int getRedoIndex() {
+        return (oldest + doneCount) % capacity;
+    }
+
+    void markUndone() {
+        doneCount--;
+    }
+
+    void markRedone() {
+        doneCount++;
+    }
+
+    byte getOperation(int index) {
+        return operations[index];
+    }
+
+    int getBuildingTypeId(int index) {
+        return buildingTypeIds[index];
+    }
+
+    int getMenuIndex(int index) {
+        return menuIndexes[index];
+    }
+
+    int getFromTile(int index) {
+        return fromTiles[index];
+    }
+
+    int getToTile(int index) {
+        return toTiles[index];
+    }
+
+    /**
+     * Forgets every operation, e.g when the campus is replaced by a save.
+     */
+    public void clear() {
+        oldest = 0;
+        count = 0;
+        doneCount = 0;
+    }
+
+    static int packTile(int tileX, int tileY) {
+        return (tileX << 16) | (tileY & 0xFFFF);
+    }
+
+    static int unpackTileX(int packedTile) {
+        return packedTile >> 16;
+    }
+
+    static int unpackTileY(int packedTile) {
+        return (short) packedTile;
+    }
+}
@@ -0,0 +1,197 @@
+package com.badlogic.unisim;
+
+import java.util.Arrays;
+
+/**
+ * This class is responsible for finding which placed building, if any, covers
+ * a tile of the map. Each tile stores the ID of the building covering it, so
+ * a click can be resolved with a single array lookup. Only the tiles in a
+ * building's footprint mask are covered, so clicking a gap in e.g an
+ * L-shaped building doesn't pick it. The covered tiles are also kept as a
+ * TileBitset for collision detection.
+ */
+public class BuildingPicker {
+    // ID stored in tiles that are not covered by a building.
+    private static final int NO_BUILDING = 0;
+    private final int mapTileWidth;
+    private final int mapTileHeight;
+    private final int TILE_WIDTH;
+    private final int TILE_HEIGHT;
+    private final int[] tileToBuildingId;
+    private final TileBitset occupiedTiles;
+    private Building[] buildingsById;
+    private int[] freeIds;
+    private int freeIdCount;
+    private int nextId;
+    private boolean isEnabled;
+
+    public BuildingPicker(int mapTileWidth, int mapTileHeight, int tileWidth, int tileHeight) {
+        this.mapTileWidth = mapTileWidth;
+        this.mapTileHeight = mapTileHeight;
+        this.TILE_WIDTH = tileWidth;
+        this.TILE_HEIGHT = tileHeight;
+        this.tileToBuildingId = new int[mapTileWidth * mapTileHeight];
+        this.occupiedTiles = new TileBitset(mapTileWidth, mapTileHeight);
+        this.buildingsById = new Building[16];
+        this.freeIds = new int[16];
+        this.freeIdCount = 0;
+        // ID 0 is reserved for tiles without a building.
+        this.nextId = 1;
+        this.isEnabled = true;
+    }
+
+    /**
+     * Gives a building an ID, reusing the IDs of removed buildings first.
+     * @param building the Building object that has been placed on the map.
+     */
+    public void register(Building building) {
+        int id;
+        if (freeIdCount > 0) {
+            id = freeIds[--freeIdCount];
+        } else {
+            id = nextId++;
+            if (id >= buildingsById.length) {
+                buildingsById = Arrays.copyOf(buildingsById, buildingsById.length * 2);
+            }
+        }
+        buildingsById[id] = building;
+        building.setBuildingId(id);
+    }
+
+    /**
+     * Frees the ID of a building so that it can be given to another building.
+     * @param building the Building object that has been deleted from the map.
+     */
+    public void unregister(Building building) {
+        int id = building.getBuildingId();
+        if (id == NO_BUILDING) {
+            return;
+        }
+        buildingsById[id] = null;
+        if (freeIdCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, freeIds.length * 2);
+        }
+        freeIds[freeIdCount++] = id;
+        building.setBuildingId(NO_BUILDING);
+    }
+
+    /**
+     * Marks the tiles covered by a building as belonging to it.
+     * @param building a registered Building object at its placed position.
+     */
+    public void occupy(Building building) {
+        fillFootprint(building, building.getBuildingId(), NO_BUILDING);
+    }
+
+    /**
+     * Clears the tiles covered by a building. The building must not have been
+     * moved since it occupied them.
+     * @param building a registered Building object.
+     */
+    public void vacate(Building building) {
+        fillFootprint(building, NO_BUILDING, building.getBuildingId());
+    }
+
+    /**
+     * Removes every building and frees all IDs.
+     */
+    public void clear() {
+        Arrays.fill(tileToBuildingId, NO_BUILDING);
+        occupiedTiles.clear();
+        for (int id = 1; id < nextId; id++) {
+            if (buildingsById[id] != null) {
+                buildingsById[id].setBuildingId(NO_BUILDING);
+                buildingsById[id] = null;
+            }
+        }
+        freeIdCount = 0;
+        nextId = 1;
+    }
+
+    /**
+     * Finds the building covering a tile.
+     * @param tileX x-coordinate of the tile.
+     * @param tileY y-coordinate of the tile.
+     * @return the Building object covering the tile, or null if picking is
+     * disabled or there is no building there.
+     */
+    public Building getBuildingAt(int tileX, int tileY) {
+        if (!isEnabled || tileX < 0 || tileY < 0
+            || tileX >= mapTileWidth || tileY >= mapTileHeight) {
+            return null;
+        }
+        return buildingsById[tileToBuildingId[(tileY * mapTileWidth) + tileX]];
+    }
+
+    /**
+     * Returns which tiles are covered by a building, which changes as
+     * buildings are placed and removed.
+     * @return a bit for each tile, set if it is covered by a building.
+     */
+    public TileBitset getOccupiedTiles() {
+        return occupiedTiles;
+    }
+
+    /**
+     * Copies which tiles are covered by a building, e.g for checking
+     * placements on another thread while the buildings keep changing.
+     * @return a bit for each tile, set if it is covered by a building.
+     */
+    public TileBitset copyOccupiedTiles() {
+        return new TileBitset(occupiedTiles);
+    }
+
+    /**
+     * Returns the building with the given ID.
+     * @param id the ID given to the building when it was registered.
+     * @return the Building object, or null if no building has this ID.
+     */
+    public Building getBuildingById(int id) {
+        if (id <= NO_BUILDING || id >= nextId) {
+            return null;
+        }
+        return buildingsById[id];
+    }
+
+    /**
+     * Allows placed buildings to be clicked.
+     */
+    public void enable() {
+        isEnabled = true;
+    }
+
+    /**
+     * Stops placed buildings from being clicked, e.g while a menu is open.
+     */
+    public void disable() {
+        isEnabled = false;
+    }
+
+    public boolean isEnabled() {
+        return isEnabled;
+    }
+
+    /**
+     * Writes an ID into the tiles covered by a building's footprint mask,
+     * only overwriting tiles that currently hold the expected ID.
+     */
+    private void fillFootprint(Building building, int newId, int expectedId) {
+        FootprintMask footprintMask = building.getFootprintMask(TILE_WIDTH, TILE_HEIGHT);
+        int buildingTileX = building.getPositionX() / TILE_WIDTH;
+        int buildingTileY = building.getPositionY() / TILE_HEIGHT;
+        int minX = Math.max(buildingTileX, 0);
+        int minY = Math.max(buildingTileY, 0);
+        int maxX = Math.min(buildingTileX + footprintMask.getWidthInTiles(), mapTileWidth);
+        int maxY = Math.min(buildingTileY + footprintMask.getHeightInTiles(), mapTileHeight);
+        for (int y = minY; y < maxY; y++) {
+            int rowStart = y * mapTileWidth;
+            for (int x = minX; x < maxX; x++) {
+                if (footprintMask.isCovered(x - buildingTileX, y - buildingTileY)
+                    && tileToBuildingId[rowStart + x] == expectedId) {
+                    tileToBuildingId[rowStart + x] = newId;
+                    occupiedTiles.set(x, y, newId != NO_BUILDING);
+                }
+            }
+        }
+    }
+}
@@ -1,102 +1,152 @@
 package com.badlogic.unisim;
 
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
 import com.badlogic.gdx.math.Vector3;
-import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 
-import java.util.Map;
-
 /**
  * This class is responsible for being able to position and place buildings
  * on the map in accordance with the map layout.
  */
 public class BuildingPlacer {
+    // Tints used to show whether a building can be placed in TINT mode.
+    private static final Color BUILDABLE_TINT = new Color(0.55f, 1f, 0.55f, 0.85f);
+    private static final Color NON_BUILDABLE_TINT = new Color(1f, 0.4f, 0.4f, 0.85f);
     private final UniSimGame game;
     private final BuildingsTracker buildingsTracker;
     private final CollisionDetector collisionDetector;
     private final FitViewport viewport;
-    private final Stage stage;
-    private final Map<Building, String> placedBuildingsToType;
+    private final BuildingPicker buildingPicker;
+    private final PlacementPreviewMode previewMode;
     private final Vector3 mousePosition = new Vector3();
     private final int TILE_WIDTH;
     private final int TILE_HEIGHT;
+    // Tile the selected building was last checked for collisions at.
+    private int lastTileX;
+    private int lastTileY;
     private Building placedBuilding;
-    private Texture defaultTexture;
-    private Texture buildableTexture;
-    private Texture nonBuildableTexture;
+    private TextureRegion defaultRegion;
+    private TextureRegion buildableRegion;
+    private TextureRegion nonBuildableRegion;
     private Sprite buildingSprite;
     private String buildingType;
+    // The tiles covered by the selected building.
+    private FootprintMask footprintMask;
+    // Index of the selected building in the building menu, or -1.
+    private int menuIndex;
     public boolean isBuildable;
     public boolean isNewBuildingSelected = false;
     public boolean isPlacedBuildingSelected = false;
 
     public BuildingPlacer(UniSimGame game, BuildingsTracker buildingsTracker, FitViewport viewport,
-                          Stage stage, TiledMapTileLayer buildableLayer) {
+                          TiledMapTileLayer buildableLayer,
+                          PlacementPreviewMode previewMode) {
         this.game = game;
+        this.previewMode = previewMode;
         this.buildingsTracker = buildingsTracker;
         this.viewport = viewport;
-        this.stage = stage;
-        this.placedBuildingsToType = buildingsTracker.getPlacedBuildingsToType();
+        this.buildingPicker = buildingsTracker.getBuildingPicker();
         this.isBuildable = true;
         this.TILE_WIDTH = buildableLayer.getTileWidth();
         this.TILE_HEIGHT = buildableLayer.getTileHeight();
-        collisionDetector = new CollisionDetector(buildableLayer);
+        invalidateSnappedTile();
+        collisionDetector = new CollisionDetector(buildableLayer, buildingPicker);
     }
 
     /**
      * Enables the buildings to always be correctly positioned on-screen in
-     * accordance with the grid arrangement of a tiled map.
+     * accordance with the grid arrangement of a tiled map. Nothing is done
+     * if the building is still on the same tile as the last time.
      * @param screenX screen x-coordinate of the mouse on screen.
      * @param screenY screen y-coordinate of the mouse on screen.
+     * @return true if the building moved to a different tile and was checked
+     * for collisions, false otherwise.
      */
-    public void snapBuildingToGrid(int screenX, int screenY) {
-        // Store tile dimensions of the tiled map.
+    public boolean snapBuildingToGrid(int screenX, int screenY) {
         // Get mouse coordinates
         mousePosition.set(screenX, screenY, 0);
         // Convert screen coordinates of mouse to map coordinates.
         Vector3 mapPosition = viewport.unproject(mousePosition);
-        // Obtain building sprite dimensions in tiles.
-        int buildingTileWidth = (int) buildingSprite.getWidth() / TILE_WIDTH;
-        int buildingTileHeight = (int) buildingSprite.getHeight() / TILE_HEIGHT;
         // Obtain the tiles at which the building is currently located on screen.
         int tileX = (int) mapPosition.x / TILE_WIDTH;
         int tileY = (int) mapPosition.y / TILE_HEIGHT;
+        return snapBuildingToTile(tileX, tileY);
+    }
+
+    /**
+     * Moves the selected building onto a tile of the map and checks whether
+     * it can be placed there. Nothing is done if the building is still on
+     * the same tile as the last time.
+     * @param tileX the tile to put the bottom left corner of the building on.
+     * @param tileY the tile to put the bottom left corner of the building on.
+     * @return true if the building moved to a different tile and was checked
+     * for collisions, false otherwise.
+     */
+    public boolean snapBuildingToTile(int tileX, int tileY) {
+        if (tileX == lastTileX && tileY == lastTileY) {
+            return false;
+        }
+        lastTileX = tileX;
+        lastTileY = tileY;
         // Check if the tiles on which the building is located are buildable
-        // and update the texture depending on this.
-        isBuildable = collisionDetector.isBuildingBuildable(tileX, tileY,
-            buildingTileWidth,
-            buildingTileHeight,
-            buildingSprite,
-            placedBuildingsToType);
+        // and update the texture depending on this. Commands find buildings
+        // by their bottom left tile, so no two buildings can share one, even
+        // where their footprints leave it empty.
+        isBuildable = collisionDetector.isBuildingBuildable(tileX, tileY, footprintMask)
+            && buildingsTracker.getBuildingWithAnchor(tileX, tileY) == null;
         updateBuildingTexture(isBuildable);
         // 'snap' the building to the screen coordinate closest to the
         // corresponding grid cell.
         int snappedPositionX = tileX * TILE_WIDTH;
         int snappedPositionY = tileY * TILE_HEIGHT;
         buildingSprite.setPosition(snappedPositionX, snappedPositionY);
+        return true;
     }
 
     /**
      * Creates a building sprite upon selection of a building from building menu.
-     * @param defaultTexture The general texture of the building.
-     * @param buildableTexture The texture representing the building
+     * @param defaultRegion The general texture of the building.
+     * @param buildableRegion The texture representing the building
      *        when it can be placed in the current location on the map.
-     * @param nonBuildableTexture The texture representing the building
+     * @param nonBuildableRegion The texture representing the building
      *        when it cannot be placed in the current location of the map.
      */
-    public void selectNewBuilding(Texture defaultTexture,
-                                  Texture buildableTexture,
-                                  Texture nonBuildableTexture,
+    public void selectNewBuilding(TextureRegion defaultRegion,
+                                  TextureRegion buildableRegion,
+                                  TextureRegion nonBuildableRegion,
                                   String buildingType) {
+        selectNewBuilding(defaultRegion, buildableRegion, nonBuildableRegion, buildingType,
+            null, -1);
+    }
+
+    /**
+     * Creates a building sprite upon selection of a building from the
+     * building menu, which may only cover some of the tiles under its
+     * texture, e.g an L-shaped building.
+     * @param footprintMask the tiles covered by the building, or null if it
+     *                      covers every tile under its texture.
+     * @param menuIndex the index of the building in the building menu, see
+     *                  BuildingAssetsManager, or -1 if it isn't in the menu.
+     */
+    public void selectNewBuilding(TextureRegion defaultRegion,
+                                  TextureRegion buildableRegion,
+                                  TextureRegion nonBuildableRegion,
+                                  String buildingType, FootprintMask footprintMask,
+                                  int menuIndex) {
         this.isNewBuildingSelected = true;
-        this.defaultTexture = defaultTexture;
-        this.buildableTexture = buildableTexture;
-        this.nonBuildableTexture = nonBuildableTexture;
-        buildingSprite = new Sprite(defaultTexture);
+        this.menuIndex = menuIndex;
+        this.defaultRegion = defaultRegion;
+        this.buildableRegion = buildableRegion;
+        this.nonBuildableRegion = nonBuildableRegion;
+        buildingSprite = new Sprite(defaultRegion);
         this.buildingType = buildingType;
+        this.footprintMask = footprintMask != null ? footprintMask
+            : FootprintMask.rectangle((int) buildingSprite.getWidth() / TILE_WIDTH,
+            (int) buildingSprite.getHeight() / TILE_HEIGHT);
+        invalidateSnappedTile();
     }
 
     /**
@@ -108,12 +158,187 @@ public class BuildingPlacer {
         isPlacedBuildingSelected = true;
         buildingSprite = placedBuilding.getBuildingSprite();
         this.placedBuilding = placedBuilding;
-        this.defaultTexture = placedBuilding.getDefaultTexture();
-        this.buildableTexture = placedBuilding.getBuildableTexture();
-        this.nonBuildableTexture = placedBuilding.getNonBuildableTexture();
-        buildingSprite.setTexture(buildableTexture);
-        // Disable the building's clickable actor
+        this.defaultRegion = placedBuilding.getDefaultRegion();
+        this.buildableRegion = placedBuilding.getBuildableRegion();
+        this.nonBuildableRegion = placedBuilding.getNonBuildableRegion();
+        this.footprintMask = placedBuilding.getFootprintMask(TILE_WIDTH, TILE_HEIGHT);
+        this.menuIndex = placedBuilding.getMenuIndex();
+        updateBuildingTexture(true);
+        // Disable the building's clickable region
         buildingsTracker.disableBuildingOnMap(placedBuilding);
+        invalidateSnappedTile();
+    }
+
+    /**
+     * Returns how the selected building shows whether it can be placed.
+     * @return the placement preview mode.
+     */
+    public PlacementPreviewMode getPreviewMode() {
+        return previewMode;
+    }
+
+    /**
+     * Returns the placed building being moved, which is not on the map until
+     * it is placed again.
+     * @return the selected placed building, or null if there isn't one.
+     */
+    public Building getSelectedPlacedBuilding() {
+        return isPlacedBuildingSelected ? placedBuilding : null;
+    }
+
+    /**
+     * Returns the type of the new building selected from the building menu.
+     * @return the type of the selected building, or null if there isn't one.
+     */
+    public String getSelectedBuildingType() {
+        return isNewBuildingSelected ? buildingType : null;
+    }
+
+    /**
+     * Returns the type ID of the selected building, whether it is new or
+     * being moved.
+     * @return the ID of the building type, or -1 if nothing is selected.
+     */
+    public int getSelectedBuildingTypeId() {
+        if (isPlacedBuildingSelected) {
+            return placedBuilding.getBuildingTypeId();
+        }
+        if (isNewBuildingSelected) {
+            return BuildingType.fromName(buildingType).getId();
+        }
+        return -1;
+    }
+
+    /**
+     * Returns which building of the building menu is selected, whether it
+     * is new or being moved.
+     * @return the index of the building in the building menu, or -1 if
+     * nothing is selected or the building isn't in the menu.
+     */
+    public int getSelectedMenuIndex() {
+        if (!isNewBuildingSelected && !isPlacedBuildingSelected) {
+            return -1;
+        }
+        return menuIndex;
+    }
+
+    /**
+     * Returns the width of the selected building in tiles.
+     * @return the width in tiles, or 0 if nothing is selected.
+     */
+    public int getSelectedWidthInTiles() {
+        if (!isNewBuildingSelected && !isPlacedBuildingSelected) {
+            return 0;
+        }
+        return (int) buildingSprite.getWidth() / TILE_WIDTH;
+    }
+
+    /**
+     * Returns the height of the selected building in tiles.
+     * @return the height in tiles, or 0 if nothing is selected.
+     */
+    public int getSelectedHeightInTiles() {
+        if (!isNewBuildingSelected && !isPlacedBuildingSelected) {
+            return 0;
+        }
+        return (int) buildingSprite.getHeight() / TILE_HEIGHT;
+    }
+
+    /**
+     * Returns the tiles covered by the selected building.
+     * @return the footprint of the selected building, or null if nothing is
+     * selected.
+     */
+    public FootprintMask getSelectedFootprintMask() {
+        if (!isNewBuildingSelected && !isPlacedBuildingSelected) {
+            return null;
+        }
+        return footprintMask;
+    }
+
+    public int getTileWidth() {
+        return TILE_WIDTH;
+    }
+
+    public int getTileHeight() {
+        return TILE_HEIGHT;
+    }
+
+    public CollisionDetector getCollisionDetector() {
+        return collisionDetector;
+    }
+
+    /**
+     * Returns the tile the selected building was last snapped to.
+     * @return the x-coordinate of the tile.
+     */
+    public int getSnappedTileX() {
+        return lastTileX;
+    }
+
+    /**
+     * Returns the tile the selected building was last snapped to.
+     * @return the y-coordinate of the tile.
+     */
+    public int getSnappedTileY() {
+        return lastTileY;
+    }
+
+    /**
+     * Selects the placed building under the mouse to be moved, if there is one.
+     * @param screenX x-coordinate of mouse on the screen.
+     * @param screenY y-coordinate of mouse on the screen.
+     * @return true if a placed building was selected, false otherwise.
+     */
+    public boolean selectBuildingAt(int screenX, int screenY) {
+        mousePosition.set(screenX, screenY, 0);
+        Vector3 mapPosition = viewport.unproject(mousePosition);
+        if (mapPosition.x < 0 || mapPosition.y < 0) {
+            return false;
+        }
+        int tileX = (int) mapPosition.x / TILE_WIDTH;
+        int tileY = (int) mapPosition.y / TILE_HEIGHT;
+        return selectBuildingAtTile(tileX, tileY);
+    }
+
+    /**
+     * Selects the placed building covering a tile to be moved, if there is one.
+     * @param tileX x-coordinate of the tile.
+     * @param tileY y-coordinate of the tile.
+     * @return true if a placed building was selected, false otherwise.
+     */
+    public boolean selectBuildingAtTile(int tileX, int tileY) {
+        // Don't allow a placed building to be clicked if a building is currently
+        // selected.
+        if (isNewBuildingSelected || isPlacedBuildingSelected) {
+            return false;
+        }
+        Building clickedBuilding = buildingPicker.getBuildingAt(tileX, tileY);
+        if (clickedBuilding == null) {
+            return false;
+        }
+        selectPlacedBuilding(clickedBuilding);
+        return true;
+    }
+
+    /**
+     * Selects the placed building whose bottom left corner is on a tile to
+     * be moved, if there is one. Unlike selectBuildingAtTile, this finds the
+     * building even when its footprint doesn't cover the tile.
+     * @param tileX x-coordinate of the building's bottom left tile.
+     * @param tileY y-coordinate of the building's bottom left tile.
+     * @return true if a placed building was selected, false otherwise.
+     */
+    public boolean selectBuildingWithAnchor(int tileX, int tileY) {
+        if (isNewBuildingSelected || isPlacedBuildingSelected) {
+            return false;
+        }
+        Building anchoredBuilding = buildingsTracker.getBuildingWithAnchor(tileX, tileY);
+        if (anchoredBuilding == null) {
+            return false;
+        }
+        selectPlacedBuilding(anchoredBuilding);
+        return true;
     }
 
     /**
@@ -122,6 +347,7 @@ public class BuildingPlacer {
     public void deselectBuilding () {
         isNewBuildingSelected = false;
         isPlacedBuildingSelected = false;
+        invalidateSnappedTile();
     }
 
     /**
@@ -147,23 +373,34 @@ public class BuildingPlacer {
         // Obtain map coordinates in terms of map tiles.
         int tileX = (int) mapPosition.x / TILE_WIDTH;
         int tileY = (int) mapPosition.y / TILE_HEIGHT;
+        placeBuildingAtTile(tileX, tileY);
+    }
+
+    /**
+     * Places the selected building with its bottom left corner on a tile and
+     * increases building count by 1 if it is a new building.
+     * @param tileX x-coordinate of the tile.
+     * @param tileY y-coordinate of the tile.
+     */
+    public void placeBuildingAtTile(int tileX, int tileY) {
         // Obtain map coordinates of the bottom left corner of the current tile
         int snappedPositionX = tileX * TILE_WIDTH;
         int snappedPositionY = tileY * TILE_HEIGHT;
         // If the building has already been created, its position just has to
         // be changed and re-added to the array.
         if (isPlacedBuildingSelected) {
-            // Re-activate building's clickable actor and collisions
-            buildingsTracker.enableBuildingOnMap(placedBuilding);
             placedBuilding.place(snappedPositionX, snappedPositionY);
+            // Re-activate building's clickable region and collisions at its
+            // new position.
+            buildingsTracker.enableBuildingOnMap(placedBuilding);
             return;
         }
         // Otherwise we create a new building
-        Building newPlacedBuilding = new Building(game, stage, buildingType,
-                                                defaultTexture, buildableTexture,
-                                                nonBuildableTexture,
-                                                snappedPositionX, snappedPositionY);
-        addClickListenerToBuilding(newPlacedBuilding);
+        Building newPlacedBuilding = new Building(game, buildingType,
+                                                defaultRegion, buildableRegion,
+                                                nonBuildableRegion,
+                                                snappedPositionX, snappedPositionY,
+                                                footprintMask, menuIndex);
         buildingsTracker.addBuilding(newPlacedBuilding);
     }
 
@@ -172,26 +409,30 @@ public class BuildingPlacer {
      * from the map.
      */
     public void deleteBuilding() {
-        placedBuilding.deleteActor();
         buildingsTracker.removeBuilding(placedBuilding);
     }
 
     /**
-     * Prevents map regions covered by a building actor from being clickable.
+     * Prevents map regions covered by a building from being clickable.
      */
-    public void disableBuildingActors() {
-        for (Building building : placedBuildingsToType.keySet()) {
-            building.disableActor();
-        }
+    public void disableBuildingPicking() {
+        buildingPicker.disable();
     }
 
     /**
-     * Enables map regions covered by a building actor to be clickable.
+     * Enables map regions covered by a building to be clickable.
      */
-    public void enableBuildingActors() {
-        for (Building building : placedBuildingsToType.keySet()) {
-            building.enableActor();
-        }
+    public void enableBuildingPicking() {
+        buildingPicker.enable();
+    }
+
+    /**
+     * Forces the next call to snapBuildingToGrid to check for collisions,
+     * as the selected building or the buildings on the map have changed.
+     */
+    private void invalidateSnappedTile() {
+        lastTileX = Integer.MIN_VALUE;
+        lastTileY = Integer.MIN_VALUE;
     }
 
     /**
@@ -201,19 +442,13 @@ public class BuildingPlacer {
      *                    buildable, false otherwise.
      */
     private void updateBuildingTexture(boolean isBuildable) {
-        if (isBuildable) {
-            buildingSprite.setTexture(buildableTexture);
+        if (previewMode == PlacementPreviewMode.TINT) {
+            // The default texture is kept, only the colour it is drawn with changes.
+            buildingSprite.setColor(isBuildable ? BUILDABLE_TINT : NON_BUILDABLE_TINT);
+        } else if (isBuildable) {
+            buildingSprite.setRegion(buildableRegion);
         } else {
-            buildingSprite.setTexture(nonBuildableTexture);
+            buildingSprite.setRegion(nonBuildableRegion);
         }
     }
-
-    /**
-     * Adds a click listener to the actors of the newly created Building objects
-     * @param newPlacedBuilding a newly created Building object.
-     */
-    private void addClickListenerToBuilding(Building newPlacedBuilding) {
-        newPlacedBuilding.getBuildingActor().addListener(
-            new PlacedBuildingClickListener(this, newPlacedBuilding));
-    }
 }
@@ -0,0 +1,173 @@
+package com.badlogic.unisim;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class is responsible for finding the placed buildings near a region of
+ * the map without looking at every building. The map is split into a uniform
+ * grid of cells, each cell holding the buildings that cover part of it.
+ */
+public class BuildingSpatialGrid {
+    // Width and height of a grid cell, measured in map tiles.
+    private static final int CELL_SIZE_IN_TILES = 4;
+    private final int cellWidth;
+    private final int cellHeight;
+    private final int columns;
+    private final int rows;
+    // Indexed by row and then column, null until a building covers the cell.
+    private final List<List<Building>> cells;
+
+    public BuildingSpatialGrid(int mapTileWidth, int mapTileHeight,
+                               int tileWidth, int tileHeight) {
+        this.cellWidth = tileWidth * CELL_SIZE_IN_TILES;
+        this.cellHeight = tileHeight * CELL_SIZE_IN_TILES;
+        this.columns = Math.max(1, (mapTileWidth + CELL_SIZE_IN_TILES - 1) / CELL_SIZE_IN_TILES);
+        this.rows = Math.max(1, (mapTileHeight + CELL_SIZE_IN_TILES - 1) / CELL_SIZE_IN_TILES);
+        this.cells = new ArrayList<>(Collections.nCopies(columns * rows, null));
+    }
+
+    /**
+     * Adds a building to every cell that its bounds cover.
+     * @param building the Building object that has been placed on the map.
+     */
+    public void insert(Building building) {
+        int minColumn = toColumn(building.getPositionX());
+        int maxColumn = toColumn(building.getPositionX() + building.getWidth() - 1);
+        int minRow = toRow(building.getPositionY());
+        int maxRow = toRow(building.getPositionY() + building.getHeight() - 1);
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                int index = (row * columns) + column;
+                List<Building> cell = cells.get(index);
+                if (cell == null) {
+                    cell = new ArrayList<>(4);
+                    cells.set(index, cell);
+                }
+                cell.add(building);
+            }
+        }
+    }
+
+    /**
+     * Removes a building from every cell that its bounds cover. The building
+     * must not have been moved since it was inserted.
+     * @param building the Building object that has been taken off the map.
+     */
+    public void remove(Building building) {
+        int minColumn = toColumn(building.getPositionX());
+        int maxColumn = toColumn(building.getPositionX() + building.getWidth() - 1);
+        int minRow = toRow(building.getPositionY());
+        int maxRow = toRow(building.getPositionY() + building.getHeight() - 1);
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                List<Building> cell = cells.get((row * columns) + column);
+                if (cell != null) {
+                    cell.remove(building);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes every building from the grid.
+     */
+    public void clear() {
+        for (List<Building> cell : cells) {
+            if (cell != null) {
+                cell.clear();
+            }
+        }
+    }
+
+    /**
+     * Checks if any building overlaps a region of the map. Buildings that
+     * only share an edge with the region do not count as overlapping.
+     * @param x map x-coordinate of the bottom left corner of the region.
+     * @param y map y-coordinate of the bottom left corner of the region.
+     * @param width width of the region.
+     * @param height height of the region.
+     * @return true if a building overlaps the region, false otherwise.
+     */
+    public boolean isAreaOccupied(int x, int y, int width, int height) {
+        int minColumn = toColumn(x);
+        int maxColumn = toColumn(x + width - 1);
+        int minRow = toRow(y);
+        int maxRow = toRow(y + height - 1);
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                List<Building> cell = cells.get((row * columns) + column);
+                if (cell == null) {
+                    continue;
+                }
+                for (int i = 0; i < cell.size(); i++) {
+                    if (overlaps(cell.get(i), x, y, width, height)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds every building that overlaps a region of the map. Each building
+     * is only added once, even if it covers several cells of the region.
+     * @param x map x-coordinate of the bottom left corner of the region.
+     * @param y map y-coordinate of the bottom left corner of the region.
+     * @param width width of the region.
+     * @param height height of the region.
+     * @param result the list to add the buildings to.
+     */
+    public void findBuildingsInArea(int x, int y, int width, int height,
+                                    List<Building> result) {
+        int minColumn = toColumn(x);
+        int maxColumn = toColumn(x + width - 1);
+        int minRow = toRow(y);
+        int maxRow = toRow(y + height - 1);
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                List<Building> cell = cells.get((row * columns) + column);
+                if (cell == null) {
+                    continue;
+                }
+                for (int i = 0; i < cell.size(); i++) {
+                    Building building = cell.get(i);
+                    // Only add a building from the first of its cells that
+                    // is inside the region.
+                    if (column == Math.max(minColumn, toColumn(building.getPositionX()))
+                        && row == Math.max(minRow, toRow(building.getPositionY()))
+                        && overlaps(building, x, y, width, height)) {
+                        result.add(building);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks if a building's bounds overlap a region, in the same way as
+     * Rectangle.overlaps.
+     */
+    private boolean overlaps(Building building, int x, int y, int width, int height) {
+        return building.getPositionX() < x + width
+            && building.getPositionX() + building.getWidth() > x
+            && building.getPositionY() < y + height
+            && building.getPositionY() + building.getHeight() > y;
+    }
+
+    /**
+     * Converts a map x-coordinate to a grid column, clamped to the grid.
+     */
+    private int toColumn(int x) {
+        return Math.min(Math.max(Math.floorDiv(x, cellWidth), 0), columns - 1);
+    }
+
+    /**
+     * Converts a map y-coordinate to a grid row, clamped to the grid.
+     */
+    private int toRow(int y) {
+        return Math.min(Math.max(Math.floorDiv(y, cellHeight), 0), rows - 1);
+    }
+}
@@ -0,0 +1,73 @@
+package com.badlogic.unisim;
+
+/**
+ * This enum is the registry of building types. Each type has a dense ID, so
+ * that per-type data can be stored in arrays indexed by the ID instead of
+ * in maps keyed by the type's name.
+ */
+public enum BuildingType {
+    EAT("eat", "Eat"),
+    LEARN("learn", "Learn"),
+    SLEEP("sleep", "Sleep"),
+    RECREATION("recreation", "Recreation");
+
+    // Number of building types, i.e the size of arrays indexed by type ID.
+    public static final int COUNT = values().length;
+    // Cached, as values() creates a new array on every call.
+    private static final BuildingType[] TYPES_BY_ID = values();
+    private final String name;
+    private final String displayName;
+
+    BuildingType(String name, String displayName) {
+        this.name = name;
+        this.displayName = displayName;
+    }
+
+    /**
+     * Returns the dense ID of the building type.
+     * @return an ID between 0 and COUNT - 1.
+     */
+    public int getId() {
+        return ordinal();
+    }
+
+    /**
+     * Returns the name of the building type, as used in the building
+     * texture file names. e.g 'sleep', 'learn'.
+     * @return the name of the building type.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the name of the building type as shown on-screen.
+     * @return the capitalised name of the building type.
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Finds the building type with the given ID.
+     * @param id the dense ID of the building type.
+     * @return the building type.
+     */
+    public static BuildingType fromId(int id) {
+        return TYPES_BY_ID[id];
+    }
+
+    /**
+     * Finds the building type with the given name.
+     * @param name the name of the building type. e.g 'sleep', 'learn'.
+     * @return the building type.
+     */
+    public static BuildingType fromName(String name) {
+        for (BuildingType type : TYPES_BY_ID) {
+            if (type.name.equals(name)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown building type: " + name);
+    }
+}
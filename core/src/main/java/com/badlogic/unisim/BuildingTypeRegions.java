@@ -0,0 +1,152 @@
+package com.badlogic.unisim;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * This class is responsible for finding the textures and footprint of a
+ * building without the building menu, e.g when buildings are loaded from a
+ * save or a journal. Buildings are found by their index in the building
+ * menu, and each type also has a default building, the first building of
+ * that type in the menu.
+ */
+public class BuildingTypeRegions {
+    // All indexed by menu index, see BuildingAssetsManager.
+    private final String[] buildingTypes;
+    private final int[] buildingTypeIds;
+    private final TextureRegion[] defaultRegions;
+    private final TextureRegion[] buildableRegions;
+    private final TextureRegion[] nonBuildableRegions;
+    private final FootprintMask[] footprintMasks;
+    // Indexed by building type ID, see BuildingType, -1 if the menu has no
+    // building of the type.
+    private final int[] defaultMenuIndexes;
+
+    /**
+     * Finds the textures and footprint of each building in the menu.
+     * @param buildingAssetsManager the manager the textures were loaded by.
+     * @param tileWidth width of a map tile, to work out the footprints in.
+     * @param tileHeight height of a map tile, to work out the footprints in.
+     */
+    public BuildingTypeRegions(BuildingAssetsManager buildingAssetsManager, int tileWidth,
+                               int tileHeight) {
+        this.defaultRegions = buildingAssetsManager.loadDefaultRegions();
+        this.buildableRegions = buildingAssetsManager.loadBuildableRegions();
+        this.nonBuildableRegions = buildingAssetsManager.loadNonBuildableRegions();
+        this.footprintMasks = buildingAssetsManager.loadFootprintMasks(tileWidth, tileHeight);
+        String[] buildingNames = buildingAssetsManager.getBuildingNames();
+        Map<String, String> buildingNameToType = buildingAssetsManager.getBuildingNameToType();
+        this.buildingTypes = new String[buildingNames.length];
+        this.buildingTypeIds = new int[buildingNames.length];
+        this.defaultMenuIndexes = new int[BuildingType.COUNT];
+        Arrays.fill(defaultMenuIndexes, -1);
+        for (int i = 0; i < buildingNames.length; i++) {
+            buildingTypes[i] = buildingNameToType.get(buildingNames[i]);
+            buildingTypeIds[i] = BuildingType.fromName(buildingTypes[i]).getId();
+            if (defaultMenuIndexes[buildingTypeIds[i]] < 0) {
+                defaultMenuIndexes[buildingTypeIds[i]] = i;
+            }
+        }
+    }
+
+    /**
+     * Checks whether there is a building of the given type to take textures from.
+     * @param buildingTypeId the ID of the building type, see BuildingType.
+     * @return true if the type has textures, false otherwise.
+     */
+    public boolean hasRegions(int buildingTypeId) {
+        return buildingTypeId >= 0 && buildingTypeId < BuildingType.COUNT
+            && defaultMenuIndexes[buildingTypeId] >= 0;
+    }
+
+    /**
+     * Returns the default building of a type.
+     * @param buildingTypeId the ID of the building type, see BuildingType.
+     * @return the menu index of the first building of the type in the menu,
+     * or -1 if there isn't one.
+     */
+    public int getDefaultMenuIndex(int buildingTypeId) {
+        return defaultMenuIndexes[buildingTypeId];
+    }
+
+    public TextureRegion getDefaultRegion(int buildingTypeId) {
+        return defaultRegions[defaultMenuIndexes[buildingTypeId]];
+    }
+
+    public TextureRegion getBuildableRegion(int buildingTypeId) {
+        return buildableRegions[defaultMenuIndexes[buildingTypeId]];
+    }
+
+    public TextureRegion getNonBuildableRegion(int buildingTypeId) {
+        return nonBuildableRegions[defaultMenuIndexes[buildingTypeId]];
+    }
+
+    public FootprintMask getFootprintMask(int buildingTypeId) {
+        return footprintMasks[defaultMenuIndexes[buildingTypeId]];
+    }
+
+    /**
+     * Returns the number of buildings in the building menu.
+     * @return the number of buildings in the menu.
+     */
+    public int getMenuBuildingCount() {
+        return buildingTypeIds.length;
+    }
+
+    /**
+     * Checks whether a menu index refers to a building in the menu.
+     * @param menuIndex the index of the building in the building menu.
+     * @return true if the menu has a building at the index, false otherwise.
+     */
+    public boolean hasMenuBuilding(int menuIndex) {
+        return menuIndex >= 0 && menuIndex < buildingTypeIds.length;
+    }
+
+    /**
+     * Returns the type of a building in the menu.
+     * @param menuIndex the index of the building in the building menu.
+     * @return the ID of the building's type, see BuildingType.
+     */
+    public int getMenuBuildingTypeId(int menuIndex) {
+        return buildingTypeIds[menuIndex];
+    }
+
+    /**
+     * Returns the tiles covered by a building in the menu.
+     * @param menuIndex the index of the building in the building menu.
+     * @return the building's footprint.
+     */
+    public FootprintMask getMenuFootprintMask(int menuIndex) {
+        return footprintMasks[menuIndex];
+    }
+
+    /**
+     * Creates a building of the menu on the map, as if it had been picked
+     * from the menu and placed.
+     * @param game the game the building is drawn in.
+     * @param menuIndex the index of the building in the building menu.
+     * @param positionX map x-coordinate of the building's bottom left corner.
+     * @param positionY map y-coordinate of the building's bottom left corner.
+     * @return the building, not yet added to a BuildingsTracker.
+     */
+    public Building createBuilding(UniSimGame game, int menuIndex, int positionX,
+                                   int positionY) {
+        return new Building(game, buildingTypes[menuIndex], defaultRegions[menuIndex],
+            buildableRegions[menuIndex], nonBuildableRegions[menuIndex], positionX, positionY,
+            footprintMasks[menuIndex], menuIndex);
+    }
+
+    /**
+     * Selects a building of the menu to be placed, as if it had been
+     * clicked in the building menu.
+     * @param buildingPlacer the placer to select the building in.
+     * @param menuIndex the index of the building in the building menu.
+     */
+    public void selectBuilding(BuildingPlacer buildingPlacer, int menuIndex) {
+        buildingPlacer.selectNewBuilding(defaultRegions[menuIndex], buildableRegions[menuIndex],
+            nonBuildableRegions[menuIndex], buildingTypes[menuIndex], footprintMasks[menuIndex],
+            menuIndex);
+    }
+}
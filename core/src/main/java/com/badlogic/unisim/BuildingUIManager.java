@@ -1,7 +1,6 @@
 package com.badlogic.unisim;
 
 import java.util.Map;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.scenes.scene2d.*;
 import com.badlogic.gdx.scenes.scene2d.ui.*;
@@ -13,9 +12,10 @@ import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
  */
 public class BuildingUIManager {
     private final UniSimGame game;
-    private final Texture[] defaultTextures;
-    private final Texture[] buildableTextures;
-    private final Texture[] nonBuildableTextures;
+    private final TextureRegion[] defaultRegions;
+    private final TextureRegion[] buildableRegions;
+    private final TextureRegion[] nonBuildableRegions;
+    private final FootprintMask[] footprintMasks;
     private final String[] buildingNames;
     private Label[] buildingLabels;
     private final Map<String, String> buildingNameToType;
@@ -25,19 +25,21 @@ public class BuildingUIManager {
 
     public BuildingUIManager(UniSimGame game, Stage stage,
                              BuildingPlacer buildingPlacer,
-                             BuildingsTracker buildingsTracker) {
+                             BuildingsTracker buildingsTracker,
+                             BuildingAssetsManager buildingAssetsManager) {
         this.game = game;
         this.buildingPlacer = buildingPlacer;
         this.buildingsTracker = buildingsTracker;
-        // Load in and create all the assets and data structures required for
+        // Get the loaded assets and create the data structures required for
         // the buildings
-        BuildingAssetsManager buildingAssetsManager = new BuildingAssetsManager();
-        this.defaultTextures = buildingAssetsManager.loadDefaultTextures();
-        this.buildableTextures = buildingAssetsManager.loadBuildableTextures();
-        this.nonBuildableTextures = buildingAssetsManager.loadNonBuildableTextures();
+        this.defaultRegions = buildingAssetsManager.loadDefaultRegions();
+        this.buildableRegions = buildingAssetsManager.loadBuildableRegions();
+        this.nonBuildableRegions = buildingAssetsManager.loadNonBuildableRegions();
+        this.footprintMasks = buildingAssetsManager.loadFootprintMasks(
+            buildingPlacer.getTileWidth(), buildingPlacer.getTileHeight());
         this.buildingNames = buildingAssetsManager.getBuildingNames();
         this.buildingNameToType = buildingAssetsManager.getBuildingNameToType();
-        this.buildingLabels = new Label[defaultTextures.length];
+        this.buildingLabels = new Label[defaultRegions.length];
         // Create all the tables required to organise UI elements
         Table buildingTable = createBuildingTable(buildingNames);
         this.scrollPane = createScrollPane(buildingTable);
@@ -78,10 +80,10 @@ public class BuildingUIManager {
      * @return a table containing labelled ImageButton objects.
      */
     private Table createBuildingTable(String[] buildingNames) {
-        ImageButton[] buildingButtons = new ImageButton[defaultTextures.length];
-        buildingLabels = new Label[defaultTextures.length];
+        ImageButton[] buildingButtons = new ImageButton[defaultRegions.length];
+        buildingLabels = new Label[defaultRegions.length];
         Table buildingTable = new Table();
-        addImagesToTable(buildingTable, buildingButtons, defaultTextures,
+        addImagesToTable(buildingTable, buildingButtons, defaultRegions,
                          buildingLabels, buildingNames);
         addClickListenerToImageButtons(buildingButtons);
         buildingTable.pack();
@@ -124,14 +126,14 @@ public class BuildingUIManager {
      * @param buildingTable The table that will contain the images.
      * @param buildingButtons An array containing ImageButton objects created from
      *                       the building textures.
-     * @param defaultTextures An array containing the normal textures of each building.
+     * @param defaultRegions An array containing the normal textures of each building.
      */
     private void addImagesToTable(Table buildingTable, ImageButton[] buildingButtons,
-                                  Texture[] defaultTextures, Label[] buildingLabels,
+                                  TextureRegion[] defaultRegions, Label[] buildingLabels,
                                   String[] buildingNames) {
-        for (int i = 0; i < defaultTextures.length; i++) {
+        for (int i = 0; i < defaultRegions.length; i++) {
             // Style the image buttons
-            buildingButtons[i] = createStyledImageButton(defaultTextures[i], game.skin);
+            buildingButtons[i] = createStyledImageButton(defaultRegions[i], game.skin);
             // Create label for each building using the names
             buildingLabels[i] = new Label(
                 buildingNames[i]+ ": " + getTypeAvailability(buildingNames[i]), game.skin
@@ -151,14 +153,14 @@ public class BuildingUIManager {
 
     /**
      * Creates and styles a new ImageButton object using the building texture and an ui skin.
-     * @param defaultTexture The normal texture of the building.
+     * @param defaultRegion The normal texture of the building.
      * @param skin collection of assets to style a UI component.
      * @return new ImageButton implementing the ui skins and building texture.
      */
-    private ImageButton createStyledImageButton(Texture defaultTexture, Skin skin) {
-        // Create a texture region and wrap it in a drawable, allowing the
-        // image to be used inside an image button.
-        Drawable buildingDrawable = new TextureRegionDrawable(new TextureRegion(defaultTexture));
+    private ImageButton createStyledImageButton(TextureRegion defaultRegion, Skin skin) {
+        // Wrap the texture region in a drawable, allowing the image to be
+        // used inside an image button.
+        Drawable buildingDrawable = new TextureRegionDrawable(defaultRegion);
         // ImageButtonStyle is responsible for how the button's visuals change
         // from its default state to its clicked (button-down) state.
         ImageButton.ImageButtonStyle buttonStyle = new ImageButton.ImageButtonStyle();
@@ -195,11 +197,13 @@ public class BuildingUIManager {
         for (int i = 0; i < buildingButtons.length; i++) {
             buildingButtons[i].addListener(new NewBuildingClickListener(buildingPlacer,
                                                                      buildingsTracker,
-                                                                     defaultTextures[i],
-                                                                     buildableTextures[i],
-                                                                     nonBuildableTextures[i],
+                                                                     defaultRegions[i],
+                                                                     buildableRegions[i],
+                                                                     nonBuildableRegions[i],
+                                                                     footprintMasks[i],
                                                                      BuildingUIManager.this,
-                                                                     buildingNameToType.get(buildingNames[i])) {}
+                                                                     buildingNameToType.get(buildingNames[i]),
+                                                                     i) {}
             );
         }
     }
@@ -211,15 +215,6 @@ public class BuildingUIManager {
      */
     private int getTypeAvailability(String buildingName) {
         String buildingType = buildingNameToType.get(buildingName);
-        return buildingsTracker.buildingTypesAvailability.get(buildingType);
-    }
-
-
-    public void dispose() {
-        for (int i = 0; i < defaultTextures.length ; i++) {
-            defaultTextures[i].dispose();
-            buildableTextures[i].dispose();
-            nonBuildableTextures[i].dispose();
-        }
+        return buildingsTracker.getBuildingTypeAvailability(buildingType);
     }
 }
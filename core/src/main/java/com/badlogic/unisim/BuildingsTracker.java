@@ -1,6 +1,11 @@
 package com.badlogic.unisim;
 
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -9,24 +14,83 @@ import java.util.Map;
  */
 public class BuildingsTracker {
     private final Map<Building, String> placedBuildingsToType;
-    public final Map<String, Integer> buildingTypesAvailability;
-    private final Map<String, Integer> placedBuildingTypesCount;
+    // Both arrays are indexed by building type ID, see BuildingType.
+    private final int[] buildingTypesAvailability;
+    private final int[] placedBuildingTypesCount;
+    private final BuildingSpatialGrid spatialGrid;
+    private final BuildingPicker buildingPicker;
+    // Placed buildings by the tile of their bottom left corner, which their
+    // footprint doesn't always cover. BuildingPlacer never places a building
+    // on another's anchor tile, so each tile has at most one building.
+    private final Map<Integer, Building> anchorTilesToBuilding;
+    private final int TILE_WIDTH;
+    private final int TILE_HEIGHT;
+    private final List<BuildingsTrackerListener> listeners;
+    // Increases every time a building is placed, moved or deleted.
+    private int modificationCount;
 
 
-    public BuildingsTracker() {
+    public BuildingsTracker(TiledMapTileLayer buildableLayer) {
         this.placedBuildingsToType = new HashMap<>();
-        this.buildingTypesAvailability = new HashMap<>();
-        this.placedBuildingTypesCount = new HashMap<>();
+        this.spatialGrid = new BuildingSpatialGrid(buildableLayer.getWidth(),
+            buildableLayer.getHeight(), buildableLayer.getTileWidth(),
+            buildableLayer.getTileHeight());
+        this.buildingPicker = new BuildingPicker(buildableLayer.getWidth(),
+            buildableLayer.getHeight(), buildableLayer.getTileWidth(),
+            buildableLayer.getTileHeight());
+        this.anchorTilesToBuilding = new HashMap<>();
+        this.TILE_WIDTH = buildableLayer.getTileWidth();
+        this.TILE_HEIGHT = buildableLayer.getTileHeight();
+        this.buildingTypesAvailability = new int[BuildingType.COUNT];
+        // Counts start at 0 for each building type.
+        this.placedBuildingTypesCount = new int[BuildingType.COUNT];
+        this.listeners = new ArrayList<>();
         setBuildingTypeAvailability();
-        setBuildingTypesCount();
     }
 
     /**
-     * Returns the number of buildings currently placed on the map.
-     * @return the number of buildings placed on the map.
+     * Returns the number of buildings of a type currently placed on the map.
+     * @param buildingTypeId the ID of the building type, see BuildingType.
+     * @return the number of buildings of the type placed on the map.
+     */
+    public int getBuildingCount(int buildingTypeId) {
+        return placedBuildingTypesCount[buildingTypeId];
+    }
+
+    /**
+     * Returns the number of buildings of a type currently placed on the map.
+     * @param buildingType the type of building. e.g 'sleep', 'learn'.
+     * @return the number of buildings of the type placed on the map.
      */
     public int getBuildingCount(String buildingType) {
-        return placedBuildingTypesCount.get(buildingType);
+        return getBuildingCount(BuildingType.fromName(buildingType).getId());
+    }
+
+    /**
+     * Returns how many buildings of a type can be on the map at once.
+     * @param buildingTypeId the ID of the building type, see BuildingType.
+     * @return the number of buildings of the type that can be placed in total.
+     */
+    public int getBuildingTypeLimit(int buildingTypeId) {
+        return buildingTypesAvailability[buildingTypeId] + placedBuildingTypesCount[buildingTypeId];
+    }
+
+    /**
+     * Returns how many more buildings of a type can be placed.
+     * @param buildingTypeId the ID of the building type, see BuildingType.
+     * @return how many more buildings of the type can be placed.
+     */
+    public int getBuildingTypeAvailability(int buildingTypeId) {
+        return buildingTypesAvailability[buildingTypeId];
+    }
+
+    /**
+     * Returns how many more buildings of a type can be placed.
+     * @param buildingType the type of building. e.g 'sleep', 'learn'.
+     * @return how many more buildings of the type can be placed.
+     */
+    public int getBuildingTypeAvailability(String buildingType) {
+        return getBuildingTypeAvailability(BuildingType.fromName(buildingType).getId());
     }
 
     /**
@@ -37,6 +101,52 @@ public class BuildingsTracker {
         return placedBuildingsToType;
     }
 
+    /**
+     * Returns a number that changes whenever the buildings on the map change,
+     * so that anything derived from them knows when to be rebuilt.
+     * @return the number of changes made to the placed buildings.
+     */
+    public int getModificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * Registers a listener to be told about each building put on or taken
+     * off the map.
+     * @param listener the listener to add.
+     */
+    public void addListener(BuildingsTrackerListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Retrieve the spatial index of the buildings that can currently be
+     * collided with.
+     * @return the spatial grid of the placed buildings.
+     */
+    public BuildingSpatialGrid getSpatialGrid() {
+        return spatialGrid;
+    }
+
+    /**
+     * Retrieve the tile to building lookup used to click on placed buildings.
+     * @return the building picker of the placed buildings.
+     */
+    public BuildingPicker getBuildingPicker() {
+        return buildingPicker;
+    }
+
+    /**
+     * Finds the placed building whose bottom left corner is on a tile, e.g
+     * to find the building a command refers to.
+     * @param tileX x-coordinate of the tile.
+     * @param tileY y-coordinate of the tile.
+     * @return the building anchored at the tile, or null if there isn't one.
+     */
+    public Building getBuildingWithAnchor(int tileX, int tileY) {
+        return anchorTilesToBuilding.get(getAnchorKey(tileX, tileY));
+    }
+
     /**
      * Checks whether it is still possible to place more buildings of a given
      * type.
@@ -44,8 +154,17 @@ public class BuildingsTracker {
      * @return true if there is still availability, false otherwise.
      */
     public boolean isBuildingTypeAvailable(String buildingType) {
-        int availability = buildingTypesAvailability.get(buildingType);
-        return availability > 0;
+        return isBuildingTypeAvailable(BuildingType.fromName(buildingType).getId());
+    }
+
+    /**
+     * Checks whether it is still possible to place more buildings of a given
+     * type.
+     * @param buildingTypeId the ID of the building type, see BuildingType.
+     * @return true if there is still availability, false otherwise.
+     */
+    public boolean isBuildingTypeAvailable(int buildingTypeId) {
+        return buildingTypesAvailability[buildingTypeId] > 0;
     }
 
     /**
@@ -55,8 +174,16 @@ public class BuildingsTracker {
     public void addBuilding(Building building) {
         String buildingType = building.getBuildingType();
         placedBuildingsToType.put(building, buildingType);
-        decreaseBuildingTypeAvailability(buildingType);
-        increaseBuildingCount(buildingType);
+        spatialGrid.insert(building);
+        anchorTilesToBuilding.put(getAnchorKey(building), building);
+        buildingPicker.register(building);
+        buildingPicker.occupy(building);
+        int buildingTypeId = building.getBuildingTypeId();
+        // Placing a building uses up one of its type's availability.
+        buildingTypesAvailability[buildingTypeId]--;
+        placedBuildingTypesCount[buildingTypeId]++;
+        modificationCount++;
+        notifyBuildingAdded(building);
     }
 
     /**
@@ -64,12 +191,55 @@ public class BuildingsTracker {
      * @param building the Building object that has been deleted from the map.
      */
     public void removeBuilding(Building building) {
-        String buildingType = building.getBuildingType();
-        placedBuildingsToType.remove(building);
-        increaseBuildingTypeAvailability(buildingType);
-        decreaseBuildingCount(buildingType);
+        // A building being moved has already been taken out of the grid.
+        boolean wasOnMap = placedBuildingsToType.remove(building) != null;
+        if (wasOnMap) {
+            spatialGrid.remove(building);
+            anchorTilesToBuilding.remove(getAnchorKey(building), building);
+            buildingPicker.vacate(building);
+        }
+        int buildingTypeId = building.getBuildingTypeId();
+        // Deleting a building frees up one of its type's availability.
+        buildingTypesAvailability[buildingTypeId]++;
+        placedBuildingTypesCount[buildingTypeId]--;
+        modificationCount++;
+        if (wasOnMap) {
+            notifyBuildingRemoved(building);
+        }
+        // Listeners may look the building up by its ID, so it is only
+        // unregistered once they have been told.
+        buildingPicker.unregister(building);
     }
 
+    /**
+     * Replaces every placed building at once, e.g when a saved campus is
+     * loaded. The indexes are cleared and refilled in a single pass, rather
+     * than adding and counting the buildings one at a time.
+     * @param buildings the buildings to place, already at their positions.
+     * @param buildingTypesAvailability how many more buildings of each type
+     *                                  can be placed, indexed by type ID.
+     */
+    public void replaceBuildings(Building[] buildings, int[] buildingTypesAvailability) {
+        placedBuildingsToType.clear();
+        spatialGrid.clear();
+        anchorTilesToBuilding.clear();
+        buildingPicker.clear();
+        Arrays.fill(placedBuildingTypesCount, 0);
+        for (Building building : buildings) {
+            placedBuildingsToType.put(building, building.getBuildingType());
+            spatialGrid.insert(building);
+            anchorTilesToBuilding.put(getAnchorKey(building), building);
+            buildingPicker.register(building);
+            buildingPicker.occupy(building);
+            placedBuildingTypesCount[building.getBuildingTypeId()]++;
+        }
+        System.arraycopy(buildingTypesAvailability, 0, this.buildingTypesAvailability, 0,
+            BuildingType.COUNT);
+        modificationCount++;
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).buildingsReplaced();
+        }
+    }
 
     /**
      * Temporarily disable its collision detection to stop the selected
@@ -78,82 +248,55 @@ public class BuildingsTracker {
      */
     public void disableBuildingOnMap(Building building) {
         placedBuildingsToType.remove(building);
-        building.disableActor();
+        spatialGrid.remove(building);
+        anchorTilesToBuilding.remove(getAnchorKey(building), building);
+        buildingPicker.vacate(building);
+        modificationCount++;
+        notifyBuildingRemoved(building);
     }
 
     /**
      * Enable its collision detection when placed and enable its clickable
-     * region.
+     * region. The building must already be at its new position.
      * @param building the building object to be 'enabled'.
      */
     public void enableBuildingOnMap(Building building) {
         placedBuildingsToType.put(building, building.getBuildingType());
-        building.enableActor();
-    }
-
-    public void drawBuildings() {
-        for (Building building : placedBuildingsToType.keySet()) {
-            building.draw();
-        }
+        spatialGrid.insert(building);
+        anchorTilesToBuilding.put(getAnchorKey(building), building);
+        buildingPicker.occupy(building);
+        modificationCount++;
+        notifyBuildingAdded(building);
     }
 
-    /**
-     * Sets the limit for how many buildings of each type can be placed.
-     */
-    private void setBuildingTypeAvailability() {
-        buildingTypesAvailability.put("eat", 1);
-        buildingTypesAvailability.put("sleep", 2);
-        buildingTypesAvailability.put("learn", 1);
-        buildingTypesAvailability.put("recreation", 1);
+    private int getAnchorKey(Building building) {
+        return getAnchorKey(building.getPositionX() / TILE_WIDTH,
+            building.getPositionY() / TILE_HEIGHT);
     }
 
-    /**
-     * Initialises the count for each building type to 0.
-     */
-    private void setBuildingTypesCount() {
-        placedBuildingTypesCount.put("eat", 0);
-        placedBuildingTypesCount.put("sleep", 0);
-        placedBuildingTypesCount.put("learn", 0);
-        placedBuildingTypesCount.put("recreation", 0);
+    private static int getAnchorKey(int tileX, int tileY) {
+        return (tileX << 16) | (tileY & 0xFFFF);
     }
 
-    /**
-     * Increases building type count by 1.
-     * @param buildingType the type of building.
-     */
-    private void increaseBuildingCount(String buildingType) {
-        int currentCount = placedBuildingTypesCount.get(buildingType);
-        currentCount++;
-        placedBuildingTypesCount.put(buildingType, currentCount);
-    }
-
-    /**
-     * Decreases building type count by 1.
-     * @param buildingType the type of building.
-     */
-    private void decreaseBuildingCount(String buildingType) {
-        int currentCount = placedBuildingTypesCount.get(buildingType);
-        currentCount--;
-        placedBuildingTypesCount.put(buildingType, currentCount);
+    private void notifyBuildingAdded(Building building) {
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).buildingAdded(building);
+        }
     }
 
-    /**
-     * Free up availability by 1, this is done when a building is deleted.
-     * @param buildingType the type of building.
-     */
-    private void increaseBuildingTypeAvailability(String buildingType) {
-        int currentAvailability = buildingTypesAvailability.get(buildingType);
-        currentAvailability++;
-        buildingTypesAvailability.put(buildingType, currentAvailability);
+    private void notifyBuildingRemoved(Building building) {
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).buildingRemoved(building);
+        }
     }
 
     /**
-     * Decrease availability by 1, this is done when a building is placed.
-     * @param buildingType the type of building.
+     * Sets the limit for how many buildings of each type can be placed.
      */
-    private void decreaseBuildingTypeAvailability(String buildingType) {
-        int currentAvailability = buildingTypesAvailability.get(buildingType);
-        currentAvailability--;
-        buildingTypesAvailability.put(buildingType, currentAvailability);
+    private void setBuildingTypeAvailability() {
+        buildingTypesAvailability[BuildingType.EAT.getId()] = 1;
+        buildingTypesAvailability[BuildingType.SLEEP.getId()] = 2;
+        buildingTypesAvailability[BuildingType.LEARN.getId()] = 1;
+        buildingTypesAvailability[BuildingType.RECREATION.getId()] = 1;
     }
 }
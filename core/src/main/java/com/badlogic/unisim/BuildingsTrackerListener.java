@@ -0,0 +1,28 @@
+package com.badlogic.unisim;
+
+/**
+ * This interface is implemented by anything that is kept up to date with the
+ * buildings on the map one change at a time, rather than by being rebuilt
+ * whenever the BuildingsTracker's modification count changes.
+ * A moved building is removed from its old position, then added at its new
+ * one once it is placed.
+ */
+public interface BuildingsTrackerListener {
+    /**
+     * Called after a building has been put on the map.
+     * @param building the building, at its placed position.
+     */
+    void buildingAdded(Building building);
+
+    /**
+     * Called after a building has been taken off the map.
+     * @param building the building, still at the position it was taken from.
+     */
+    void buildingRemoved(Building building);
+
+    /**
+     * Called after every building on the map has been replaced at once, e.g
+     * when a saved campus is loaded.
+     */
+    void buildingsReplaced();
+}
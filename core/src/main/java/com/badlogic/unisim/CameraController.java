@@ -0,0 +1,202 @@
+package com.badlogic.unisim;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.viewport.FitViewport;
+
+/**
+ * This class is responsible for moving the camera over the map, zooming in
+ * and out with the scroll wheel and panning by dragging the map or holding
+ * the mouse at the edge of the screen. The camera is always kept over the
+ * map, and can zoom out until the whole map is visible.
+ */
+public class CameraController {
+    // Closest the camera can zoom in, 0.25 showing a quarter of the width
+    // the viewport shows at a zoom of 1.
+    private static final float MIN_ZOOM = 0.25f;
+    // Change in zoom for each notch of the scroll wheel.
+    private static final float ZOOM_STEP = 1.1f;
+    // Distance from the edge of the screen in pixels at which the camera
+    // starts to pan.
+    private static final int EDGE_SIZE = 16;
+    // Speed of panning at the edge of the screen, in screen widths per second.
+    private static final float EDGE_PAN_SPEED = 0.75f;
+    private final OrthographicCamera camera;
+    private final FitViewport viewport;
+    private final float mapWidth;
+    private final float mapHeight;
+    private final float maxZoom;
+    private final Rectangle visibleArea;
+    private final Vector3 pointerPosition;
+    private boolean isDragging;
+    private int lastDragX;
+    private int lastDragY;
+    // Increases every time the camera moves, so that anything under the
+    // mouse knows to be moved with it.
+    private int moveCount;
+
+    /**
+     * Creates a controller for a camera, zoomed out to show the whole map.
+     * @param viewport the viewport of the map, with the camera to move.
+     * @param mapWidth width of the map.
+     * @param mapHeight height of the map.
+     */
+    public CameraController(FitViewport viewport, float mapWidth, float mapHeight) {
+        this.viewport = viewport;
+        this.camera = (OrthographicCamera) viewport.getCamera();
+        this.mapWidth = mapWidth;
+        this.mapHeight = mapHeight;
+        this.maxZoom = Math.max(1, Math.max(mapWidth / viewport.getWorldWidth(),
+            mapHeight / viewport.getWorldHeight()));
+        this.visibleArea = new Rectangle();
+        this.pointerPosition = new Vector3();
+        camera.zoom = maxZoom;
+        camera.position.set(mapWidth / 2, mapHeight / 2, 0);
+        clampToMap();
+    }
+
+    /**
+     * Zooms in or out, keeping the point of the map under the mouse still.
+     * @param amount the number of notches the scroll wheel moved, negative
+     *               to zoom in.
+     * @param screenX the x-coordinate of the mouse on the screen.
+     * @param screenY the y-coordinate of the mouse on the screen.
+     */
+    public void zoom(float amount, int screenX, int screenY) {
+        float newZoom = MathUtils.clamp(camera.zoom * (float) Math.pow(ZOOM_STEP, amount),
+            MIN_ZOOM, maxZoom);
+        if (newZoom == camera.zoom) {
+            return;
+        }
+        // Find where the mouse is on the map before and after zooming, then
+        // move the camera by the difference.
+        camera.update();
+        viewport.unproject(pointerPosition.set(screenX, screenY, 0));
+        float mapX = pointerPosition.x;
+        float mapY = pointerPosition.y;
+        camera.zoom = newZoom;
+        camera.update();
+        viewport.unproject(pointerPosition.set(screenX, screenY, 0));
+        camera.position.x += mapX - pointerPosition.x;
+        camera.position.y += mapY - pointerPosition.y;
+        clampToMap();
+        moveCount++;
+    }
+
+    /**
+     * Starts dragging the map with the mouse.
+     * @param screenX the x-coordinate of the mouse on the screen.
+     * @param screenY the y-coordinate of the mouse on the screen.
+     */
+    public void startDrag(int screenX, int screenY) {
+        isDragging = true;
+        lastDragX = screenX;
+        lastDragY = screenY;
+    }
+
+    /**
+     * Moves the map along with the mouse while it is being dragged.
+     * @param screenX the x-coordinate of the mouse on the screen.
+     * @param screenY the y-coordinate of the mouse on the screen.
+     * @return true if the map is being dragged, false otherwise.
+     */
+    public boolean drag(int screenX, int screenY) {
+        if (!isDragging) {
+            return false;
+        }
+        // Screen pixels are scaled by the viewport and the zoom.
+        float mapUnitsPerPixel = camera.zoom * viewport.getWorldWidth() / viewport.getScreenWidth();
+        // Screen y-coordinates go down, map y-coordinates go up.
+        pan((lastDragX - screenX) * mapUnitsPerPixel, (screenY - lastDragY) * mapUnitsPerPixel);
+        lastDragX = screenX;
+        lastDragY = screenY;
+        return true;
+    }
+
+    /**
+     * Stops dragging the map.
+     * @return true if the map was being dragged, false otherwise.
+     */
+    public boolean stopDrag() {
+        boolean wasDragging = isDragging;
+        isDragging = false;
+        return wasDragging;
+    }
+
+    /**
+     * Pans the camera if the mouse is at the edge of the screen. Should be
+     * called once per rendered frame.
+     * @param delta the time since the last frame in seconds.
+     */
+    public void update(float delta) {
+        int screenX = Gdx.input.getX();
+        int screenY = Gdx.input.getY();
+        int screenWidth = Gdx.graphics.getWidth();
+        int screenHeight = Gdx.graphics.getHeight();
+        float distance = EDGE_PAN_SPEED * delta * camera.zoom * viewport.getWorldWidth();
+        float panX = 0;
+        float panY = 0;
+        if (screenX < EDGE_SIZE) {
+            panX = -distance;
+        } else if (screenX >= screenWidth - EDGE_SIZE) {
+            panX = distance;
+        }
+        // Screen y-coordinates go down, map y-coordinates go up.
+        if (screenY < EDGE_SIZE) {
+            panY = distance;
+        } else if (screenY >= screenHeight - EDGE_SIZE) {
+            panY = -distance;
+        }
+        if (panX != 0 || panY != 0) {
+            pan(panX, panY);
+        }
+    }
+
+    /**
+     * Returns the region of the map the camera can currently see.
+     * @return the visible region, reused between calls.
+     */
+    public Rectangle getVisibleArea() {
+        float width = viewport.getWorldWidth() * camera.zoom;
+        float height = viewport.getWorldHeight() * camera.zoom;
+        return visibleArea.set(camera.position.x - (width / 2), camera.position.y - (height / 2),
+            width, height);
+    }
+
+    /**
+     * Returns a number that changes whenever the camera moves or zooms.
+     * @return the number of times the camera has moved.
+     */
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    private void pan(float amountX, float amountY) {
+        float oldX = camera.position.x;
+        float oldY = camera.position.y;
+        camera.position.x += amountX;
+        camera.position.y += amountY;
+        clampToMap();
+        // Panning does nothing while the whole map is visible.
+        if (camera.position.x != oldX || camera.position.y != oldY) {
+            moveCount++;
+        }
+    }
+
+    /**
+     * Moves the camera back over the map, centring the map along any side
+     * that is shorter than the view.
+     */
+    private void clampToMap() {
+        float halfWidth = viewport.getWorldWidth() * camera.zoom / 2;
+        float halfHeight = viewport.getWorldHeight() * camera.zoom / 2;
+        camera.position.x = halfWidth * 2 >= mapWidth ? mapWidth / 2
+            : MathUtils.clamp(camera.position.x, halfWidth, mapWidth - halfWidth);
+        camera.position.y = halfHeight * 2 >= mapHeight ? mapHeight / 2
+            : MathUtils.clamp(camera.position.y, halfHeight, mapHeight - halfHeight);
+        camera.update();
+    }
+}
@@ -0,0 +1,46 @@
+package com.badlogic.unisim;
+
+/**
+ * This class is responsible for holding an arrangement of buildings found by
+ * the LayoutOptimizer. A layout never changes once it has been created.
+ */
+public class CampusLayout {
+    private final double score;
+    private final int[] typeIds;
+    private final int[] tilesX;
+    private final int[] tilesY;
+
+    /**
+     * Copies an arrangement of buildings.
+     * @param score the layout score of the arrangement.
+     * @param typeIds the type ID of each building.
+     * @param tilesX the bottom left tile x-coordinate of each building.
+     * @param tilesY the bottom left tile y-coordinate of each building.
+     */
+    public CampusLayout(double score, int[] typeIds, int[] tilesX, int[] tilesY) {
+        this.score = score;
+        this.typeIds = typeIds.clone();
+        this.tilesX = tilesX.clone();
+        this.tilesY = tilesY.clone();
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public int getBuildingCount() {
+        return typeIds.length;
+    }
+
+    public int getTypeId(int building) {
+        return typeIds[building];
+    }
+
+    public int getTileX(int building) {
+        return tilesX[building];
+    }
+
+    public int getTileY(int building) {
+        return tilesY[building];
+    }
+}
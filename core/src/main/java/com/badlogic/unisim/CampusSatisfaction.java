@@ -0,0 +1,201 @@
+package com.badlogic.unisim;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class is responsible for scoring how satisfied students are with the
+ * layout of the campus. The score is made up of:
+ *  - Mix: points for each building type with at least one building.
+ *  - Proximity: points for each pair of complementary buildings (sleep and
+ *  learn, sleep and eat) near each other, more the closer they are.
+ *  - Crowding: a penalty for each pair of buildings squeezed close together.
+ * Proximity and crowding only depend on pairs of nearby buildings, so they
+ * are kept up to date by adding or taking away the pairs of the building
+ * that changed, rather than by looking at every pair again.
+ */
+public class CampusSatisfaction implements BuildingsTrackerListener {
+    // Points for each building type that has been built.
+    private static final double MIX_POINTS = 25;
+    // Points for a complementary pair of buildings on top of each other,
+    // falling to nothing at PROXIMITY_RANGE tiles apart.
+    private static final double PROXIMITY_POINTS = 20;
+    private static final double PROXIMITY_RANGE = 20;
+    // Penalty for a pair of buildings on top of each other, falling to
+    // nothing at CROWDING_RANGE tiles apart.
+    private static final double CROWDING_PENALTY = 10;
+    private static final double CROWDING_RANGE = 5;
+    // Whether two building types complement each other, indexed by both
+    // type IDs.
+    private static final boolean[][] IS_COMPLEMENTARY = new boolean[BuildingType.COUNT][BuildingType.COUNT];
+    private final BuildingsTracker buildingsTracker;
+    private final int TILE_WIDTH;
+    private final int TILE_HEIGHT;
+    // Reused to collect the buildings near a changed building.
+    private final List<Building> nearbyBuildings;
+    private double proximityScore;
+    private double crowdingPenalty;
+
+    static {
+        setComplementary(BuildingType.SLEEP, BuildingType.LEARN);
+        setComplementary(BuildingType.SLEEP, BuildingType.EAT);
+    }
+
+    public CampusSatisfaction(BuildingsTracker buildingsTracker, int tileWidth, int tileHeight) {
+        this.buildingsTracker = buildingsTracker;
+        this.TILE_WIDTH = tileWidth;
+        this.TILE_HEIGHT = tileHeight;
+        this.nearbyBuildings = new ArrayList<>();
+        buildingsTracker.addListener(this);
+        buildingsReplaced();
+    }
+
+    /**
+     * Returns the overall satisfaction score.
+     * @return the mix and proximity scores minus the crowding penalty.
+     */
+    public double getScore() {
+        return getMixScore() + proximityScore - crowdingPenalty;
+    }
+
+    /**
+     * Returns the points for the variety of buildings. A building being
+     * moved still counts towards the mix.
+     * @return the points for each building type that has been built.
+     */
+    public double getMixScore() {
+        double mixScore = 0;
+        for (int typeId = 0; typeId < BuildingType.COUNT; typeId++) {
+            if (buildingsTracker.getBuildingCount(typeId) > 0) {
+                mixScore += MIX_POINTS;
+            }
+        }
+        return mixScore;
+    }
+
+    /**
+     * Returns the points for complementary buildings being near each other.
+     * @return the proximity score.
+     */
+    public double getProximityScore() {
+        return proximityScore;
+    }
+
+    /**
+     * Returns the penalty for buildings being squeezed together.
+     * @return the crowding penalty, 0 or more.
+     */
+    public double getCrowdingPenalty() {
+        return crowdingPenalty;
+    }
+
+    @Override
+    public void buildingAdded(Building building) {
+        applyPairs(building, 1);
+    }
+
+    @Override
+    public void buildingRemoved(Building building) {
+        applyPairs(building, -1);
+    }
+
+    /**
+     * Scores every pair of placed buildings from scratch, counting each pair
+     * once.
+     */
+    @Override
+    public void buildingsReplaced() {
+        proximityScore = 0;
+        crowdingPenalty = 0;
+        for (Building building : buildingsTracker.getPlacedBuildingsToType().keySet()) {
+            applyPairs(building, 0.5);
+        }
+    }
+
+    /**
+     * Adds the pairs a building makes with the buildings near it to the
+     * score, weighted by a factor, e.g -1 to take them away.
+     */
+    private void applyPairs(Building building, double weight) {
+        int rangeX = (int) Math.ceil(getRangeInTiles() * TILE_WIDTH);
+        int rangeY = (int) Math.ceil(getRangeInTiles() * TILE_HEIGHT);
+        nearbyBuildings.clear();
+        buildingsTracker.getSpatialGrid().findBuildingsInArea(
+            building.getPositionX() - rangeX, building.getPositionY() - rangeY,
+            building.getWidth() + (2 * rangeX), building.getHeight() + (2 * rangeY),
+            nearbyBuildings);
+        int typeId = building.getBuildingTypeId();
+        for (int i = 0; i < nearbyBuildings.size(); i++) {
+            Building other = nearbyBuildings.get(i);
+            if (other == building) {
+                continue;
+            }
+            double distance = getGapInTiles(building.getPositionX(), building.getPositionY(),
+                building.getWidth(), building.getHeight(), other.getPositionX(),
+                other.getPositionY(), other.getWidth(), other.getHeight(),
+                TILE_WIDTH, TILE_HEIGHT);
+            proximityScore += weight * scoreProximity(typeId, other.getBuildingTypeId(), distance);
+            crowdingPenalty += weight * scoreCrowding(distance);
+        }
+        // Taking pairs away can leave rounding errors instead of exactly 0.
+        if (proximityScore < 1e-9) {
+            proximityScore = 0;
+        }
+        if (crowdingPenalty < 1e-9) {
+            crowdingPenalty = 0;
+        }
+    }
+
+    /**
+     * Returns the furthest apart two buildings can be and still affect the
+     * score.
+     * @return the distance in tiles.
+     */
+    static double getRangeInTiles() {
+        return Math.max(PROXIMITY_RANGE, CROWDING_RANGE);
+    }
+
+    /**
+     * Returns the proximity points for a pair of buildings.
+     * @param typeId the type ID of one building.
+     * @param otherTypeId the type ID of the other building.
+     * @param distance the gap between the buildings in tiles.
+     * @return the points, 0 if the types don't complement each other.
+     */
+    static double scoreProximity(int typeId, int otherTypeId, double distance) {
+        if (!IS_COMPLEMENTARY[typeId][otherTypeId] || distance >= PROXIMITY_RANGE) {
+            return 0;
+        }
+        return PROXIMITY_POINTS * (1 - (distance / PROXIMITY_RANGE));
+    }
+
+    /**
+     * Returns the crowding penalty for a pair of buildings.
+     * @param distance the gap between the buildings in tiles.
+     * @return the penalty, 0 if they are far enough apart.
+     */
+    static double scoreCrowding(double distance) {
+        if (distance >= CROWDING_RANGE) {
+            return 0;
+        }
+        return CROWDING_PENALTY * (1 - (distance / CROWDING_RANGE));
+    }
+
+    /**
+     * Measures the gap between the edges of two rectangles in tiles, or 0 if
+     * they touch. Positions and sizes are in map coordinates.
+     */
+    static double getGapInTiles(int x, int y, int width, int height, int otherX, int otherY,
+                                int otherWidth, int otherHeight, int tileWidth, int tileHeight) {
+        int gapX = Math.max(0, Math.max(otherX - (x + width), x - (otherX + otherWidth)));
+        int gapY = Math.max(0, Math.max(otherY - (y + height), y - (otherY + otherHeight)));
+        double tilesX = (double) gapX / tileWidth;
+        double tilesY = (double) gapY / tileHeight;
+        return Math.sqrt((tilesX * tilesX) + (tilesY * tilesY));
+    }
+
+    private static void setComplementary(BuildingType first, BuildingType second) {
+        IS_COMPLEMENTARY[first.getId()][second.getId()] = true;
+        IS_COMPLEMENTARY[second.getId()][first.getId()] = true;
+    }
+}
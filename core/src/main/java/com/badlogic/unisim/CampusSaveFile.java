@@ -0,0 +1,127 @@
+package com.badlogic.unisim;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class is responsible for the binary format of saved campuses. A save
+ * is a fixed header followed by 6 bytes per building, written and read
+ * through a memory-mapped file:
+ * <pre>
+ * int    magic number 'UNIS'
+ * int    format version
+ * double time remaining in seconds
+ * int    number of building types, then the availability of each type
+ * int    number of buildings, then for each building:
+ *        short menu index, short tile x, short tile y
+ * </pre>
+ * Buildings are saved by their index in the building menu rather than their
+ * type, so that each is loaded as the same building, see
+ * BuildingAssetsManager.
+ */
+public final class CampusSaveFile {
+    // Increase whenever the format changes, older saves are then rejected.
+    public static final int VERSION = 2;
+    // 'UNIS' in ASCII.
+    private static final int MAGIC = 0x554E4953;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4;
+    private static final int BUILDING_BYTES = 2 + 2 + 2;
+
+    private CampusSaveFile() {
+    }
+
+    /**
+     * Writes a snapshot of the campus to a file, replacing any earlier save.
+     * @param path the file to write to.
+     * @param snapshot the campus to save.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void write(Path path, CampusSnapshot snapshot) throws IOException {
+        int typeCount = snapshot.getBuildingTypesAvailability().length;
+        int buildingCount = snapshot.getBuildingCount();
+        int size = HEADER_BYTES + typeCount * 4 + 4 + buildingCount * BUILDING_BYTES;
+        // The file is not truncated, as some platforms can't shrink a file
+        // still mapped by an earlier save. Anything after the buildings is
+        // ignored when the file is read.
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            // The magic number is written last, so that a save interrupted
+            // part way through is not mistaken for a complete one.
+            buffer.putInt(0);
+            buffer.putInt(VERSION);
+            buffer.putDouble(snapshot.getRemainingTime());
+            buffer.putInt(typeCount);
+            for (int availability : snapshot.getBuildingTypesAvailability()) {
+                buffer.putInt(availability);
+            }
+            buffer.putInt(buildingCount);
+            for (int i = 0; i < buildingCount; i++) {
+                buffer.putShort(toShort(snapshot.getBuildingMenuIndex(i)));
+                buffer.putShort(toShort(snapshot.getBuildingTileX(i)));
+                buffer.putShort(toShort(snapshot.getBuildingTileY(i)));
+            }
+            buffer.force();
+            buffer.putInt(0, MAGIC);
+            buffer.force();
+        }
+    }
+
+    /**
+     * Reads a snapshot of the campus from a file.
+     * @param path the file to read from.
+     * @return the saved campus.
+     * @throws IOException if the file cannot be read or is not a valid save.
+     */
+    public static CampusSnapshot read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException("Not a campus save: " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a campus save: " + path);
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported campus save version " + version
+                    + ", expected " + VERSION);
+            }
+            double remainingTime = buffer.getDouble();
+            int typeCount = buffer.getInt();
+            if (typeCount != BuildingType.COUNT || buffer.remaining() < typeCount * 4 + 4) {
+                throw new IOException("Campus save has the wrong building types: " + path);
+            }
+            int[] buildingTypesAvailability = new int[typeCount];
+            for (int i = 0; i < typeCount; i++) {
+                buildingTypesAvailability[i] = buffer.getInt();
+            }
+            int buildingCount = buffer.getInt();
+            if (buildingCount < 0
+                || buffer.remaining() < (long) buildingCount * BUILDING_BYTES) {
+                throw new IOException("Campus save is truncated: " + path);
+            }
+            int[] buildingMenuIndexes = new int[buildingCount];
+            int[] buildingTileXs = new int[buildingCount];
+            int[] buildingTileYs = new int[buildingCount];
+            for (int i = 0; i < buildingCount; i++) {
+                buildingMenuIndexes[i] = buffer.getShort();
+                buildingTileXs[i] = buffer.getShort();
+                buildingTileYs[i] = buffer.getShort();
+            }
+            return new CampusSnapshot(remainingTime, buildingTypesAvailability,
+                buildingMenuIndexes, buildingTileXs, buildingTileYs);
+        }
+    }
+
+    private static short toShort(int value) {
+        if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Value out of range: " + value);
+        }
+        return (short) value;
+    }
+}
@@ -0,0 +1,234 @@
+package com.badlogic.unisim;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class is responsible for saving the campus to disk and loading it
+ * back. The campus is copied on the render thread, which is quick, and the
+ * copy is written to disk on a background thread so that saving never holds
+ * up a frame.
+ */
+public class CampusSaveManager {
+    // Relative to the user's home directory.
+    public static final String SAVE_PATH = ".unisim/campus.sav";
+    private static final String TAG = "CampusSaveManager";
+    private final UniSimGame game;
+    private final GameTimer gameTimer;
+    private final BuildingsTracker buildingsTracker;
+    private final BuildingPlacer buildingPlacer;
+    private final Path savePath;
+    private final int mapTileWidth;
+    private final int mapTileHeight;
+    private final int TILE_WIDTH;
+    private final int TILE_HEIGHT;
+    private final BuildingTypeRegions buildingTypeRegions;
+    private final ExecutorService saveExecutor;
+    private Future<?> pendingSave;
+
+    public CampusSaveManager(UniSimGame game, GameTimer gameTimer,
+                             BuildingsTracker buildingsTracker,
+                             BuildingPlacer buildingPlacer,
+                             TiledMapTileLayer buildableLayer,
+                             BuildingTypeRegions buildingTypeRegions, Path savePath) {
+        this.game = game;
+        this.gameTimer = gameTimer;
+        this.buildingsTracker = buildingsTracker;
+        this.buildingPlacer = buildingPlacer;
+        this.savePath = savePath;
+        this.mapTileWidth = buildableLayer.getWidth();
+        this.mapTileHeight = buildableLayer.getHeight();
+        this.TILE_WIDTH = buildableLayer.getTileWidth();
+        this.TILE_HEIGHT = buildableLayer.getTileHeight();
+        this.buildingTypeRegions = buildingTypeRegions;
+        this.saveExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "campus-save");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Saves the campus in the background. A building that is being moved is
+     * saved where it was before it was picked up.
+     */
+    public void save() {
+        CampusSnapshot snapshot = captureSnapshot();
+        pendingSave = saveExecutor.submit(() -> {
+            try {
+                Path saveDirectory = savePath.toAbsolutePath().getParent();
+                if (saveDirectory != null) {
+                    Files.createDirectories(saveDirectory);
+                }
+                CampusSaveFile.write(savePath, snapshot);
+                Gdx.app.log(TAG, "Saved " + snapshot.getBuildingCount()
+                    + " buildings to " + savePath);
+            } catch (IOException | RuntimeException e) {
+                Gdx.app.error(TAG, "Could not save the campus to " + savePath, e);
+            }
+        });
+    }
+
+    /**
+     * Replaces the campus with the saved one, if there is a valid save. Any
+     * selected building is dropped.
+     * @return true if the saved campus was loaded, false otherwise.
+     */
+    public boolean load() {
+        waitForPendingSave();
+        if (!Files.exists(savePath)) {
+            return false;
+        }
+        CampusSnapshot snapshot;
+        try {
+            snapshot = CampusSaveFile.read(savePath);
+        } catch (IOException e) {
+            Gdx.app.error(TAG, "Could not load the campus from " + savePath, e);
+            return false;
+        }
+        if (!(snapshot.getRemainingTime() > 0)) {
+            Gdx.app.error(TAG, "Saved campus has no time remaining: " + savePath);
+            return false;
+        }
+        if (!isValidLayout(snapshot)) {
+            Gdx.app.error(TAG, "Saved campus has an invalid layout: " + savePath);
+            return false;
+        }
+        Building[] buildings = new Building[snapshot.getBuildingCount()];
+        for (int i = 0; i < buildings.length; i++) {
+            buildings[i] = buildingTypeRegions.createBuilding(game,
+                snapshot.getBuildingMenuIndex(i), snapshot.getBuildingTileX(i) * TILE_WIDTH,
+                snapshot.getBuildingTileY(i) * TILE_HEIGHT);
+        }
+        buildingPlacer.deselectBuilding();
+        buildingsTracker.replaceBuildings(buildings, snapshot.getBuildingTypesAvailability());
+        gameTimer.setRemainingTime(snapshot.getRemainingTime());
+        Gdx.app.log(TAG, "Loaded " + buildings.length + " buildings from " + savePath);
+        return true;
+    }
+
+    /**
+     * Waits for a save in progress to be written, then stops the save thread.
+     */
+    public void dispose() {
+        saveExecutor.shutdown();
+        try {
+            saveExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Checks a saved campus could have been built in the game: every
+     * building is in the building menu, on buildable tiles, not
+     * overlapping another building or sharing its bottom left tile, and each
+     * type has as many buildings placed and available as the campus allows.
+     * @param snapshot the saved campus.
+     * @return true if the campus is valid, false otherwise.
+     */
+    private boolean isValidLayout(CampusSnapshot snapshot) {
+        CollisionDetector collisionDetector = buildingPlacer.getCollisionDetector();
+        TileBitset occupiedTiles = new TileBitset(mapTileWidth, mapTileHeight);
+        // Bottom left tiles of the buildings, which can't be shared.
+        TileBitset anchorTiles = new TileBitset(mapTileWidth, mapTileHeight);
+        int[] placedBuildingTypesCount = new int[BuildingType.COUNT];
+        for (int i = 0; i < snapshot.getBuildingCount(); i++) {
+            int menuIndex = snapshot.getBuildingMenuIndex(i);
+            if (!buildingTypeRegions.hasMenuBuilding(menuIndex)) {
+                return false;
+            }
+            int tileX = snapshot.getBuildingTileX(i);
+            int tileY = snapshot.getBuildingTileY(i);
+            FootprintMask footprintMask = buildingTypeRegions.getMenuFootprintMask(menuIndex);
+            // Check against the buildings loaded so far, rather than the
+            // ones currently on the map.
+            if (!collisionDetector.isBuildingBuildable(tileX, tileY, footprintMask, occupiedTiles)
+                || anchorTiles.get(tileX, tileY)) {
+                return false;
+            }
+            occupiedTiles.setMask(footprintMask, tileX, tileY);
+            anchorTiles.set(tileX, tileY, true);
+            placedBuildingTypesCount[buildingTypeRegions.getMenuBuildingTypeId(menuIndex)]++;
+        }
+        int[] buildingTypesAvailability = snapshot.getBuildingTypesAvailability();
+        for (int typeId = 0; typeId < BuildingType.COUNT; typeId++) {
+            if (buildingTypesAvailability[typeId] < 0
+                || buildingTypesAvailability[typeId] + placedBuildingTypesCount[typeId]
+                != buildingsTracker.getBuildingTypeLimit(typeId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copies the state of the campus to be saved.
+     * @return a snapshot of the campus.
+     */
+    private CampusSnapshot captureSnapshot() {
+        Building selectedBuilding = buildingPlacer.getSelectedPlacedBuilding();
+        int buildingCount = buildingsTracker.getPlacedBuildingsToType().size()
+            + (selectedBuilding != null ? 1 : 0);
+        int[] buildingMenuIndexes = new int[buildingCount];
+        int[] buildingTileXs = new int[buildingCount];
+        int[] buildingTileYs = new int[buildingCount];
+        int i = 0;
+        for (Building building : buildingsTracker.getPlacedBuildingsToType().keySet()) {
+            buildingMenuIndexes[i] = getMenuIndex(building);
+            buildingTileXs[i] = building.getPositionX() / TILE_WIDTH;
+            buildingTileYs[i] = building.getPositionY() / TILE_HEIGHT;
+            i++;
+        }
+        // A building being moved is not on the map, but still counts as placed.
+        if (selectedBuilding != null) {
+            buildingMenuIndexes[i] = getMenuIndex(selectedBuilding);
+            buildingTileXs[i] = selectedBuilding.getPositionX() / TILE_WIDTH;
+            buildingTileYs[i] = selectedBuilding.getPositionY() / TILE_HEIGHT;
+        }
+        int[] buildingTypesAvailability = new int[BuildingType.COUNT];
+        for (int typeId = 0; typeId < BuildingType.COUNT; typeId++) {
+            buildingTypesAvailability[typeId] = buildingsTracker.getBuildingTypeAvailability(typeId);
+        }
+        return new CampusSnapshot(gameTimer.getRemainingTime(), buildingTypesAvailability,
+            buildingMenuIndexes, buildingTileXs, buildingTileYs);
+    }
+
+    /**
+     * Returns the menu index to save a building as. Buildings that weren't
+     * picked from the menu are saved as their type's default building.
+     */
+    private int getMenuIndex(Building building) {
+        if (building.getMenuIndex() >= 0) {
+            return building.getMenuIndex();
+        }
+        return buildingTypeRegions.getDefaultMenuIndex(building.getBuildingTypeId());
+    }
+
+    /**
+     * Blocks until the last save has been written, so it is not read half
+     * written.
+     */
+    private void waitForPendingSave() {
+        if (pendingSave == null) {
+            return;
+        }
+        try {
+            pendingSave.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // Failed saves have already been logged.
+        }
+        pendingSave = null;
+    }
+}
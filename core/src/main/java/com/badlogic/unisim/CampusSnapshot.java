@@ -0,0 +1,75 @@
+package com.badlogic.unisim;
+
+/**
+ * This class is responsible for holding the state of the campus that is
+ * saved: the time remaining, the availability of each building type, and
+ * which building of the building menu each placed building is and its tile. Buildings are stored as parallel
+ * arrays, so a large campus doesn't need an object per building.
+ */
+public class CampusSnapshot {
+    private final double remainingTime;
+    // Indexed by building type ID, see BuildingType.
+    private final int[] buildingTypesAvailability;
+    // Indexed by building, see BuildingAssetsManager for the menu indexes.
+    private final int[] buildingMenuIndexes;
+    private final int[] buildingTileXs;
+    private final int[] buildingTileYs;
+
+    public CampusSnapshot(double remainingTime, int[] buildingTypesAvailability,
+                          int[] buildingMenuIndexes, int[] buildingTileXs,
+                          int[] buildingTileYs) {
+        if (buildingTileXs.length != buildingMenuIndexes.length
+            || buildingTileYs.length != buildingMenuIndexes.length) {
+            throw new IllegalArgumentException("Every building must have a menu index"
+                + " and a tile.");
+        }
+        this.remainingTime = remainingTime;
+        this.buildingTypesAvailability = buildingTypesAvailability;
+        this.buildingMenuIndexes = buildingMenuIndexes;
+        this.buildingTileXs = buildingTileXs;
+        this.buildingTileYs = buildingTileYs;
+    }
+
+    public double getRemainingTime() {
+        return remainingTime;
+    }
+
+    /**
+     * Returns how many more buildings of each type could be placed.
+     * @return the availability of each type, indexed by building type ID.
+     */
+    public int[] getBuildingTypesAvailability() {
+        return buildingTypesAvailability;
+    }
+
+    public int getBuildingCount() {
+        return buildingMenuIndexes.length;
+    }
+
+    /**
+     * Returns which building of the building menu a placed building is.
+     * @param index the index of the building in the snapshot.
+     * @return the index of the building in the building menu.
+     */
+    public int getBuildingMenuIndex(int index) {
+        return buildingMenuIndexes[index];
+    }
+
+    /**
+     * Returns the tile the bottom left corner of a placed building is on.
+     * @param index the index of the building in the snapshot.
+     * @return the x-coordinate of the tile.
+     */
+    public int getBuildingTileX(int index) {
+        return buildingTileXs[index];
+    }
+
+    /**
+     * Returns the tile the bottom left corner of a placed building is on.
+     * @param index the index of the building in the snapshot.
+     * @return the y-coordinate of the tile.
+     */
+    public int getBuildingTileY(int index) {
+        return buildingTileYs[index];
+    }
+}
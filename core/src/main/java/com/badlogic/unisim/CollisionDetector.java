@@ -1,20 +1,24 @@
 package com.badlogic.unisim;
 
-import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
-import com.badlogic.gdx.math.Rectangle;
-
-import java.util.Map;
 
 /**
  * This class is responsible for 'building to building' and 'building to map'
- * collision detection.
+ * collision detection. The buildable tiles and the tiles covered by
+ * buildings are both kept as TileBitsets, so a footprint is checked a row at
+ * a time with a few AND operations.
  */
 public class CollisionDetector {
     private final TiledMapTileLayer buildableLayer;
+    private final TileBitset buildableTiles;
+    private final TileBitset occupiedTiles;
 
-    public CollisionDetector (TiledMapTileLayer buildableLayer) {
+    public CollisionDetector (TiledMapTileLayer buildableLayer,
+                              BuildingPicker buildingPicker) {
         this.buildableLayer = buildableLayer;
+        this.occupiedTiles = buildingPicker.getOccupiedTiles();
+        this.buildableTiles = new TileBitset(buildableLayer.getWidth(), buildableLayer.getHeight());
+        readBuildableTiles(0, 0, buildableLayer.getWidth(), buildableLayer.getHeight());
     }
 
     /**
@@ -26,11 +30,43 @@ public class CollisionDetector {
      * @return true if all the tiles that the building is on are buildable, false otherwise
      */
     public boolean isBuildingBuildable(int tileX, int tileY, int buildingWidth,
-                                       int buildingHeight, Sprite buildingSprite,
-                                       Map<Building, String> placedBuildings) {
+                                       int buildingHeight) {
 
         return isTileAreaBuildable(tileX, tileY, buildingWidth, buildingHeight)
-            && areOtherBuildingsOverlapping(placedBuildings, buildingSprite);
+            && !occupiedTiles.intersectsRectangle(tileX, tileY, buildingWidth, buildingHeight);
+    }
+
+    /**
+     * Checks if the tiles covered by a building's footprint are buildable
+     * and not covered by another building. Tiles under the building's
+     * sprite that aren't in its footprint are not checked.
+     * @param tileX the tile at which the bottom left corner of the building is on.
+     * @param tileY the tile at which the bottom left corner of the building is on.
+     * @param footprintMask the tiles covered by the building.
+     * @return true if all the tiles that the building is on are buildable
+     * and free, false otherwise.
+     */
+    public boolean isBuildingBuildable(int tileX, int tileY, FootprintMask footprintMask) {
+        return isBuildingBuildable(tileX, tileY, footprintMask, occupiedTiles);
+    }
+
+    /**
+     * Checks if a building could be placed against a copy of the tiles
+     * covered by buildings, rather than the live ones. It can be called
+     * from any thread, as long as the buildable region isn't being
+     * refreshed at the same time.
+     * @param tileX the tile at which the bottom left corner of the building is on.
+     * @param tileY the tile at which the bottom left corner of the building is on.
+     * @param footprintMask the tiles covered by the building.
+     * @param occupiedTiles the tiles covered by buildings, see
+     *                      BuildingPicker.copyOccupiedTiles.
+     * @return true if all the tiles that the building is on are buildable
+     * and free, false otherwise.
+     */
+    public boolean isBuildingBuildable(int tileX, int tileY, FootprintMask footprintMask,
+                                       TileBitset occupiedTiles) {
+        return buildableTiles.containsMask(footprintMask, tileX, tileY)
+            && !occupiedTiles.intersectsMask(footprintMask, tileX, tileY);
     }
 
     /**
@@ -41,61 +77,58 @@ public class CollisionDetector {
      * @param buildingHeight height of the building in tiles.
      * @return true if all the tiles are buildable, false otherwise.
      */
-    private boolean isTileAreaBuildable(int tileX, int tileY, int buildingWidth,
-                               int buildingHeight) {
-        // Iterate through all tiles covered by the building
-        for (int x = tileX ;x < tileX + buildingWidth ;x++) {
-            for (int y = tileY ; y < tileY + buildingHeight ; y++) {
-                if (!isTileBuildable(x, y)) {
-                    return false;
-                }
-            }
-        }
-        return true;
+    public boolean isTileAreaBuildable(int tileX, int tileY, int buildingWidth,
+                                       int buildingHeight) {
+        return buildableTiles.containsRectangle(tileX, tileY, buildingWidth, buildingHeight);
     }
 
     /**
-     * Checks if the selected building is overlapping with any other placed
-     * buildings on the map.
-     * @param placedBuildings hashmap containing the placed buildings.
-     * @param buildingSprite the sprite of the selected building.
-     * @return true if the selected sprite is not overlapping any of the
-     * placed building sprites, false otherwise.
+     * Checks if two buildings' tiles overlap, in the same way as placed
+     * buildings are checked. Buildings that only share an edge do not count
+     * as overlapping.
+     * @param tileX bottom left tile x-coordinate of one building.
+     * @param tileY bottom left tile y-coordinate of one building.
+     * @param buildingWidth width of one building in tiles.
+     * @param buildingHeight height of one building in tiles.
+     * @param otherTileX bottom left tile x-coordinate of the other building.
+     * @param otherTileY bottom left tile y-coordinate of the other building.
+     * @param otherWidth width of the other building in tiles.
+     * @param otherHeight height of the other building in tiles.
+     * @return true if the buildings overlap, false otherwise.
      */
-    private boolean areOtherBuildingsOverlapping(Map<Building, String> placedBuildings,
-                                                 Sprite buildingSprite) {
-        // Iterate through all placed buildings
-        for (Building placedBuilding : placedBuildings.keySet()) {
-            Sprite placedBuildingSprite = placedBuilding.getBuildingSprite();
-            if (isBuildingOverlapping(buildingSprite, placedBuildingSprite)) {
-                return false;
-            }
-        }
-        return true;
+    public static boolean areBuildingsOverlapping(int tileX, int tileY, int buildingWidth,
+                                                  int buildingHeight, int otherTileX,
+                                                  int otherTileY, int otherWidth,
+                                                  int otherHeight) {
+        return otherTileX < tileX + buildingWidth
+            && otherTileX + otherWidth > tileX
+            && otherTileY < tileY + buildingHeight
+            && otherTileY + otherHeight > tileY;
     }
 
     /**
-     * Checks if a tile is buildable by verifying whether such a tile exists
-     * in the collision layer of the map.
-     * @param tileX x-coordinate of the tile in the layer.
-     * @param tileY y-coordinate of the tile in the layer.
-     * @return true if a buildable tile exists, false otherwise.
+     * Updates the buildable tiles of a region after the buildable layer of
+     * the map has been changed.
+     * @param tileX bottom left tile x-coordinate of the changed region.
+     * @param tileY bottom left tile y-coordinate of the changed region.
+     * @param regionWidth width of the changed region in tiles.
+     * @param regionHeight height of the changed region in tiles.
      */
-    private boolean isTileBuildable(int tileX, int tileY) {
-        TiledMapTileLayer.Cell cell = buildableLayer.getCell(tileX, tileY);
-        return cell != null;
+    public void refreshBuildableRegion(int tileX, int tileY, int regionWidth,
+                                       int regionHeight) {
+        readBuildableTiles(Math.max(tileX, 0), Math.max(tileY, 0),
+            Math.min(tileX + regionWidth, buildableTiles.getWidth()),
+            Math.min(tileY + regionHeight, buildableTiles.getHeight()));
     }
 
     /**
-     * Checks if a selected building is overlapping a placed building.
-     * (Order of the two building sprites in the method is irrelevant)
-     * @param sprite1 selected/placed building.
-     * @param sprite2 selected/placed building.
-     * @return true if the sprites overlap, false otheriwse.
+     * Copies whether each tile of a region has a cell from the buildable layer.
      */
-    private boolean isBuildingOverlapping(Sprite sprite1, Sprite sprite2) {
-        Rectangle rectangle1 = sprite1.getBoundingRectangle();
-        Rectangle rectangle2 = sprite2.getBoundingRectangle();
-        return rectangle1.overlaps(rectangle2);
+    private void readBuildableTiles(int minX, int minY, int maxX, int maxY) {
+        for (int y = minY; y < maxY; y++) {
+            for (int x = minX; x < maxX; x++) {
+                buildableTiles.set(x, y, buildableLayer.getCell(x, y) != null);
+            }
+        }
     }
 }
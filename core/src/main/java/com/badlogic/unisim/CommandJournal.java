@@ -0,0 +1,180 @@
+package com.badlogic.unisim;
+
+import com.badlogic.gdx.Gdx;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class is responsible for recording building commands in an
+ * append-only file, so that a session can be replayed. A journal is a header
+ * followed by one record per command:
+ * <pre>
+ * int    magic number 'UNIJ'
+ * int    format version
+ * then for each command:
+ * byte   command code
+ * double game time elapsed in seconds
+ *        the command's fields, see each command's FIELD_BYTES
+ * </pre>
+ * A journal always starts from an empty campus.
+ */
+public class CommandJournal {
+    // Relative to the user's home directory.
+    public static final String JOURNAL_DIRECTORY = ".unisim/journals/";
+    // Increase whenever the format changes, older journals are then rejected.
+    public static final int VERSION = 2;
+    // 'UNIJ' in ASCII.
+    private static final int MAGIC = 0x554E494A;
+    private static final int HEADER_BYTES = 4 + 4;
+    private static final int RECORD_HEADER_BYTES = 1 + 8;
+    private static final String TAG = "CommandJournal";
+    private final Path path;
+    private final FileChannel channel;
+    // Reused for every record, the largest record fits with room to spare.
+    private final ByteBuffer record;
+    private boolean isOpen;
+
+    private CommandJournal(Path path, FileChannel channel) {
+        this.path = path;
+        this.channel = channel;
+        this.record = ByteBuffer.allocate(32);
+        this.isOpen = true;
+    }
+
+    /**
+     * Creates a new, empty journal.
+     * @param path the file to record commands in, which must not exist.
+     * @return the journal.
+     * @throws IOException if the file cannot be created.
+     */
+    public static CommandJournal create(Path path) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(VERSION).flip();
+        try {
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new CommandJournal(path, channel);
+    }
+
+    /**
+     * Adds a command to the end of the journal. If it cannot be written, the
+     * journal is closed, as it could no longer be replayed.
+     * @param command the command that was carried out.
+     */
+    public void append(BuildingCommand command) {
+        if (!isOpen) {
+            return;
+        }
+        record.clear();
+        record.put(command.getCode());
+        record.putDouble(command.getGameTime());
+        command.writeFields(record);
+        record.flip();
+        try {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+        } catch (IOException e) {
+            Gdx.app.error(TAG, "Could not write to " + path + ", recording stopped", e);
+            close();
+        }
+    }
+
+    public void close() {
+        if (!isOpen) {
+            return;
+        }
+        isOpen = false;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            Gdx.app.error(TAG, "Could not close " + path, e);
+        }
+    }
+
+    /**
+     * Reads every command in a journal, in the order they were carried out.
+     * A record cut short, e.g by the game crashing, is ignored.
+     * @param path the journal to read.
+     * @return the commands in the journal.
+     * @throws IOException if the file cannot be read or is not a journal.
+     */
+    public static List<BuildingCommand> read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException("Not a command journal: " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a command journal: " + path);
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported command journal version " + version
+                    + ", expected " + VERSION);
+            }
+            List<BuildingCommand> commands = new ArrayList<>();
+            while (buffer.remaining() >= RECORD_HEADER_BYTES) {
+                byte code = buffer.get();
+                double gameTime = buffer.getDouble();
+                int fieldBytes = getFieldBytes(code);
+                if (fieldBytes < 0) {
+                    throw new IOException("Unknown command " + code + " in " + path);
+                }
+                if (buffer.remaining() < fieldBytes) {
+                    break;
+                }
+                commands.add(readFields(code, gameTime, buffer));
+            }
+            return commands;
+        }
+    }
+
+    /**
+     * Returns the number of bytes of a command's fields.
+     * @return the number of bytes, or -1 if the code is unknown.
+     */
+    private static int getFieldBytes(byte code) {
+        switch (code) {
+            case PlaceBuildingCommand.CODE:
+                return PlaceBuildingCommand.FIELD_BYTES;
+            case MoveBuildingCommand.CODE:
+                return MoveBuildingCommand.FIELD_BYTES;
+            case DeleteBuildingCommand.CODE:
+                return DeleteBuildingCommand.FIELD_BYTES;
+            default:
+                return -1;
+        }
+    }
+
+    private static BuildingCommand readFields(byte code, double gameTime, ByteBuffer buffer) {
+        switch (code) {
+            case PlaceBuildingCommand.CODE:
+                return PlaceBuildingCommand.readFields(gameTime, buffer);
+            case MoveBuildingCommand.CODE:
+                return MoveBuildingCommand.readFields(gameTime, buffer);
+            default:
+                return DeleteBuildingCommand.readFields(gameTime, buffer);
+        }
+    }
+}
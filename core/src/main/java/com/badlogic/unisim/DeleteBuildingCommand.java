@@ -0,0 +1,40 @@
+package com.badlogic.unisim;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Deletes the placed building whose bottom left corner is on a tile.
+ */
+public class DeleteBuildingCommand extends BuildingCommand {
+    static final byte CODE = 3;
+    // Tile x and tile y.
+    static final int FIELD_BYTES = 2 + 2;
+    private final int tileX;
+    private final int tileY;
+
+    public DeleteBuildingCommand(double gameTime, int tileX, int tileY) {
+        super(gameTime);
+        this.tileX = tileX;
+        this.tileY = tileY;
+    }
+
+    @Override
+    public boolean execute(BuildingCommandExecutor executor) {
+        return executor.delete(tileX, tileY);
+    }
+
+    @Override
+    byte getCode() {
+        return CODE;
+    }
+
+    @Override
+    void writeFields(ByteBuffer buffer) {
+        buffer.putShort((short) tileX);
+        buffer.putShort((short) tileY);
+    }
+
+    static DeleteBuildingCommand readFields(double gameTime, ByteBuffer buffer) {
+        return new DeleteBuildingCommand(gameTime, buffer.getShort(), buffer.getShort());
+    }
+}
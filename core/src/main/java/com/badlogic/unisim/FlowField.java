@@ -0,0 +1,228 @@
+package com.badlogic.unisim;
+
+import java.util.Arrays;
+
+/**
+ * This class is responsible for the way to one building from every tile of
+ * the map. It holds the number of steps from each tile to the building
+ * (the integration field) and the neighbouring tile to step to next (the
+ * direction grid), so any number of students can head to the building by
+ * looking up the tile they are on, rather than each searching for a path.
+ * A flow field never changes once it has been computed.
+ */
+public class FlowField {
+    // Distance of tiles the building can't be reached from.
+    public static final short UNREACHABLE = Short.MAX_VALUE;
+    // Direction of tiles with no neighbour closer to the building.
+    public static final byte NO_DIRECTION = 8;
+    // Tile offsets of each direction, the first four are the sides.
+    private static final int[] DIRECTIONS_X = {1, -1, 0, 0, 1, 1, -1, -1};
+    private static final int[] DIRECTIONS_Y = {0, 0, 1, -1, 1, -1, 1, -1};
+    private final int buildingId;
+    // Where the building was when the field was computed.
+    private final int tileX;
+    private final int tileY;
+    private final FootprintMask footprintMask;
+    private final int width;
+    private final int height;
+    private final short[] distances;
+    private final byte[] directions;
+
+    private FlowField(int buildingId, int tileX, int tileY, FootprintMask footprintMask,
+                      int width, int height, short[] distances, byte[] directions) {
+        this.buildingId = buildingId;
+        this.tileX = tileX;
+        this.tileY = tileY;
+        this.footprintMask = footprintMask;
+        this.width = width;
+        this.height = height;
+        this.distances = distances;
+        this.directions = directions;
+    }
+
+    /**
+     * Computes the flow field of a building with a breadth-first search out
+     * from the tiles its footprint covers. Steps go between the sides of walkable
+     * tiles, while directions may also cut across the corner of two
+     * walkable tiles.
+     * @param buildingId the ID of the building, see BuildingPicker.
+     * @param walkable 1 for each tile that can be walked on, row by row.
+     * @param width width of the map in tiles.
+     * @param height height of the map in tiles.
+     * @param tileX bottom left tile x-coordinate of the building.
+     * @param tileY bottom left tile y-coordinate of the building.
+     * @param footprintMask the tiles covered by the building.
+     * @return the flow field of the building.
+     */
+    public static FlowField compute(int buildingId, byte[] walkable, int width, int height,
+                                    int tileX, int tileY, FootprintMask footprintMask) {
+        short[] distances = new short[width * height];
+        Arrays.fill(distances, UNREACHABLE);
+        int[] queue = new int[width * height];
+        int head = 0;
+        int tail = 0;
+        // The building's own tiles are where every path ends.
+        int minX = Math.max(tileX, 0);
+        int minY = Math.max(tileY, 0);
+        int maxX = Math.min(tileX + footprintMask.getWidthInTiles(), width);
+        int maxY = Math.min(tileY + footprintMask.getHeightInTiles(), height);
+        for (int y = minY; y < maxY; y++) {
+            for (int x = minX; x < maxX; x++) {
+                if (footprintMask.isCovered(x - tileX, y - tileY)) {
+                    distances[(y * width) + x] = 0;
+                    queue[tail++] = (y * width) + x;
+                }
+            }
+        }
+        while (head < tail) {
+            int tile = queue[head++];
+            int x = tile % width;
+            int y = tile / width;
+            short nextDistance = (short) Math.min(distances[tile] + 1, UNREACHABLE - 1);
+            for (int direction = 0; direction < 4; direction++) {
+                int neighbourX = x + DIRECTIONS_X[direction];
+                int neighbourY = y + DIRECTIONS_Y[direction];
+                if (neighbourX < 0 || neighbourY < 0 || neighbourX >= width || neighbourY >= height) {
+                    continue;
+                }
+                int neighbour = (neighbourY * width) + neighbourX;
+                if (walkable[neighbour] != 0 && distances[neighbour] == UNREACHABLE) {
+                    distances[neighbour] = nextDistance;
+                    queue[tail++] = neighbour;
+                }
+            }
+        }
+        byte[] directions = new byte[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                directions[(y * width) + x] = findDirection(distances, walkable, width, height, x, y);
+            }
+        }
+        return new FlowField(buildingId, tileX, tileY, footprintMask, width, height,
+            distances, directions);
+    }
+
+    /**
+     * Checks whether the field was computed for a building at a position.
+     * @param tileX bottom left tile x-coordinate of the building.
+     * @param tileY bottom left tile y-coordinate of the building.
+     * @param footprintMask the tiles covered by the building.
+     * @return true if the building hasn't moved since, false otherwise.
+     */
+    boolean hasFootprint(int tileX, int tileY, FootprintMask footprintMask) {
+        return this.tileX == tileX && this.tileY == tileY && this.footprintMask == footprintMask;
+    }
+
+    /**
+     * Checks whether changing some tiles of the map would leave the field
+     * the same. It would if every newly blocked tile couldn't reach the
+     * building anyway, and every newly freed tile has no side neighbour
+     * that could, as the search and corner cutting both go through a side
+     * neighbour that can reach the building.
+     * @param changedTiles the indexes of the tiles that changed, row by row.
+     * @param changedCount the number of changed tiles.
+     * @param walkable 1 for each tile that can now be walked on, row by row.
+     * @return true if the field is still right, false otherwise.
+     */
+    boolean isUnchangedBy(int[] changedTiles, int changedCount, byte[] walkable) {
+        for (int i = 0; i < changedCount; i++) {
+            int tile = changedTiles[i];
+            int x = tile % width;
+            int y = tile / width;
+            if (walkable[tile] == 0) {
+                if (distances[tile] != UNREACHABLE) {
+                    return false;
+                }
+                continue;
+            }
+            for (int direction = 0; direction < 4; direction++) {
+                if (getDistance(x + DIRECTIONS_X[direction], y + DIRECTIONS_Y[direction])
+                    != UNREACHABLE) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds the neighbour of a tile closest to the building. Tiles that
+     * can't be walked on still point to a walkable neighbour, so students
+     * standing on a newly placed building can walk off it.
+     */
+    private static byte findDirection(short[] distances, byte[] walkable, int width,
+                                      int height, int x, int y) {
+        int tile = (y * width) + x;
+        byte bestDirection = NO_DIRECTION;
+        int bestDistance = walkable[tile] != 0 ? distances[tile] : UNREACHABLE;
+        for (int direction = 0; direction < DIRECTIONS_X.length; direction++) {
+            int neighbourX = x + DIRECTIONS_X[direction];
+            int neighbourY = y + DIRECTIONS_Y[direction];
+            if (neighbourX < 0 || neighbourY < 0 || neighbourX >= width || neighbourY >= height) {
+                continue;
+            }
+            // Only cut a corner if both tiles beside it can be walked on.
+            if (direction >= 4 && (walkable[(y * width) + neighbourX] == 0
+                || walkable[(neighbourY * width) + x] == 0)) {
+                continue;
+            }
+            int distance = distances[(neighbourY * width) + neighbourX];
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                bestDirection = (byte) direction;
+            }
+        }
+        return bestDirection;
+    }
+
+    public int getBuildingId() {
+        return buildingId;
+    }
+
+    /**
+     * Returns the number of steps from a tile to the building.
+     * @param tileX the tile x-coordinate.
+     * @param tileY the tile y-coordinate.
+     * @return the number of steps, 0 on the building itself, or UNREACHABLE
+     * if there is no way to the building or the tile is off the map.
+     */
+    public int getDistance(int tileX, int tileY) {
+        if (tileX < 0 || tileY < 0 || tileX >= width || tileY >= height) {
+            return UNREACHABLE;
+        }
+        return distances[(tileY * width) + tileX];
+    }
+
+    /**
+     * Returns which neighbour to step to from a tile to get closer to the
+     * building.
+     * @param tileX the tile x-coordinate.
+     * @param tileY the tile y-coordinate.
+     * @return the direction, or NO_DIRECTION if there is no closer neighbour
+     * or the tile is off the map.
+     */
+    public byte getDirection(int tileX, int tileY) {
+        if (tileX < 0 || tileY < 0 || tileX >= width || tileY >= height) {
+            return NO_DIRECTION;
+        }
+        return directions[(tileY * width) + tileX];
+    }
+
+    /**
+     * Returns the tile x-offset of a direction.
+     * @param direction a direction other than NO_DIRECTION.
+     * @return -1, 0 or 1.
+     */
+    public static int getDirectionX(byte direction) {
+        return DIRECTIONS_X[direction];
+    }
+
+    /**
+     * Returns the tile y-offset of a direction.
+     * @param direction a direction other than NO_DIRECTION.
+     * @return -1, 0 or 1.
+     */
+    public static int getDirectionY(byte direction) {
+        return DIRECTIONS_Y[direction];
+    }
+}
@@ -0,0 +1,271 @@
+package com.badlogic.unisim;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * This class is responsible for keeping a flow field to each placed
+ * building. Tiles can be walked on if the map's ground layer has a cell
+ * there and no placed building's footprint covers them. The fields are only
+ * recomputed when buildings are placed, moved or deleted, on a background
+ * thread, and are published all at once so readers never see a half-updated
+ * set or have to wait for one. Fields the change can't have affected are
+ * kept rather than recomputed. The field to a building that is taken off
+ * the map is dropped straight away, as its ID may be given to a new
+ * building before the new fields are ready.
+ */
+public class FlowFieldCache implements BuildingsTrackerListener {
+    private final BuildingsTracker buildingsTracker;
+    private final int mapTileWidth;
+    private final int mapTileHeight;
+    private final int TILE_WIDTH;
+    private final int TILE_HEIGHT;
+    // 1 for each tile of the ground layer with a cell, row by row.
+    private final byte[] groundTiles;
+    private final ExecutorService computeExecutor;
+    // Flow fields indexed by building ID, replaced as a whole.
+    private final AtomicReference<FlowFieldSet> published;
+    private Future<?> pendingCompute;
+    private int cachedModificationCount;
+    private volatile int latestVersion;
+
+    public FlowFieldCache(BuildingsTracker buildingsTracker, TiledMapTileLayer groundLayer) {
+        this.buildingsTracker = buildingsTracker;
+        this.mapTileWidth = groundLayer.getWidth();
+        this.mapTileHeight = groundLayer.getHeight();
+        this.TILE_WIDTH = groundLayer.getTileWidth();
+        this.TILE_HEIGHT = groundLayer.getTileHeight();
+        this.groundTiles = new byte[mapTileWidth * mapTileHeight];
+        for (int y = 0; y < mapTileHeight; y++) {
+            for (int x = 0; x < mapTileWidth; x++) {
+                groundTiles[(y * mapTileWidth) + x] = (byte) (groundLayer.getCell(x, y) != null ? 1 : 0);
+            }
+        }
+        this.published = new AtomicReference<>(new FlowFieldSet(0, new FlowField[0], null));
+        this.computeExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "flow-fields");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Ensure the fields are computed on the first update.
+        this.cachedModificationCount = buildingsTracker.getModificationCount() - 1;
+        buildingsTracker.addListener(this);
+    }
+
+    /**
+     * Starts recomputing the flow fields in the background if buildings have
+     * been placed, moved or deleted since the last update. The previous
+     * fields stay available until the new ones are ready.
+     */
+    public void update() {
+        if (cachedModificationCount == buildingsTracker.getModificationCount()) {
+            return;
+        }
+        cachedModificationCount = buildingsTracker.getModificationCount();
+        // Copy everything the computation needs now, as the buildings may
+        // change again while it runs.
+        byte[] walkable = groundTiles.clone();
+        int buildingCount = buildingsTracker.getPlacedBuildingsToType().size();
+        int[] buildingIds = new int[buildingCount];
+        int[] tilesX = new int[buildingCount];
+        int[] tilesY = new int[buildingCount];
+        FootprintMask[] footprintMasks = new FootprintMask[buildingCount];
+        int index = 0;
+        for (Building building : buildingsTracker.getPlacedBuildingsToType().keySet()) {
+            buildingIds[index] = building.getBuildingId();
+            tilesX[index] = building.getPositionX() / TILE_WIDTH;
+            tilesY[index] = building.getPositionY() / TILE_HEIGHT;
+            footprintMasks[index] = building.getFootprintMask(TILE_WIDTH, TILE_HEIGHT);
+            blockFootprint(walkable, tilesX[index], tilesY[index], footprintMasks[index]);
+            index++;
+        }
+        int version = ++latestVersion;
+        pendingCompute = computeExecutor.submit(() ->
+            compute(version, walkable, buildingIds, tilesX, tilesY, footprintMasks));
+    }
+
+    /**
+     * Waits for the flow fields being computed, if any, to be published.
+     * Only for callers that can block, e.g headless sessions and benchmarks.
+     */
+    public void finishPending() {
+        if (pendingCompute == null) {
+            return;
+        }
+        try {
+            pendingCompute.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            Gdx.app.error("FlowFieldCache", "Could not compute flow fields", e.getCause());
+        }
+    }
+
+    /**
+     * Returns the latest flow field to a building.
+     * @param buildingId the ID of the building, see BuildingPicker.
+     * @return the flow field, or null if it hasn't been computed yet.
+     */
+    public FlowField getFlowField(int buildingId) {
+        return published.get().getFlowField(buildingId);
+    }
+
+    /**
+     * Returns the latest published flow fields, which don't change, so they
+     * can be read by several threads during a tick.
+     * @return the flow fields to the placed buildings.
+     */
+    public FlowFieldSet getFlowFields() {
+        return published.get();
+    }
+
+    public int getTileWidth() {
+        return TILE_WIDTH;
+    }
+
+    public int getTileHeight() {
+        return TILE_HEIGHT;
+    }
+
+    @Override
+    public void buildingAdded(Building building) {
+        // The new building's field is computed on the next update.
+    }
+
+    @Override
+    public void buildingRemoved(Building building) {
+        // Newer than any fields being computed, so they can't bring the
+        // dropped field back.
+        int version = ++latestVersion;
+        int buildingId = building.getBuildingId();
+        published.getAndUpdate(current -> current.withoutFlowField(buildingId, version));
+    }
+
+    @Override
+    public void buildingsReplaced() {
+        int version = ++latestVersion;
+        published.set(new FlowFieldSet(version, new FlowField[0], null));
+    }
+
+    public void dispose() {
+        computeExecutor.shutdownNow();
+        try {
+            computeExecutor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Computes the flow field to each building, giving up if newer fields
+     * have been asked for in the meantime. Fields of the published set are
+     * reused if their building hasn't moved and the tiles that changed
+     * can't have affected them.
+     */
+    private void compute(int version, byte[] walkable, int[] buildingIds, int[] tilesX,
+                         int[] tilesY, FootprintMask[] footprintMasks) {
+        FlowFieldSet previous = published.get();
+        int[] changedTiles = null;
+        int changedCount = 0;
+        if (previous.walkable != null) {
+            changedTiles = new int[walkable.length];
+            for (int tile = 0; tile < walkable.length; tile++) {
+                if (walkable[tile] != previous.walkable[tile]) {
+                    changedTiles[changedCount++] = tile;
+                }
+            }
+        }
+        int maxId = 0;
+        for (int buildingId : buildingIds) {
+            maxId = Math.max(maxId, buildingId);
+        }
+        FlowField[] fieldsById = new FlowField[maxId + 1];
+        for (int i = 0; i < buildingIds.length; i++) {
+            if (version != latestVersion || Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            FlowField previousField = previous.getFlowField(buildingIds[i]);
+            if (changedTiles != null && previousField != null
+                && previousField.hasFootprint(tilesX[i], tilesY[i], footprintMasks[i])
+                && previousField.isUnchangedBy(changedTiles, changedCount, walkable)) {
+                fieldsById[buildingIds[i]] = previousField;
+                continue;
+            }
+            fieldsById[buildingIds[i]] = FlowField.compute(buildingIds[i], walkable,
+                mapTileWidth, mapTileHeight, tilesX[i], tilesY[i], footprintMasks[i]);
+        }
+        FlowFieldSet fields = new FlowFieldSet(version, fieldsById, walkable);
+        // Fields are computed in order on one thread, but never replace
+        // newer fields with older ones.
+        published.getAndUpdate(current -> current.getVersion() < version ? fields : current);
+    }
+
+    private void blockFootprint(byte[] walkable, int tileX, int tileY,
+                                FootprintMask footprintMask) {
+        int minX = Math.max(tileX, 0);
+        int minY = Math.max(tileY, 0);
+        int maxX = Math.min(tileX + footprintMask.getWidthInTiles(), mapTileWidth);
+        int maxY = Math.min(tileY + footprintMask.getHeightInTiles(), mapTileHeight);
+        for (int y = minY; y < maxY; y++) {
+            for (int x = minX; x < maxX; x++) {
+                if (footprintMask.isCovered(x - tileX, y - tileY)) {
+                    walkable[(y * mapTileWidth) + x] = 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * The flow fields to all the buildings placed at one point in time.
+     */
+    public static class FlowFieldSet {
+        private final int version;
+        private final FlowField[] fieldsById;
+        // The tiles the fields were computed with, or null if there are
+        // no fields to reuse.
+        private final byte[] walkable;
+
+        FlowFieldSet(int version, FlowField[] fieldsById, byte[] walkable) {
+            this.version = version;
+            this.fieldsById = fieldsById;
+            this.walkable = walkable;
+        }
+
+        public int getVersion() {
+            return version;
+        }
+
+        /**
+         * Returns the flow field to a building.
+         * @param buildingId the ID of the building, see BuildingPicker.
+         * @return the flow field, or null if the building wasn't placed.
+         */
+        public FlowField getFlowField(int buildingId) {
+            if (buildingId <= 0 || buildingId >= fieldsById.length) {
+                return null;
+            }
+            return fieldsById[buildingId];
+        }
+
+        /**
+         * Copies the set without the flow field to a building.
+         * @param buildingId the ID of the building, see BuildingPicker.
+         * @param version the version of the copy.
+         * @return the copy.
+         */
+        FlowFieldSet withoutFlowField(int buildingId, int version) {
+            FlowField[] fields = fieldsById.clone();
+            if (buildingId > 0 && buildingId < fields.length) {
+                fields[buildingId] = null;
+            }
+            return new FlowFieldSet(version, fields, walkable);
+        }
+    }
+}
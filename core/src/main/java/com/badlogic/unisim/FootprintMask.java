@@ -0,0 +1,113 @@
+package com.badlogic.unisim;
+
+/**
+ * This class is responsible for knowing which tiles of its bounding
+ * rectangle a building covers, so that buildings don't have to be
+ * rectangles, e.g L-shaped or ring buildings. Each row of tiles is stored as
+ * the bits of a long, bit x being set if the tile x tiles from the left is
+ * covered, so whole rows can be checked against a TileBitset at once. A mask
+ * never changes once it has been created.
+ */
+public class FootprintMask {
+    // Widest a mask can be, as each row is a single long.
+    public static final int MAX_WIDTH = Long.SIZE;
+    private final int widthInTiles;
+    private final int heightInTiles;
+    // Indexed by row, from the bottom row up.
+    private final long[] rows;
+
+    private FootprintMask(int widthInTiles, int heightInTiles, long[] rows) {
+        if (widthInTiles < 0 || widthInTiles > MAX_WIDTH || heightInTiles < 0) {
+            throw new IllegalArgumentException("Footprints must be between 0 and "
+                + MAX_WIDTH + " tiles wide: " + widthInTiles + "x" + heightInTiles);
+        }
+        this.widthInTiles = widthInTiles;
+        this.heightInTiles = heightInTiles;
+        this.rows = rows;
+    }
+
+    /**
+     * Creates a mask covering every tile of a rectangle.
+     * @param widthInTiles width of the rectangle in tiles.
+     * @param heightInTiles height of the rectangle in tiles.
+     * @return the mask.
+     */
+    public static FootprintMask rectangle(int widthInTiles, int heightInTiles) {
+        long[] rows = new long[Math.max(heightInTiles, 0)];
+        long row = getRowBits(widthInTiles);
+        for (int y = 0; y < rows.length; y++) {
+            rows[y] = row;
+        }
+        return new FootprintMask(widthInTiles, heightInTiles, rows);
+    }
+
+    /**
+     * Creates a mask from a picture of its tiles, e.g from metadata.
+     * @param rows one string per row of tiles, from the top row down as they
+     *             would be drawn, with 'X' for each covered tile and any
+     *             other character for an empty tile. e.g "XX", "X." for an
+     *             L-shape.
+     * @return the mask, as wide as the longest row.
+     */
+    public static FootprintMask fromRows(String... rows) {
+        int widthInTiles = 0;
+        for (String row : rows) {
+            widthInTiles = Math.max(widthInTiles, row.length());
+        }
+        long[] maskRows = new long[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            // The first string is the top row.
+            int y = rows.length - 1 - i;
+            for (int x = 0; x < rows[i].length(); x++) {
+                if (rows[i].charAt(x) == 'X') {
+                    maskRows[y] |= 1L << x;
+                }
+            }
+        }
+        return new FootprintMask(widthInTiles, rows.length, maskRows);
+    }
+
+    /**
+     * Returns the bits of a row with the given number of tiles from the left
+     * set.
+     * @param widthInTiles the number of tiles, up to MAX_WIDTH.
+     * @return the row bits.
+     */
+    static long getRowBits(int widthInTiles) {
+        if (widthInTiles <= 0) {
+            return 0;
+        }
+        return widthInTiles >= MAX_WIDTH ? -1L : (1L << widthInTiles) - 1;
+    }
+
+    public int getWidthInTiles() {
+        return widthInTiles;
+    }
+
+    public int getHeightInTiles() {
+        return heightInTiles;
+    }
+
+    /**
+     * Returns the covered tiles of a row.
+     * @param y the row, 0 being the bottom row.
+     * @return bit x is set if the tile x tiles from the left is covered.
+     */
+    public long getRow(int y) {
+        return rows[y];
+    }
+
+    /**
+     * Checks if a tile of the mask is covered.
+     * @param x the tile x-coordinate from the left of the mask.
+     * @param y the tile y-coordinate from the bottom of the mask.
+     * @return true if the tile is covered, false otherwise or if it is
+     * outside the mask.
+     */
+    public boolean isCovered(int x, int y) {
+        if (x < 0 || y < 0 || x >= widthInTiles || y >= heightInTiles) {
+            return false;
+        }
+        return (rows[y] & (1L << x)) != 0;
+    }
+}
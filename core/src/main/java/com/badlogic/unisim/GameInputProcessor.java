@@ -1,5 +1,6 @@
 package com.badlogic.unisim;
 
+import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.InputProcessor;
 
@@ -12,13 +13,76 @@ public class GameInputProcessor implements InputProcessor {
     private final GameTimer gameTimer;
     private final PausePopup pausePopup;
     private final BuildingPlacer buildingPlacer;
+    private final PointerMoveCoalescer pointerMoveCoalescer;
+    private final SimulationClock simulationClock;
+    private final CampusSaveManager campusSaveManager;
+    private final BuildingCommandExecutor commandExecutor;
+    private final InfluenceOverlay influenceOverlay;
+    private final CameraController cameraController;
+    private GameSpeed gameSpeed;
+    // Camera move count the selected building was last snapped at.
+    private int snappedCameraMoveCount;
 
-    public GameInputProcessor (GameTimer gameTimer, PausePopup pausePopup,
-                               UIManager uiManager, BuildingPlacer buildingPlacer) {
+    public GameInputProcessor (GameTimer gameTimer, SimulationClock simulationClock,
+                               PausePopup pausePopup, UIManager uiManager,
+                               BuildingPlacer buildingPlacer,
+                               CampusSaveManager campusSaveManager,
+                               BuildingCommandExecutor commandExecutor,
+                               InfluenceOverlay influenceOverlay,
+                               CameraController cameraController) {
         this.gameTimer = gameTimer;
+        this.cameraController = cameraController;
+        this.snappedCameraMoveCount = cameraController.getMoveCount();
+        this.influenceOverlay = influenceOverlay;
+        this.commandExecutor = commandExecutor;
+        this.campusSaveManager = campusSaveManager;
+        this.simulationClock = simulationClock;
         this.pausePopup = pausePopup;
         this.uiManager = uiManager;
         this.buildingPlacer = buildingPlacer;
+        this.pointerMoveCoalescer = new PointerMoveCoalescer(buildingPlacer);
+        setGameSpeed(GameSpeed.NORMAL);
+    }
+
+    /**
+     * Processes the mouse movement received since the last frame. Should be
+     * called once per rendered frame.
+     */
+    public void processPendingInput() {
+        if (gameTimer.getIsPaused()) {
+            pointerMoveCoalescer.discardPendingMove();
+            return;
+        }
+        // The map moves under a still mouse when the camera pans or zooms,
+        // so the selected building has to be snapped again.
+        if (snappedCameraMoveCount != cameraController.getMoveCount()) {
+            snappedCameraMoveCount = cameraController.getMoveCount();
+            if (buildingPlacer.isNewBuildingSelected || buildingPlacer.isPlacedBuildingSelected) {
+                pointerMoveCoalescer.queueMove(Gdx.input.getX(), Gdx.input.getY());
+            }
+        }
+        pointerMoveCoalescer.flush();
+    }
+
+    public PointerMoveCoalescer getPointerMoveCoalescer() {
+        return pointerMoveCoalescer;
+    }
+
+    /**
+     * Returns the speed the game is currently played at.
+     * @return the current game speed.
+     */
+    public GameSpeed getGameSpeed() {
+        return gameSpeed;
+    }
+
+    /**
+     * Changes how fast game time passes compared to real time.
+     * @param gameSpeed the speed to play the game at.
+     */
+    private void setGameSpeed(GameSpeed gameSpeed) {
+        this.gameSpeed = gameSpeed;
+        simulationClock.setTimeScale(gameSpeed.getTimeScale());
     }
 
     @Override
@@ -30,7 +94,7 @@ public class GameInputProcessor implements InputProcessor {
                 pausePopup.hide();
                 uiManager.showBuildingMenuPrompt();
                 // Allow placed buildings to be clickable
-                buildingPlacer.enableBuildingActors();
+                buildingPlacer.enableBuildingPicking();
             } else {
                 // Hide/close any open menus and messages.
                 gameTimer.pauseTime();
@@ -38,10 +102,31 @@ public class GameInputProcessor implements InputProcessor {
                 uiManager.hideBuildingMenuPrompt();
                 uiManager.hideBuildingMenu();
                 // Stop placed buildings from being clickable
-                buildingPlacer.disableBuildingActors();
+                buildingPlacer.disableBuildingPicking();
             }
             return true;
         }
+        // F5 saves the campus and F9 loads it, whether or not the game is paused.
+        if (keycode == Input.Keys.F5) {
+            campusSaveManager.save();
+            return true;
+        }
+        if (keycode == Input.Keys.F9) {
+            pointerMoveCoalescer.discardPendingMove();
+            if (!campusSaveManager.load()) {
+                return false;
+            }
+            // Journals start from an empty campus, so one can't be replayed
+            // past a loaded save, and nothing before the save can be undone.
+            commandExecutor.closeJournal();
+            commandExecutor.clearHistory();
+            return true;
+        }
+        // The key 'I' shows and hides the influence maps, even while paused.
+        if (keycode == Input.Keys.I) {
+            influenceOverlay.toggleVisible();
+            return true;
+        }
         // Don't register any other key inputs if the game is paused.
         if (gameTimer.getIsPaused()) {
             return false;
@@ -51,23 +136,43 @@ public class GameInputProcessor implements InputProcessor {
             if (uiManager.isBuildingMenuVisible()) {
                 uiManager.hideBuildingMenu();
                 // Make placed buildings clickable
-                buildingPlacer.enableBuildingActors();
+                buildingPlacer.enableBuildingPicking();
             } else {
                 uiManager.showBuildingMenu();
                 // If the building menu is opened when a placed building is
                 // selected, the building will be deleted.
                 if (buildingPlacer.isPlacedBuildingSelected) {
-                    buildingPlacer.deleteBuilding();
+                    deleteSelectedBuilding();
                 }
                 // Make placed buildings no longer clickable
-                buildingPlacer.disableBuildingActors();
+                buildingPlacer.disableBuildingPicking();
                 buildingPlacer.deselectBuilding();
             }
         }
+        // The keys '1', '2' and '3' play the game at 1x, 2x and 10x speed.
+        if (keycode == Input.Keys.NUM_1) {
+            setGameSpeed(GameSpeed.NORMAL);
+            return true;
+        }
+        if (keycode == Input.Keys.NUM_2) {
+            setGameSpeed(GameSpeed.FAST);
+            return true;
+        }
+        if (keycode == Input.Keys.NUM_3) {
+            setGameSpeed(GameSpeed.FASTEST);
+            return true;
+        }
+        // CTRL + Z undoes the last building operation, CTRL + Y redoes it.
+        if (isControlPressed() && keycode == Input.Keys.Z) {
+            return commandExecutor.undo(gameTimer.getElapsedTime());
+        }
+        if (isControlPressed() && keycode == Input.Keys.Y) {
+            return commandExecutor.redo(gameTimer.getElapsedTime());
+        }
         if (keycode == Input.Keys.BACKSPACE) {
             // BACKSPACE will delete a selected placed building
             if (buildingPlacer.isPlacedBuildingSelected) {
-                buildingPlacer.deleteBuilding();
+                deleteSelectedBuilding();
                 buildingPlacer.deselectBuilding();
                 uiManager.showBuildingMenuPrompt();
             }
@@ -75,6 +180,20 @@ public class GameInputProcessor implements InputProcessor {
         return false;
     }
 
+    private boolean isControlPressed() {
+        return Gdx.input.isKeyPressed(Input.Keys.CONTROL_LEFT)
+            || Gdx.input.isKeyPressed(Input.Keys.CONTROL_RIGHT);
+    }
+
+    /**
+     * Deletes the selected placed building through a command, so that it is
+     * recorded in the journal.
+     */
+    private void deleteSelectedBuilding() {
+        commandExecutor.execute(
+            commandExecutor.createDeleteSelectedCommand(gameTimer.getElapsedTime()));
+    }
+
     @Override
     public boolean keyUp (int keycode) { return false; }
 
@@ -83,17 +202,31 @@ public class GameInputProcessor implements InputProcessor {
 
     @Override
     public boolean touchDown(int screenX, int screenY, int pointer, int button) {
+        // The right and middle mouse buttons drag the map, even while paused.
+        if (button == Input.Buttons.RIGHT || button == Input.Buttons.MIDDLE) {
+            cameraController.startDrag(screenX, screenY);
+            return true;
+        }
         // Disable click input if game is paused.
         if (gameTimer.getIsPaused()) {
             return false;
         }
+        // Select the placed building that was clicked on, if any.
+        if (!buildingPlacer.isNewBuildingSelected && !buildingPlacer.isPlacedBuildingSelected) {
+            return buildingPlacer.selectBuildingAt(screenX, screenY);
+        }
+        // Make sure the building has been checked for collisions where it is
+        // being clicked, as queued mouse movement is only processed once per frame.
+        pointerMoveCoalescer.discardPendingMove();
+        buildingPlacer.snapBuildingToGrid(screenX, screenY);
         // Don't register click input if the building is not in a buildable area
         if (!buildingPlacer.isBuildable) {
             return false;
         }
         // Place a building on click input
         if (buildingPlacer.isNewBuildingSelected || buildingPlacer.isPlacedBuildingSelected) {
-            buildingPlacer.placeBuilding(screenX, screenY);
+            commandExecutor.execute(
+                commandExecutor.createPlaceSelectedCommand(gameTimer.getElapsedTime()));
             buildingPlacer.deselectBuilding();
             uiManager.hideBuildingMenuPrompt();
             uiManager.showBuildingMenuPrompt();
@@ -103,6 +236,9 @@ public class GameInputProcessor implements InputProcessor {
 
     @Override
     public boolean touchUp(int screenX, int screenY, int pointer, int button) {
+        if (button == Input.Buttons.RIGHT || button == Input.Buttons.MIDDLE) {
+            return cameraController.stopDrag();
+        }
         return false;
     }
 
@@ -112,7 +248,9 @@ public class GameInputProcessor implements InputProcessor {
     }
 
     @Override
-    public boolean touchDragged(int screenX, int screenY, int pointer) { return false; }
+    public boolean touchDragged(int screenX, int screenY, int pointer) {
+        return cameraController.drag(screenX, screenY);
+    }
 
     @Override
     public boolean mouseMoved(int screenX, int screenY) {
@@ -120,14 +258,19 @@ public class GameInputProcessor implements InputProcessor {
         if (gameTimer.getIsPaused()) {
             return false;
         }
-        // If either a new building or placed building is selected.
+        // If either a new building or placed building is selected, queue the
+        // movement to be processed in the next frame.
         if (buildingPlacer.isNewBuildingSelected || buildingPlacer.isPlacedBuildingSelected) {
-            buildingPlacer.snapBuildingToGrid(screenX, screenY);
+            pointerMoveCoalescer.queueMove(screenX, screenY);
         }
         return false;
     }
 
     @Override
-    public boolean scrolled(float amountX, float amountY) { return false; }
+    public boolean scrolled(float amountX, float amountY) {
+        // Scrolling zooms towards the mouse, even while paused.
+        cameraController.zoom(amountY, Gdx.input.getX(), Gdx.input.getY());
+        return true;
+    }
 
 }
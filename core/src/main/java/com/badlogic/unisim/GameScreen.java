@@ -7,58 +7,149 @@ import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
-import com.badlogic.gdx.maps.tiled.TmxMapLoader;
 import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.utils.ScreenUtils;
+import com.badlogic.gdx.utils.TimeUtils;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 
+import java.io.IOException;
+import java.nio.file.Path;
+
 /**
  * This class handles all the game logic and visuals for the main game screen
  */
 public class GameScreen implements Screen {
     // Reference the main game class to communicate with main game manager.
     private final UniSimGame game;
+    private final GameScreenAssets gameScreenAssets;
     private final GameTimer gameTimer;
+    private final SimulationClock simulationClock;
     private final PausePopup pausePopup;
     private UIManager uiManager;
     private BuildingPlacer buildingPlacer;
     private BuildingsTracker buildingsTracker;
+    private PlacedBuildingsCache placedBuildingsCache;
+    private CampusSatisfaction campusSatisfaction;
+    private PlacementSuggester placementSuggester;
+    private PlacementSuggestionOverlay placementSuggestionOverlay;
+    private InfluenceMaps influenceMaps;
+    private InfluenceOverlay influenceOverlay;
+    private CameraController cameraController;
+    private GameInputProcessor gameInputProcessor;
+    private CampusSaveManager campusSaveManager;
+    private BuildingCommandExecutor commandExecutor;
+    private FlowFieldCache flowFieldCache;
+    private WalkingDistanceFields walkingDistanceFields;
+    private StudentSimulation studentSimulation;
+    private StudentRenderer studentRenderer;
+    private HudLabel timeLabel;
+    private HudLabel dateLabel;
     private OrthographicCamera camera;
     private FitViewport viewport;
+    // The HUD and menus stay the same size on-screen whatever the zoom.
+    private FitViewport hudViewport;
     private TiledMap tiledMap;
     private OrthogonalTiledMapRenderer mapRenderer;
 
+    // How a selected building shows whether it can be placed, TEXTURES uses
+    // the hand-made buildable and non-buildable textures instead of tints.
+    static final PlacementPreviewMode PREVIEW_MODE = PlacementPreviewMode.TINT;
+
+    // Number of times per second of game time that the game is updated,
+    // independent of the frame rate.
+    static final int TICKS_PER_SECOND = 60;
+
+    // Number of students living on the campus.
+    static final int STUDENT_COUNT = 2000;
+
+    // Name of the map layer holding the ground tiles.
+    static final String GROUND_LAYER = "Tile Layer 1";
+
     float MAP_WIDTH = 1920;
     float MAP_HEIGHT = 1056;
 
-    public GameScreen(UniSimGame game) {
+    public GameScreen(UniSimGame game, GameScreenAssets gameScreenAssets) {
         this.game = game;
+        this.gameScreenAssets = gameScreenAssets;
         this.gameTimer = new GameTimer(5);
+        this.simulationClock = new SimulationClock(TICKS_PER_SECOND);
         this.pausePopup = new PausePopup(game);
     }
 
     @Override
     public void show() {
         // Prepare your screen here
-        // Initialise camera and viewport to fit the size of the map.
+        // Initialise camera and viewport, showing MAP_WIDTH by MAP_HEIGHT of
+        // the map at a zoom of 1.
         camera = new OrthographicCamera();
         viewport = new FitViewport(MAP_WIDTH, MAP_HEIGHT, camera);
-        // Load map and 'buildable' layer
-        tiledMap = new TmxMapLoader().load("map/MarsMap.tmx");
+        hudViewport = new FitViewport(MAP_WIDTH, MAP_HEIGHT);
+        // Get the loaded map and its 'buildable' layer
+        tiledMap = gameScreenAssets.getMap();
         TiledMapTileLayer buildableLayer = (TiledMapTileLayer) tiledMap.getLayers().get("BuildableLayer");
+        // Start zoomed out to show the whole map.
+        cameraController = new CameraController(viewport,
+            buildableLayer.getWidth() * buildableLayer.getTileWidth(),
+            buildableLayer.getHeight() * buildableLayer.getTileHeight());
+        // Increase the size of the font used for on-screen writing
+        game.font.getData().setScale(3.0f);
+        timeLabel = new HudLabel(game.font, 20, 80);
+        dateLabel = new HudLabel(game.font, 20, 40);
         // Create a map renderer to be able to render the map in game.
         mapRenderer = new OrthogonalTiledMapRenderer(tiledMap);
         // Create stage
-        Stage stage = new Stage(viewport);
-        buildingsTracker = new BuildingsTracker();
-        buildingPlacer = new BuildingPlacer(game, buildingsTracker, viewport, stage, buildableLayer);
+        Stage stage = new Stage(hudViewport);
+        buildingsTracker = new BuildingsTracker(buildableLayer);
+        placedBuildingsCache = new PlacedBuildingsCache(buildingsTracker,
+            buildableLayer.getWidth(), buildableLayer.getHeight(),
+            buildableLayer.getTileWidth(), buildableLayer.getTileHeight());
+        buildingPlacer = new BuildingPlacer(game, buildingsTracker, viewport,
+                                            buildableLayer, PREVIEW_MODE);
         // Load UI
-        uiManager = new UIManager(game, stage, buildingPlacer, buildingsTracker);
+        campusSatisfaction = new CampusSatisfaction(buildingsTracker,
+            buildableLayer.getTileWidth(), buildableLayer.getTileHeight());
+        uiManager = new UIManager(game, stage, buildingPlacer, buildingsTracker,
+                                  gameScreenAssets.getBuildingAssetsManager(),
+                                  campusSatisfaction);
+        // Suggest where the selected building would add most to satisfaction.
+        int tileWidth = buildableLayer.getTileWidth();
+        int tileHeight = buildableLayer.getTileHeight();
+        placementSuggester = new PlacementSuggester(buildingsTracker, buildingPlacer,
+            () -> new SatisfactionPlacementScorer(buildingsTracker, tileWidth, tileHeight),
+            buildableLayer.getWidth(), buildableLayer.getHeight());
+        placementSuggestionOverlay = new PlacementSuggestionOverlay(placementSuggester,
+            tileWidth, tileHeight);
+        // Spread noise and study from the buildings, shown when toggled on.
+        influenceMaps = new InfluenceMaps(buildingsTracker, buildableLayer.getWidth(),
+            buildableLayer.getHeight(), tileWidth, tileHeight,
+            Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+        influenceOverlay = new InfluenceOverlay(influenceMaps, tileWidth, tileHeight);
+        BuildingTypeRegions buildingTypeRegions = new BuildingTypeRegions(
+            gameScreenAssets.getBuildingAssetsManager(), tileWidth, tileHeight);
+        campusSaveManager = new CampusSaveManager(game, gameTimer, buildingsTracker,
+            buildingPlacer, buildableLayer, buildingTypeRegions,
+            Gdx.files.external(CampusSaveManager.SAVE_PATH).file().toPath());
+        // Record the player's building commands, so that the session can be replayed.
+        commandExecutor = new BuildingCommandExecutor(buildingsTracker, buildingPlacer,
+            buildingTypeRegions, buildableLayer);
+        startJournal();
+        // Students can walk anywhere on the ground, i.e the bottom layer of
+        // the map, that isn't covered by a building.
+        TiledMapTileLayer groundLayer = (TiledMapTileLayer) tiledMap.getLayers().get(GROUND_LAYER);
+        flowFieldCache = new FlowFieldCache(buildingsTracker, groundLayer);
+        walkingDistanceFields = new WalkingDistanceFields(buildingsTracker, groundLayer);
+        // Students are updated on every core, leaving one for rendering.
+        studentSimulation = new StudentSimulation(buildingsTracker, flowFieldCache,
+            walkingDistanceFields, STUDENT_COUNT, MAP_WIDTH, MAP_HEIGHT, TimeUtils.millis(),
+            Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+        studentRenderer = new StudentRenderer(studentSimulation);
         // Load input processor for the game.
-        GameInputProcessor gameInputProcessor = new GameInputProcessor(
-                                            gameTimer, pausePopup,
-                                            uiManager, buildingPlacer);
+        gameInputProcessor = new GameInputProcessor(
+                                            gameTimer, simulationClock, pausePopup,
+                                            uiManager, buildingPlacer, campusSaveManager,
+                                            commandExecutor, influenceOverlay,
+                                            cameraController);
         // As we need an additional input processor for UI elements, we can
         // combine the two input processors in an input multiplexer.
         InputMultiplexer inputMultiplexer = new InputMultiplexer();
@@ -71,37 +162,71 @@ public class GameScreen implements Screen {
     @Override
     public void render(float delta) {
         // Draw your screen here. "delta" is the time since last render in seconds.
+        // Pan the camera if the mouse is at the edge of the screen.
+        cameraController.update(delta);
         viewport.apply();
         camera.update();
         // Enable the spriteBatch to position and scale textures correctly on-screen
         game.batch.setProjectionMatrix(camera.combined);
-        // Update timer
-        gameTimer.updateTime(delta);
+        // Process the mouse movement received since the last frame
+        gameInputProcessor.processPendingInput();
+        // Update the game in fixed ticks, as many as fit in the time since
+        // the last frame at the current game speed.
+        int ticks = simulationClock.advance(delta);
+        for (int i = 0; i < ticks; i++) {
+            updateSimulation(simulationClock.getTickSeconds());
+        }
         // Check if the timer has ended, end the game once it has
         if (gameTimer.isTimeEnded()) {
             game.setScreen(new EndScreen(game));
             this.dispose();
+            // Everything drawn below has just been disposed of.
+            return;
         }
         // Clear the screen
         ScreenUtils.clear(Color.BLACK);
         // Set the camera to the map renderer to make the map visible
         mapRenderer.setView(camera);
         mapRenderer.render();
-        // Begin drawing
-        game.batch.begin();
         // The order in which objects are drawn is important, as if e.g object1
         // is drawn after object2, object2 would be on top of object2.
-        buildingsTracker.drawBuildings();
+        // Placed buildings are drawn from a cache that is only rebuilt when
+        // they change, the selected building is drawn on top of them.
+        // Only the chunks of buildings the camera can see are drawn.
+        placedBuildingsCache.draw(camera.combined, cameraController.getVisibleArea());
+        influenceOverlay.draw(camera.combined);
+        // Mark the best spots for the selected building, if there is one.
+        placementSuggester.update();
+        placementSuggestionOverlay.draw(camera.combined);
+        // Students don't move while the game is paused, so they are drawn
+        // where the last tick left them.
+        studentRenderer.draw(camera.combined,
+            gameTimer.getIsPaused() ? 1 : simulationClock.getAlpha());
+        // Begin drawing
+        game.batch.begin();
         buildingPlacer.attachBuildingToMouse();
-        // Increase the size of the font used for on-screen writing
-        game.font.getData().setScale(3.0f);
-        // Display timer on-screen
-        game.font.draw(game.batch, gameTimer.getFormattedTime(), 20, 80);
-        // Display the date on-screen
-        game.font.draw(game.batch, gameTimer.getFormattedDate(), 20, 40);
+        // Draw the HUD in screen space, unaffected by the zoom and pan.
+        game.batch.setProjectionMatrix(hudViewport.getCamera().combined);
+        // Display timer on-screen, its text only changes every second or
+        // when the game speed changes.
+        GameSpeed gameSpeed = gameInputProcessor.getGameSpeed();
+        if (timeLabel.updateValue(gameTimer.getRemainingSeconds() * 4L + gameSpeed.ordinal())) {
+            StringBuilder timeText = timeLabel.editText();
+            gameTimer.appendFormattedTime(timeText);
+            if (gameSpeed != GameSpeed.NORMAL) {
+                timeText.append("  ").append(gameSpeed.getLabel());
+            }
+        }
+        timeLabel.draw(game.batch);
+        // Display the date on-screen, its text only changes every season.
+        if (dateLabel.updateValue(gameTimer.getYearIndex() * 4L + gameTimer.getSeasonIndex())) {
+            gameTimer.appendFormattedDate(dateLabel.editText());
+        }
+        dateLabel.draw(game.batch);
         uiManager.drawBuildingMenuPrompt();
         uiManager.drawDeleteBuildingPrompt();
         uiManager.drawBuildingCounter();
+        uiManager.drawSatisfaction();
         pausePopup.draw();
         // Stop drawing
         game.batch.end();
@@ -109,11 +234,40 @@ public class GameScreen implements Screen {
         uiManager.renderUI(delta);
     }
 
+    /**
+     * Starts recording building commands in a new journal named after the
+     * current time. The game carries on without one if it can't be created.
+     */
+    private void startJournal() {
+        Path journalPath = Gdx.files.external(CommandJournal.JOURNAL_DIRECTORY
+            + TimeUtils.millis() + ".journal").file().toPath();
+        try {
+            commandExecutor.setJournal(CommandJournal.create(journalPath));
+        } catch (IOException e) {
+            Gdx.app.error("GameScreen", "Could not create journal " + journalPath, e);
+        }
+    }
+
+    /**
+     * Advances the game by one tick.
+     * @param tickSeconds the game time simulated by the tick in seconds.
+     */
+    private void updateSimulation(double tickSeconds) {
+        gameTimer.updateTime(tickSeconds);
+        if (!gameTimer.getIsPaused()) {
+            flowFieldCache.update();
+            studentSimulation.update(tickSeconds);
+        }
+    }
+
     @Override
     public void resize(int width, int height) {
         // Resize your screen here. The parameters represent the new window size.
-        viewport.update(width, height, true);
+        // The map camera is not re-centred, so that the view stays where the
+        // player left it.
+        viewport.update(width, height, false);
         camera.update();
+        hudViewport.update(width, height, true);
     }
 
     @Override
@@ -134,9 +288,20 @@ public class GameScreen implements Screen {
     @Override
     public void dispose() {
         // Destroy screen's assets here when we switch to the EndScreen.
-        tiledMap.dispose();
         mapRenderer.dispose();
+        placedBuildingsCache.dispose();
+        studentRenderer.dispose();
+        placementSuggestionOverlay.dispose();
+        influenceOverlay.dispose();
+        influenceMaps.dispose();
+        placementSuggester.dispose();
+        studentSimulation.dispose();
+        flowFieldCache.dispose();
+        campusSaveManager.dispose();
+        commandExecutor.closeJournal();
         pausePopup.dispose();
         uiManager.dispose();
+        // The map and building textures belong to the AssetManager.
+        gameScreenAssets.unload();
     }
 }
@@ -0,0 +1,78 @@
+package com.badlogic.unisim;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+
+/**
+ * This class is responsible for the assets needed by the GameScreen. They are
+ * queued in the game's AssetManager so that they load in the background,
+ * e.g while the main menu is showing, instead of all at once when the game
+ * screen is shown.
+ */
+public class GameScreenAssets {
+    public static final String MAP_PATH = "map/MarsMap.tmx";
+    private final AssetManager assetManager;
+    private final BuildingAssetsManager buildingAssetsManager;
+    private boolean isQueued;
+
+    public GameScreenAssets(AssetManager assetManager, PlacementPreviewMode previewMode) {
+        this.assetManager = assetManager;
+        this.buildingAssetsManager = new BuildingAssetsManager(assetManager, previewMode);
+        this.isQueued = false;
+    }
+
+    /**
+     * Queues all the game screen's assets to be loaded. Does nothing if they
+     * have already been queued.
+     */
+    public void queue() {
+        if (isQueued) {
+            return;
+        }
+        assetManager.load(MAP_PATH, TiledMap.class);
+        buildingAssetsManager.queueAssets();
+        isQueued = true;
+    }
+
+    /**
+     * Continues loading the queued assets for at most the given time. Files
+     * are read and decoded on the AssetManager's worker thread, only the
+     * upload to the GPU happens on the render thread.
+     * @param millis the maximum time to spend loading, in milliseconds.
+     * @return true if every asset has been loaded, false otherwise.
+     */
+    public boolean update(int millis) {
+        queue();
+        return assetManager.update(millis);
+    }
+
+    /**
+     * Returns how much of the queued assets have been loaded.
+     * @return the progress between 0 and 1.
+     */
+    public float getProgress() {
+        return assetManager.getProgress();
+    }
+
+    public TiledMap getMap() {
+        return assetManager.finishLoadingAsset(MAP_PATH);
+    }
+
+    public BuildingAssetsManager getBuildingAssetsManager() {
+        return buildingAssetsManager;
+    }
+
+    /**
+     * Unloads every asset of the game screen, once it has been disposed.
+     */
+    public void unload() {
+        if (!isQueued) {
+            return;
+        }
+        if (assetManager.contains(MAP_PATH)) {
+            assetManager.unload(MAP_PATH);
+        }
+        buildingAssetsManager.dispose();
+        isQueued = false;
+    }
+}
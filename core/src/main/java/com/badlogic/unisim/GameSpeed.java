@@ -0,0 +1,35 @@
+package com.badlogic.unisim;
+
+/**
+ * This enum lists the speeds the game can be played at, as multiples of
+ * real time.
+ */
+public enum GameSpeed {
+    NORMAL(1, "1x"),
+    FAST(2, "2x"),
+    FASTEST(10, "10x");
+
+    private final double timeScale;
+    private final String label;
+
+    GameSpeed(double timeScale, String label) {
+        this.timeScale = timeScale;
+        this.label = label;
+    }
+
+    /**
+     * Returns how many seconds of game time pass per real second.
+     * @return the time scale of the speed.
+     */
+    public double getTimeScale() {
+        return timeScale;
+    }
+
+    /**
+     * Returns the speed as shown on-screen, e.g '2x'.
+     * @return the label of the speed.
+     */
+    public String getLabel() {
+        return label;
+    }
+}
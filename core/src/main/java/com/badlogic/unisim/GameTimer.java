@@ -5,7 +5,8 @@ package com.badlogic.unisim;
  * the game screen and updating the time of year display.
  */
 public class GameTimer {
-    private float remainingTime;
+    // Double, as thousands of small ticks would drift as a float.
+    private double remainingTime;
     private boolean isPaused;
     private final int durationInMinutes;
     private final String[] seasonsOfTheYear;
@@ -13,7 +14,7 @@ public class GameTimer {
 
     public GameTimer(int setMinutes) {
         this.durationInMinutes = setMinutes;
-        this.remainingTime = setMinutes * 60f;
+        this.remainingTime = setMinutes * 60.0;
         this.isPaused = true;// Game starts paused
         this.seasonsOfTheYear = new String[]{"Spring", "Summer", "Autumn", "Winter"};
         this.years = new String[]{"2062", "2063", "2064", "2065", "2066"};
@@ -21,9 +22,9 @@ public class GameTimer {
 
     /**
      * Updates the timer by reducing by delta time if not paused.
-     * @param deltaTime the time since the last render in seconds.
+     * @param deltaTime the game time simulated in seconds, e.g one tick.
      */
-    public void updateTime(float deltaTime) {
+    public void updateTime(double deltaTime) {
         if (!isPaused && remainingTime > 0) {
             remainingTime -= deltaTime;
         }
@@ -53,24 +54,85 @@ public class GameTimer {
     }
 
     /**
-     * Converts a 5-minute time frame into a 5-year period, with each year
-     * split into 4 seasons.
-     * @return the season of the year and the year.
+     * Returns the exact time remaining, e.g to save the game.
+     * @return the time remaining in seconds.
      */
-    public String getFormattedDate() {
+    public double getRemainingTime() {
+        return remainingTime;
+    }
+
+    /**
+     * Returns the game time that has passed since the game started.
+     * @return the time elapsed in seconds.
+     */
+    public double getElapsedTime() {
+        return durationInMinutes * 60.0 - remainingTime;
+    }
+
+    /**
+     * Moves the timer to a point in the game, e.g when a saved game is loaded.
+     * @param remainingTime the time remaining in seconds, at most the
+     *                      duration of the game.
+     */
+    public void setRemainingTime(double remainingTime) {
+        this.remainingTime = Math.min(remainingTime, durationInMinutes * 60.0);
+    }
+
+    /**
+     * Returns the whole number of seconds remaining, which is what the timer
+     * display shows.
+     * @return the number of seconds remaining, rounded towards 0.
+     */
+    public int getRemainingSeconds() {
+        return (int) remainingTime;
+    }
+
+    /**
+     * Works out which year of the 5-year period the game is in, changing
+     * every minute.
+     * @return the index of the current year.
+     */
+    public int getYearIndex() {
+        int SECONDS_PER_MIN = 60;
+        double elapsedTime = durationInMinutes * SECONDS_PER_MIN - remainingTime;
+        int elapsedMinutes = (int) (elapsedTime / SECONDS_PER_MIN);
+        // The last moment of the game still belongs to the final year.
+        return Math.min(Math.max(elapsedMinutes, 0), years.length - 1);
+    }
+
+    /**
+     * Works out which season of the year the game is in, changing every 15
+     * seconds and starting from 0 again every minute.
+     * @return the index of the current season.
+     */
+    public int getSeasonIndex() {
         int SECONDS_PER_MIN = 60;
         int SECONDS_PER_SEASON = 15;
-        // Carry out some calculations to iterate through array of years every
-        // minute.
-        int remainingMinutes = (int) (remainingTime / SECONDS_PER_MIN);
-        int yearsIndex = durationInMinutes - remainingMinutes;
-        // Carry out some calculations to iterate through array of seasons every
-        // 15 seconds, starting from 0 again every minute.
         int remainingSeconds = (int) (remainingTime % SECONDS_PER_MIN);
         int elapsedIntervals = (SECONDS_PER_MIN - remainingSeconds) / SECONDS_PER_SEASON;
-        int seasonIndex = elapsedIntervals % seasonsOfTheYear.length;
-        // return is of the format e.g Spring + " " + 2066
-        return seasonsOfTheYear[seasonIndex] + " " + years[yearsIndex];
+        return elapsedIntervals % seasonsOfTheYear.length;
+    }
+
+    /**
+     * Converts a 5-minute time frame into a 5-year period, with each year
+     * split into 4 seasons.
+     * @return the season of the year and the year.
+     */
+    public String getFormattedDate() {
+        StringBuilder formattedDate = new StringBuilder(16);
+        appendFormattedDate(formattedDate);
+        return formattedDate.toString();
+    }
+
+    /**
+     * Writes the season of the year and the year without creating a new
+     * String, e.g 'Spring 2066'.
+     * @param output the text to append the date to.
+     */
+    public void appendFormattedDate(StringBuilder output) {
+        output.append(seasonsOfTheYear[getSeasonIndex()])
+            .append(' ')
+            .append(years[getYearIndex()]);
     }
 
     /**
@@ -78,8 +140,31 @@ public class GameTimer {
      * @return the time remaining in the minutes and seconds.
      */
     public String getFormattedTime() {
+        StringBuilder formattedTime = new StringBuilder(8);
+        appendFormattedTime(formattedTime);
+        return formattedTime.toString();
+    }
+
+    /**
+     * Writes the time remaining in minutes and seconds without creating a
+     * new String, e.g '04:05'.
+     * @param output the text to append the time to.
+     */
+    public void appendFormattedTime(StringBuilder output) {
         int minutes = (int) (remainingTime / 60);
         int seconds = (int) (remainingTime % 60);
-        return String.format("%02d:%02d", minutes, seconds);
+        appendTwoDigits(output, minutes);
+        output.append(':');
+        appendTwoDigits(output, seconds);
+    }
+
+    /**
+     * Writes a number padded with a leading 0 to two digits, as '%02d' would.
+     */
+    private void appendTwoDigits(StringBuilder output, int value) {
+        if (value >= 0 && value < 10) {
+            output.append('0');
+        }
+        output.append(value);
     }
 }
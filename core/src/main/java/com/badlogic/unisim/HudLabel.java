@@ -0,0 +1,74 @@
+package com.badlogic.unisim;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+
+/**
+ * This class is responsible for a piece of on-screen text that changes now
+ * and then, e.g the timer. Its text and glyph layout are reused between
+ * frames and only rebuilt when the value it shows changes, so drawing it
+ * does not allocate anything.
+ */
+public class HudLabel {
+    private final BitmapFont font;
+    private final float positionX;
+    private final float positionY;
+    private final StringBuilder text;
+    private final GlyphLayout layout;
+    private long shownValue;
+    private boolean hasValue;
+    private boolean isLayoutStale;
+    private float layoutScale;
+
+    public HudLabel(BitmapFont font, float positionX, float positionY) {
+        this.font = font;
+        this.positionX = positionX;
+        this.positionY = positionY;
+        this.text = new StringBuilder(32);
+        this.layout = new GlyphLayout();
+        this.hasValue = false;
+        this.isLayoutStale = true;
+    }
+
+    /**
+     * Records the value the label should show.
+     * @param value a number that changes whenever the label's text should,
+     *              e.g the seconds remaining for the timer.
+     * @return true if the value changed and the text must be rebuilt with
+     * editText, false otherwise.
+     */
+    public boolean updateValue(long value) {
+        if (hasValue && value == shownValue) {
+            return false;
+        }
+        shownValue = value;
+        hasValue = true;
+        return true;
+    }
+
+    /**
+     * Clears the label's text so that it can be rewritten.
+     * @return the label's (now empty) text.
+     */
+    public StringBuilder editText() {
+        text.setLength(0);
+        isLayoutStale = true;
+        return text;
+    }
+
+    /**
+     * Draws the label, laying out its glyphs again only if its text or the
+     * font's scale has changed.
+     * @param batch the batch to draw the label with.
+     */
+    public void draw(Batch batch) {
+        float fontScale = font.getData().scaleX;
+        if (isLayoutStale || fontScale != layoutScale) {
+            layout.setText(font, text);
+            layoutScale = fontScale;
+            isLayoutStale = false;
+        }
+        font.draw(batch, layout, positionX, positionY);
+    }
+}
@@ -0,0 +1,311 @@
+package com.badlogic.unisim;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class is responsible for knowing how strongly each influence, e.g
+ * noise around recreation buildings, is felt on each tile of the map. An
+ * influence is the share of the tiles within its radius that are covered by
+ * its buildings, i.e a box blur of the buildings' footprints. The blur is
+ * done in two passes, along the rows and then down the columns, each split
+ * into bands between the cores of a fork-join pool. When a building is
+ * placed or removed, only the tiles within reach of it are blurred again.
+ */
+public class InfluenceMaps implements BuildingsTrackerListener {
+    // Number of tiles blurred by each fork-join task, small enough for every
+    // core to get work on a large map but large enough to outweigh the task
+    // overhead. A small change is blurred by a single task.
+    private static final int TILES_PER_TASK = 4096;
+    private final BuildingsTracker buildingsTracker;
+    private final int mapTileWidth;
+    private final int mapTileHeight;
+    private final int TILE_WIDTH;
+    private final int TILE_HEIGHT;
+    private final ForkJoinPool pool;
+    // All indexed by influence type ID, then tile, row by row.
+    // Number of the influence's buildings covering each tile.
+    private final int[][] sources;
+    // Sum of the sources within the radius along each row.
+    private final int[][] rowSums;
+    // The influence on each tile, between 0 and 1.
+    private final float[][] influences;
+
+    /**
+     * Creates the influence maps of the currently placed buildings.
+     * @param buildingsTracker the tracker of the buildings to spread from.
+     * @param mapTileWidth width of the map in tiles.
+     * @param mapTileHeight height of the map in tiles.
+     * @param tileWidth width of a map tile.
+     * @param tileHeight height of a map tile.
+     * @param parallelism the number of threads to blur the maps with.
+     */
+    public InfluenceMaps(BuildingsTracker buildingsTracker, int mapTileWidth, int mapTileHeight,
+                         int tileWidth, int tileHeight, int parallelism) {
+        this.buildingsTracker = buildingsTracker;
+        this.mapTileWidth = mapTileWidth;
+        this.mapTileHeight = mapTileHeight;
+        this.TILE_WIDTH = tileWidth;
+        this.TILE_HEIGHT = tileHeight;
+        this.pool = new ForkJoinPool(parallelism);
+        int tileCount = mapTileWidth * mapTileHeight;
+        this.sources = new int[InfluenceType.COUNT][tileCount];
+        this.rowSums = new int[InfluenceType.COUNT][tileCount];
+        this.influences = new float[InfluenceType.COUNT][tileCount];
+        buildingsTracker.addListener(this);
+        buildingsReplaced();
+    }
+
+    /**
+     * Returns how strongly an influence is felt on a tile.
+     * @param influenceType the influence.
+     * @param tileX the tile x-coordinate.
+     * @param tileY the tile y-coordinate.
+     * @return the share of the tiles within reach covered by the influence's
+     * buildings, from 0 to 1, or 0 if the tile is off the map.
+     */
+    public float getInfluence(InfluenceType influenceType, int tileX, int tileY) {
+        if (tileX < 0 || tileY < 0 || tileX >= mapTileWidth || tileY >= mapTileHeight) {
+            return 0;
+        }
+        return influences[influenceType.getId()][(tileY * mapTileWidth) + tileX];
+    }
+
+    /**
+     * Returns how good a tile is for quiet study, i.e the study influence
+     * with the noise taken away.
+     * @param tileX the tile x-coordinate.
+     * @param tileY the tile y-coordinate.
+     * @return the quietness, from 0 to 1.
+     */
+    public float getQuietness(int tileX, int tileY) {
+        return Math.max(0, getInfluence(InfluenceType.STUDY, tileX, tileY)
+            - getInfluence(InfluenceType.NOISE, tileX, tileY));
+    }
+
+    public int getMapTileWidth() {
+        return mapTileWidth;
+    }
+
+    public int getMapTileHeight() {
+        return mapTileHeight;
+    }
+
+    @Override
+    public void buildingAdded(Building building) {
+        applyBuilding(building, 1);
+    }
+
+    @Override
+    public void buildingRemoved(Building building) {
+        applyBuilding(building, -1);
+    }
+
+    /**
+     * Blurs every map from scratch.
+     */
+    @Override
+    public void buildingsReplaced() {
+        for (int typeId = 0; typeId < InfluenceType.COUNT; typeId++) {
+            Arrays.fill(sources[typeId], 0);
+        }
+        for (Building building : buildingsTracker.getPlacedBuildingsToType().keySet()) {
+            for (InfluenceType influenceType : InfluenceType.values()) {
+                if (influenceType.getSourceType().getId() == building.getBuildingTypeId()) {
+                    addFootprint(influenceType, building, 1);
+                }
+            }
+        }
+        for (InfluenceType influenceType : InfluenceType.values()) {
+            blur(influenceType, 0, 0, mapTileWidth, mapTileHeight);
+        }
+    }
+
+    public void dispose() {
+        pool.shutdown();
+        try {
+            pool.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Adds a building to, or takes it away from, the influences it spreads,
+     * and blurs the tiles within reach of it again.
+     * @param weight 1 to add the building, -1 to take it away.
+     */
+    private void applyBuilding(Building building, int weight) {
+        for (InfluenceType influenceType : InfluenceType.values()) {
+            if (influenceType.getSourceType().getId() != building.getBuildingTypeId()) {
+                continue;
+            }
+            addFootprint(influenceType, building, weight);
+            int radius = influenceType.getRadius();
+            int minX = Math.max(building.getPositionX() / TILE_WIDTH, 0);
+            int minY = Math.max(building.getPositionY() / TILE_HEIGHT, 0);
+            int maxX = Math.min((building.getPositionX() + building.getWidth()) / TILE_WIDTH, mapTileWidth);
+            int maxY = Math.min((building.getPositionY() + building.getHeight()) / TILE_HEIGHT, mapTileHeight);
+            // Only the rows of the footprint have new row sums, but they are
+            // felt as far as the radius down the columns.
+            int rowStartX = Math.max(minX - radius, 0);
+            int rowEndX = Math.min(maxX + radius, mapTileWidth);
+            pool.invoke(new RowBandTask(influenceType, minY, maxY, rowStartX, rowEndX));
+            pool.invoke(new ColumnBandTask(influenceType, rowStartX, rowEndX,
+                Math.max(minY - radius, 0), Math.min(maxY + radius, mapTileHeight)));
+        }
+    }
+
+    /**
+     * Adds the tiles covered by a building to the sources of an influence.
+     */
+    private void addFootprint(InfluenceType influenceType, Building building, int weight) {
+        int[] typeSources = sources[influenceType.getId()];
+        int minX = Math.max(building.getPositionX() / TILE_WIDTH, 0);
+        int minY = Math.max(building.getPositionY() / TILE_HEIGHT, 0);
+        int maxX = Math.min((building.getPositionX() + building.getWidth()) / TILE_WIDTH, mapTileWidth);
+        int maxY = Math.min((building.getPositionY() + building.getHeight()) / TILE_HEIGHT, mapTileHeight);
+        for (int y = minY; y < maxY; y++) {
+            for (int x = minX; x < maxX; x++) {
+                typeSources[(y * mapTileWidth) + x] += weight;
+            }
+        }
+    }
+
+    /**
+     * Blurs a region of an influence's map, along the rows then down the
+     * columns.
+     */
+    private void blur(InfluenceType influenceType, int startX, int startY, int endX, int endY) {
+        pool.invoke(new RowBandTask(influenceType, startY, endY, startX, endX));
+        pool.invoke(new ColumnBandTask(influenceType, startX, endX, startY, endY));
+    }
+
+    /**
+     * Sums the sources within the radius of each tile along the rows from
+     * startY up to endY, between startX and endX, sliding the sum along
+     * each row rather than adding up the whole radius for every tile.
+     */
+    private void sumRows(InfluenceType influenceType, int startY, int endY, int startX, int endX) {
+        int[] typeSources = sources[influenceType.getId()];
+        int[] typeRowSums = rowSums[influenceType.getId()];
+        int radius = influenceType.getRadius();
+        for (int y = startY; y < endY; y++) {
+            int rowStart = y * mapTileWidth;
+            int sum = 0;
+            for (int x = Math.max(startX - radius, 0); x <= Math.min(startX + radius, mapTileWidth - 1); x++) {
+                sum += typeSources[rowStart + x];
+            }
+            for (int x = startX; x < endX; x++) {
+                typeRowSums[rowStart + x] = sum;
+                if (x - radius >= 0) {
+                    sum -= typeSources[rowStart + x - radius];
+                }
+                if (x + radius + 1 < mapTileWidth) {
+                    sum += typeSources[rowStart + x + radius + 1];
+                }
+            }
+        }
+    }
+
+    /**
+     * Sums the row sums within the radius of each tile down the columns
+     * from startX up to endX, between startY and endY, giving the influence.
+     * The columns are swept a row at a time with a running sum per column,
+     * so memory is read in order.
+     */
+    private void sumColumns(InfluenceType influenceType, int startX, int endX, int startY, int endY) {
+        int[] typeRowSums = rowSums[influenceType.getId()];
+        float[] typeInfluences = influences[influenceType.getId()];
+        int radius = influenceType.getRadius();
+        float scale = 1f / ((2 * radius + 1) * (2 * radius + 1));
+        int[] columnSums = new int[endX - startX];
+        for (int y = Math.max(startY - radius, 0); y <= Math.min(startY + radius, mapTileHeight - 1); y++) {
+            addRow(typeRowSums, columnSums, y, startX, 1);
+        }
+        for (int y = startY; y < endY; y++) {
+            int rowStart = y * mapTileWidth;
+            for (int x = startX; x < endX; x++) {
+                typeInfluences[rowStart + x] = columnSums[x - startX] * scale;
+            }
+            if (y - radius >= 0) {
+                addRow(typeRowSums, columnSums, y - radius, startX, -1);
+            }
+            if (y + radius + 1 < mapTileHeight) {
+                addRow(typeRowSums, columnSums, y + radius + 1, startX, 1);
+            }
+        }
+    }
+
+    private void addRow(int[] typeRowSums, int[] columnSums, int y, int startX, int weight) {
+        int rowStart = (y * mapTileWidth) + startX;
+        for (int i = 0; i < columnSums.length; i++) {
+            columnSums[i] += weight * typeRowSums[rowStart + i];
+        }
+    }
+
+    /**
+     * Sums a band of rows, splitting it until each task has few enough tiles.
+     */
+    private class RowBandTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final InfluenceType influenceType;
+        private final int startY;
+        private final int endY;
+        private final int startX;
+        private final int endX;
+
+        RowBandTask(InfluenceType influenceType, int startY, int endY, int startX, int endX) {
+            this.influenceType = influenceType;
+            this.startY = startY;
+            this.endY = endY;
+            this.startX = startX;
+            this.endX = endX;
+        }
+
+        @Override
+        protected void compute() {
+            if (endY - startY <= 1 || (endY - startY) * (endX - startX) <= TILES_PER_TASK) {
+                sumRows(influenceType, startY, endY, startX, endX);
+                return;
+            }
+            int middle = (startY + endY) >>> 1;
+            invokeAll(new RowBandTask(influenceType, startY, middle, startX, endX),
+                new RowBandTask(influenceType, middle, endY, startX, endX));
+        }
+    }
+
+    /**
+     * Sums a band of columns, splitting it until each task has few enough
+     * tiles.
+     */
+    private class ColumnBandTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final InfluenceType influenceType;
+        private final int startX;
+        private final int endX;
+        private final int startY;
+        private final int endY;
+
+        ColumnBandTask(InfluenceType influenceType, int startX, int endX, int startY, int endY) {
+            this.influenceType = influenceType;
+            this.startX = startX;
+            this.endX = endX;
+            this.startY = startY;
+            this.endY = endY;
+        }
+
+        @Override
+        protected void compute() {
+            if (endX - startX <= 1 || (endX - startX) * (endY - startY) <= TILES_PER_TASK) {
+                sumColumns(influenceType, startX, endX, startY, endY);
+                return;
+            }
+            int middle = (startX + endX) >>> 1;
+            invokeAll(new ColumnBandTask(influenceType, startX, middle, startY, endY),
+                new ColumnBandTask(influenceType, middle, endX, startY, endY));
+        }
+    }
+}
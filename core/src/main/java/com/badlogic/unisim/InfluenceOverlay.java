@@ -0,0 +1,73 @@
+package com.badlogic.unisim;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.math.Matrix4;
+
+/**
+ * This class is responsible for tinting the map with the influence maps, when
+ * switched on: noise in red and study in blue, stronger where the influence
+ * is felt more.
+ */
+public class InfluenceOverlay {
+    // Most opaque a tile is tinted, so the map can still be seen.
+    private static final float MAX_ALPHA = 0.5f;
+    private final InfluenceMaps influenceMaps;
+    private final ShapeRenderer shapeRenderer;
+    private final int TILE_WIDTH;
+    private final int TILE_HEIGHT;
+    private boolean isVisible;
+
+    public InfluenceOverlay(InfluenceMaps influenceMaps, int tileWidth, int tileHeight) {
+        this.influenceMaps = influenceMaps;
+        this.shapeRenderer = new ShapeRenderer();
+        this.TILE_WIDTH = tileWidth;
+        this.TILE_HEIGHT = tileHeight;
+    }
+
+    public boolean isVisible() {
+        return isVisible;
+    }
+
+    public void toggleVisible() {
+        isVisible = !isVisible;
+    }
+
+    /**
+     * Tints every tile where an influence is felt, if the overlay is
+     * switched on. Must not be called between SpriteBatch.begin and
+     * SpriteBatch.end.
+     * @param projection the projection matrix of the camera.
+     */
+    public void draw(Matrix4 projection) {
+        if (!isVisible) {
+            return;
+        }
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        shapeRenderer.setProjectionMatrix(projection);
+        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
+        for (int tileY = 0; tileY < influenceMaps.getMapTileHeight(); tileY++) {
+            for (int tileX = 0; tileX < influenceMaps.getMapTileWidth(); tileX++) {
+                float noise = influenceMaps.getInfluence(InfluenceType.NOISE, tileX, tileY);
+                float study = influenceMaps.getInfluence(InfluenceType.STUDY, tileX, tileY);
+                if (noise == 0 && study == 0) {
+                    continue;
+                }
+                // Mix the colours by how much of each influence is felt.
+                float total = noise + study;
+                shapeRenderer.setColor(noise / total, 0.2f, study / total,
+                    Math.min(1, total) * MAX_ALPHA);
+                shapeRenderer.rect(tileX * TILE_WIDTH, tileY * TILE_HEIGHT,
+                    TILE_WIDTH, TILE_HEIGHT);
+            }
+        }
+        shapeRenderer.end();
+        Gdx.gl.glDisable(GL20.GL_BLEND);
+    }
+
+    public void dispose() {
+        shapeRenderer.dispose();
+    }
+}
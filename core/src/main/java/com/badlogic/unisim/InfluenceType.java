@@ -0,0 +1,47 @@
+package com.badlogic.unisim;
+
+/**
+ * This enum is the registry of influence maps, i.e how strongly a building
+ * type is felt on the tiles around it. Each influence is spread from the
+ * buildings of one type, as far as its radius in tiles.
+ */
+public enum InfluenceType {
+    // Noise from students relaxing around recreation buildings.
+    NOISE(BuildingType.RECREATION, 5),
+    // A studious atmosphere around learn buildings.
+    STUDY(BuildingType.LEARN, 4);
+
+    // Number of influence types, i.e the size of arrays indexed by type ID.
+    public static final int COUNT = values().length;
+    private final BuildingType sourceType;
+    private final int radius;
+
+    InfluenceType(BuildingType sourceType, int radius) {
+        this.sourceType = sourceType;
+        this.radius = radius;
+    }
+
+    /**
+     * Returns the dense ID of the influence type.
+     * @return an ID between 0 and COUNT - 1.
+     */
+    public int getId() {
+        return ordinal();
+    }
+
+    /**
+     * Returns the type of building the influence is spread from.
+     * @return the building type.
+     */
+    public BuildingType getSourceType() {
+        return sourceType;
+    }
+
+    /**
+     * Returns how far the influence reaches from a building.
+     * @return the distance in tiles.
+     */
+    public int getRadius() {
+        return radius;
+    }
+}
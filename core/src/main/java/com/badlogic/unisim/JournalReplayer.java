@@ -0,0 +1,63 @@
+package com.badlogic.unisim;
+
+import java.util.List;
+
+/**
+ * This class is responsible for carrying out the commands of a journal again,
+ * each once the game time it was recorded at has been reached. Driving it
+ * from a timer running in real time replays a session as it was played,
+ * calling replayAll replays it as fast as possible.
+ */
+public class JournalReplayer {
+    private final List<BuildingCommand> commands;
+    private final BuildingCommandExecutor executor;
+    private int nextCommand;
+    private int commandsFailed;
+
+    public JournalReplayer(List<BuildingCommand> commands, BuildingCommandExecutor executor) {
+        this.commands = commands;
+        this.executor = executor;
+        this.nextCommand = 0;
+        this.commandsFailed = 0;
+    }
+
+    /**
+     * Carries out every command recorded up to a point in the game.
+     * @param gameTime the game time elapsed, in seconds.
+     * @return the number of commands carried out.
+     */
+    public int replayUntil(double gameTime) {
+        int replayed = 0;
+        while (nextCommand < commands.size()
+            && commands.get(nextCommand).getGameTime() <= gameTime) {
+            if (!executor.execute(commands.get(nextCommand))) {
+                commandsFailed++;
+            }
+            nextCommand++;
+            replayed++;
+        }
+        return replayed;
+    }
+
+    /**
+     * Carries out every remaining command, ignoring when they were recorded.
+     * @return the number of commands carried out.
+     */
+    public int replayAll() {
+        return replayUntil(Double.POSITIVE_INFINITY);
+    }
+
+    public boolean isFinished() {
+        return nextCommand == commands.size();
+    }
+
+    /**
+     * Returns the number of replayed commands that did not change the campus.
+     * Only commands that changed the campus are recorded, so any failure means
+     * the replay no longer matches the session it was recorded from.
+     * @return the number of commands that failed.
+     */
+    public int getCommandsFailed() {
+        return commandsFailed;
+    }
+}
@@ -0,0 +1,350 @@
+package com.badlogic.unisim;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class is responsible for searching for a high scoring arrangement of
+ * every building the campus can hold. Each restart starts from a random
+ * arrangement and improves it by simulated annealing, moving one building
+ * at a time. Restarts run in parallel on a fork-join pool in rounds, and
+ * between rounds each restart carries on from the best arrangement any of
+ * them has found if it beats its own. Sharing only between rounds keeps
+ * the result the same whatever the number of threads.
+ * Layouts are scored on the proximity and crowding parts of the campus
+ * satisfaction score, as the mix is the same for every complete layout.
+ */
+public class LayoutOptimizer {
+    // Number of rounds a restart's iterations are split into, with the best
+    // layout shared after each one.
+    private static final int SHARING_ROUNDS = 8;
+    // Attempts at finding a free spot for each building of a starting layout.
+    private static final int PLACEMENT_ATTEMPTS = 1000;
+    // Furthest a building is nudged by a small move, in tiles.
+    private static final int NUDGE_DISTANCE = 3;
+    // Chance of moving a building anywhere on the map instead of nudging it.
+    private static final double JUMP_CHANCE = 0.3;
+    // Temperatures at the start and end of a restart, in score points.
+    private static final double START_TEMPERATURE = 20;
+    private static final double END_TEMPERATURE = 0.05;
+    private final CollisionDetector collisionDetector;
+    private final int mapTileWidth;
+    private final int mapTileHeight;
+    // All indexed by building.
+    private final int[] typeIds;
+    private final int[] widths;
+    private final int[] heights;
+
+    /**
+     * Creates an optimizer for the given buildings.
+     * @param collisionDetector the rules for where buildings can be placed.
+     * @param mapTileWidth width of the map in tiles.
+     * @param mapTileHeight height of the map in tiles.
+     * @param typeIds the type ID of each building to place.
+     * @param widths the width of each building in tiles.
+     * @param heights the height of each building in tiles.
+     */
+    public LayoutOptimizer(CollisionDetector collisionDetector, int mapTileWidth,
+                           int mapTileHeight, int[] typeIds, int[] widths, int[] heights) {
+        this.collisionDetector = collisionDetector;
+        this.mapTileWidth = mapTileWidth;
+        this.mapTileHeight = mapTileHeight;
+        this.typeIds = typeIds.clone();
+        this.widths = widths.clone();
+        this.heights = heights.clone();
+    }
+
+    /**
+     * Creates an optimizer that places as many buildings of each type as the
+     * tracker allows on the map.
+     * @param buildingsTracker the tracker holding the limit of each type.
+     * @param collisionDetector the rules for where buildings can be placed.
+     * @param buildingTypeRegions the textures giving each type's size.
+     * @param tileWidth width of a map tile.
+     * @param tileHeight height of a map tile.
+     * @param mapTileWidth width of the map in tiles.
+     * @param mapTileHeight height of the map in tiles.
+     * @return the optimizer.
+     */
+    public static LayoutOptimizer forBuildingLimits(BuildingsTracker buildingsTracker,
+                                                    CollisionDetector collisionDetector,
+                                                    BuildingTypeRegions buildingTypeRegions,
+                                                    int tileWidth, int tileHeight,
+                                                    int mapTileWidth, int mapTileHeight) {
+        int buildingCount = 0;
+        for (int typeId = 0; typeId < BuildingType.COUNT; typeId++) {
+            if (buildingTypeRegions.hasRegions(typeId)) {
+                buildingCount += buildingsTracker.getBuildingTypeLimit(typeId);
+            }
+        }
+        int[] typeIds = new int[buildingCount];
+        int[] widths = new int[buildingCount];
+        int[] heights = new int[buildingCount];
+        int building = 0;
+        for (int typeId = 0; typeId < BuildingType.COUNT; typeId++) {
+            if (!buildingTypeRegions.hasRegions(typeId)) {
+                continue;
+            }
+            for (int i = 0; i < buildingsTracker.getBuildingTypeLimit(typeId); i++) {
+                typeIds[building] = typeId;
+                widths[building] = buildingTypeRegions.getDefaultRegion(typeId).getRegionWidth() / tileWidth;
+                heights[building] = buildingTypeRegions.getDefaultRegion(typeId).getRegionHeight() / tileHeight;
+                building++;
+            }
+        }
+        return new LayoutOptimizer(collisionDetector, mapTileWidth, mapTileHeight,
+            typeIds, widths, heights);
+    }
+
+    /**
+     * Searches for the best layout, blocking until every restart is done.
+     * @param restarts the number of independent searches.
+     * @param iterations the number of moves tried by each restart.
+     * @param seed the seed of the first restart, so runs are repeatable.
+     * @param parallelism the number of threads to run restarts on.
+     * @return the best layout found, or null if the buildings never fit.
+     */
+    public CampusLayout optimize(int restarts, int iterations, long seed, int parallelism) {
+        Restart[] restartStates = new Restart[restarts];
+        for (int i = 0; i < restarts; i++) {
+            restartStates[i] = new Restart(new SplittableRandom(seed + i));
+        }
+        int roundLength = Math.max(1, iterations / SHARING_ROUNDS);
+        CampusLayout sharedBest = null;
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            int fromIteration = 0;
+            do {
+                int toIteration = Math.min(iterations, fromIteration + roundLength);
+                pool.invoke(new RestartsTask(restartStates, 0, restarts, fromIteration,
+                    toIteration, iterations));
+                sharedBest = share(restartStates, sharedBest);
+                fromIteration = toIteration;
+            } while (fromIteration < iterations);
+        } finally {
+            pool.shutdown();
+        }
+        return sharedBest;
+    }
+
+    /**
+     * Scores a whole layout, counting each pair of buildings once.
+     * @param tilesX the bottom left tile x-coordinate of each building.
+     * @param tilesY the bottom left tile y-coordinate of each building.
+     * @return the layout score.
+     */
+    public double scoreLayout(int[] tilesX, int[] tilesY) {
+        double score = 0;
+        for (int building = 0; building < typeIds.length; building++) {
+            for (int other = building + 1; other < typeIds.length; other++) {
+                score += scorePair(building, tilesX[building], tilesY[building], other,
+                    tilesX, tilesY);
+            }
+        }
+        return score;
+    }
+
+    /**
+     * Runs one round of a restart, improving its layout by simulated
+     * annealing. The first round starts from a random layout.
+     */
+    private void anneal(Restart restart, int fromIteration, int toIteration, int iterations) {
+        int buildingCount = typeIds.length;
+        SplittableRandom random = restart.random;
+        int[] tilesX = restart.tilesX;
+        int[] tilesY = restart.tilesY;
+        if (fromIteration == 0) {
+            if (!placeRandomly(tilesX, tilesY, random)) {
+                return;
+            }
+            restart.score = scoreLayout(tilesX, tilesY);
+            restart.best = new CampusLayout(restart.score, typeIds, tilesX, tilesY);
+        } else if (restart.best == null) {
+            // The buildings never fit.
+            return;
+        }
+        double score = restart.score;
+        CampusLayout best = restart.best;
+        double cooling = Math.log(END_TEMPERATURE / START_TEMPERATURE);
+        for (int iteration = fromIteration; iteration < toIteration; iteration++) {
+            double temperature = START_TEMPERATURE * Math.exp(cooling * iteration / iterations);
+            int building = random.nextInt(buildingCount);
+            int newTileX;
+            int newTileY;
+            if (random.nextDouble() < JUMP_CHANCE) {
+                newTileX = random.nextInt(Math.max(1, mapTileWidth - widths[building] + 1));
+                newTileY = random.nextInt(Math.max(1, mapTileHeight - heights[building] + 1));
+            } else {
+                newTileX = tilesX[building] + random.nextInt(-NUDGE_DISTANCE, NUDGE_DISTANCE + 1);
+                newTileY = tilesY[building] + random.nextInt(-NUDGE_DISTANCE, NUDGE_DISTANCE + 1);
+            }
+            if (!canPlace(building, newTileX, newTileY, tilesX, tilesY)) {
+                continue;
+            }
+            // Only the pairs of the moved building change.
+            double change = 0;
+            for (int other = 0; other < buildingCount; other++) {
+                if (other != building) {
+                    change += scorePair(building, newTileX, newTileY, other, tilesX, tilesY)
+                        - scorePair(building, tilesX[building], tilesY[building], other,
+                        tilesX, tilesY);
+                }
+            }
+            if (change >= 0 || random.nextDouble() < Math.exp(change / temperature)) {
+                tilesX[building] = newTileX;
+                tilesY[building] = newTileY;
+                score += change;
+                if (score > best.getScore()) {
+                    best = new CampusLayout(score, typeIds, tilesX, tilesY);
+                }
+            }
+        }
+        restart.score = score;
+        restart.best = best;
+    }
+
+    /**
+     * Finds the best layout of every restart so far, then has each restart
+     * carry on from it if it beats the restart's current layout. Restarts
+     * are checked in order, so ties always go to the same restart.
+     * @return the best layout so far, or null if the buildings never fit.
+     */
+    private static CampusLayout share(Restart[] restartStates, CampusLayout sharedBest) {
+        for (Restart restart : restartStates) {
+            if (restart.best != null
+                && (sharedBest == null || restart.best.getScore() > sharedBest.getScore())) {
+                sharedBest = restart.best;
+            }
+        }
+        for (Restart restart : restartStates) {
+            if (restart.best != null && sharedBest.getScore() > restart.score) {
+                for (int building = 0; building < restart.tilesX.length; building++) {
+                    restart.tilesX[building] = sharedBest.getTileX(building);
+                    restart.tilesY[building] = sharedBest.getTileY(building);
+                }
+                restart.score = sharedBest.getScore();
+            }
+        }
+        return sharedBest;
+    }
+
+    /**
+     * Puts each building on a random free spot.
+     * @return true if every building fit, false otherwise.
+     */
+    private boolean placeRandomly(int[] tilesX, int[] tilesY, SplittableRandom random) {
+        for (int building = 0; building < typeIds.length; building++) {
+            boolean isPlaced = false;
+            for (int attempt = 0; attempt < PLACEMENT_ATTEMPTS && !isPlaced; attempt++) {
+                int tileX = random.nextInt(Math.max(1, mapTileWidth - widths[building] + 1));
+                int tileY = random.nextInt(Math.max(1, mapTileHeight - heights[building] + 1));
+                if (canPlace(building, tileX, tileY, tilesX, tilesY, building)) {
+                    tilesX[building] = tileX;
+                    tilesY[building] = tileY;
+                    isPlaced = true;
+                }
+            }
+            if (!isPlaced) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean canPlace(int building, int tileX, int tileY, int[] tilesX, int[] tilesY) {
+        return canPlace(building, tileX, tileY, tilesX, tilesY, typeIds.length);
+    }
+
+    /**
+     * Checks a building could be moved to a spot, with the same rules as
+     * placing a building in the game.
+     * @param placedCount the number of buildings already in the layout.
+     */
+    private boolean canPlace(int building, int tileX, int tileY, int[] tilesX, int[] tilesY,
+                             int placedCount) {
+        if (!collisionDetector.isTileAreaBuildable(tileX, tileY, widths[building],
+            heights[building])) {
+            return false;
+        }
+        for (int other = 0; other < placedCount; other++) {
+            if (other != building && CollisionDetector.areBuildingsOverlapping(tileX, tileY,
+                widths[building], heights[building], tilesX[other], tilesY[other],
+                widths[other], heights[other])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Scores a building at a spot against another building of the layout.
+     */
+    private double scorePair(int building, int tileX, int tileY, int other, int[] tilesX,
+                             int[] tilesY) {
+        // Positions are already in tiles, so a tile is 1 by 1.
+        double distance = CampusSatisfaction.getGapInTiles(tileX, tileY, widths[building],
+            heights[building], tilesX[other], tilesY[other], widths[other], heights[other],
+            1, 1);
+        return CampusSatisfaction.scoreProximity(typeIds[building], typeIds[other], distance)
+            - CampusSatisfaction.scoreCrowding(distance);
+    }
+
+    /**
+     * The layout a restart has got to and the best it has found, kept
+     * between rounds.
+     */
+    private class Restart {
+        private final SplittableRandom random;
+        private final int[] tilesX;
+        private final int[] tilesY;
+        private double score;
+        // Null until the restart has placed every building.
+        private CampusLayout best;
+
+        Restart(SplittableRandom random) {
+            this.random = random;
+            this.tilesX = new int[typeIds.length];
+            this.tilesY = new int[typeIds.length];
+        }
+    }
+
+    /**
+     * Runs one round of a range of restarts, splitting it until each task
+     * runs one.
+     */
+    private class RestartsTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final Restart[] restartStates;
+        private final int start;
+        private final int end;
+        private final int fromIteration;
+        private final int toIteration;
+        private final int iterations;
+
+        RestartsTask(Restart[] restartStates, int start, int end, int fromIteration,
+                     int toIteration, int iterations) {
+            this.restartStates = restartStates;
+            this.start = start;
+            this.end = end;
+            this.fromIteration = fromIteration;
+            this.toIteration = toIteration;
+            this.iterations = iterations;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= 1) {
+                if (start < end) {
+                    anneal(restartStates[start], fromIteration, toIteration, iterations);
+                }
+                return;
+            }
+            int middle = (start + end) >>> 1;
+            invokeAll(new RestartsTask(restartStates, start, middle, fromIteration,
+                    toIteration, iterations),
+                new RestartsTask(restartStates, middle, end, fromIteration, toIteration,
+                    iterations));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.badlogic.unisim;
+
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.utils.ScreenUtils;
+import com.badlogic.gdx.utils.viewport.FitViewport;
+
+/**
+ * This screen is shown between the main menu and the game screen while the
+ * game screen's assets finish loading, and shows how far along loading is.
+ */
+public class LoadingScreen implements Screen {
+    // Time spent loading per frame, so the progress bar keeps updating.
+    private static final int LOAD_TIME_PER_FRAME_MS = 12;
+    private static final float BAR_WIDTH = 960;
+    private static final float BAR_HEIGHT = 40;
+    private final UniSimGame game;
+    private final GameScreenAssets gameScreenAssets;
+    private final OrthographicCamera camera;
+    private final FitViewport viewport;
+    private final ShapeRenderer shapeRenderer;
+    private final HudLabel progressLabel;
+
+    public LoadingScreen(UniSimGame game, GameScreenAssets gameScreenAssets) {
+        this.game = game;
+        this.gameScreenAssets = gameScreenAssets;
+        this.camera = new OrthographicCamera();
+        this.viewport = new FitViewport(1920, 1056, camera);
+        this.shapeRenderer = new ShapeRenderer();
+        this.progressLabel = new HudLabel(game.font, 480, 620);
+    }
+
+    @Override
+    public void show() {
+        game.font.getData().setScale(3.0f);
+    }
+
+    @Override
+    public void render(float delta) {
+        // Switch to the game screen as soon as everything has loaded.
+        if (gameScreenAssets.update(LOAD_TIME_PER_FRAME_MS)) {
+            game.setScreen(new GameScreen(game, gameScreenAssets));
+            this.dispose();
+            return;
+        }
+        float progress = gameScreenAssets.getProgress();
+        ScreenUtils.clear(Color.BLACK);
+        viewport.apply();
+        camera.update();
+        // Draw the outline and the filled part of the progress bar.
+        float barX = (1920 - BAR_WIDTH) / 2;
+        float barY = 480;
+        shapeRenderer.setProjectionMatrix(camera.combined);
+        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
+        shapeRenderer.setColor(Color.WHITE);
+        shapeRenderer.rect(barX, barY, BAR_WIDTH * progress, BAR_HEIGHT);
+        shapeRenderer.end();
+        shapeRenderer.begin(ShapeRenderer.ShapeType.Line);
+        shapeRenderer.rect(barX, barY, BAR_WIDTH, BAR_HEIGHT);
+        shapeRenderer.end();
+        // Only rebuild the text when the percentage changes.
+        int percentage = (int) (progress * 100);
+        if (progressLabel.updateValue(percentage)) {
+            progressLabel.editText().append("Loading campus... ").append(percentage).append('%');
+        }
+        game.batch.setProjectionMatrix(camera.combined);
+        game.batch.begin();
+        progressLabel.draw(game.batch);
+        game.batch.end();
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        viewport.update(width, height, true);
+    }
+
+    @Override
+    public void pause() {}
+
+    @Override
+    public void resume() {}
+
+    @Override
+    public void hide() {}
+
+    @Override
+    public void dispose() {
+        shapeRenderer.dispose();
+    }
+}
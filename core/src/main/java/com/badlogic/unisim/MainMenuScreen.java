@@ -11,8 +11,11 @@ import com.badlogic.gdx.utils.ScreenUtils;
  * This class represents the Main Menu of the game.
  */
 public class MainMenuScreen implements Screen {
+    // Time spent loading the game screen's assets per frame while the menu shows.
+    private static final int PRELOAD_TIME_PER_FRAME_MS = 4;
     // Reference the main game class to communicate with main game manager.
     private final UniSimGame game;
+    private final GameScreenAssets gameScreenAssets;
     OrthographicCamera camera;
     Texture menuScreen;
 
@@ -24,11 +27,14 @@ public class MainMenuScreen implements Screen {
 
         // Rescales the original menu screen to screen size
         menuScreen = new Texture("StartScreen.jpg");
+        gameScreenAssets = new GameScreenAssets(game.assetManager, GameScreen.PREVIEW_MODE);
     }
 
     @Override
     public void show() {
         // Prepare your screen here
+        // Start loading the game screen while the player is on the menu.
+        gameScreenAssets.queue();
     }
 
     @Override
@@ -43,9 +49,12 @@ public class MainMenuScreen implements Screen {
         game.batch.draw(menuScreen, 0, 0, 800, 480);
         game.batch.end();
 
+        gameScreenAssets.update(PRELOAD_TIME_PER_FRAME_MS);
+
         if (Gdx.input.justTouched()) {
-            // Switch to GameScreen when user clicks screen.
-            game.setScreen(new GameScreen(game));
+            // Switch to GameScreen when user clicks screen, going through the
+            // loading screen in case its assets have not finished loading.
+            game.setScreen(new LoadingScreen(game, gameScreenAssets));
             this.dispose();
         }
     }
@@ -0,0 +1,49 @@
+package com.badlogic.unisim;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Moves the placed building whose bottom left corner is on one tile, so that
+ * it is on another tile.
+ */
+public class MoveBuildingCommand extends BuildingCommand {
+    static final byte CODE = 2;
+    // Tile x and y the building is moved from, then to.
+    static final int FIELD_BYTES = 2 + 2 + 2 + 2;
+    private final int fromTileX;
+    private final int fromTileY;
+    private final int toTileX;
+    private final int toTileY;
+
+    public MoveBuildingCommand(double gameTime, int fromTileX, int fromTileY,
+                               int toTileX, int toTileY) {
+        super(gameTime);
+        this.fromTileX = fromTileX;
+        this.fromTileY = fromTileY;
+        this.toTileX = toTileX;
+        this.toTileY = toTileY;
+    }
+
+    @Override
+    public boolean execute(BuildingCommandExecutor executor) {
+        return executor.move(fromTileX, fromTileY, toTileX, toTileY);
+    }
+
+    @Override
+    byte getCode() {
+        return CODE;
+    }
+
+    @Override
+    void writeFields(ByteBuffer buffer) {
+        buffer.putShort((short) fromTileX);
+        buffer.putShort((short) fromTileY);
+        buffer.putShort((short) toTileX);
+        buffer.putShort((short) toTileY);
+    }
+
+    static MoveBuildingCommand readFields(double gameTime, ByteBuffer buffer) {
+        return new MoveBuildingCommand(gameTime, buffer.getShort(), buffer.getShort(),
+            buffer.getShort(), buffer.getShort());
+    }
+}
@@ -1,6 +1,6 @@
 package com.badlogic.unisim;
 
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
 
@@ -12,25 +12,31 @@ public class NewBuildingClickListener extends ClickListener {
     private final BuildingUIManager buildingUIManager;
     private final BuildingPlacer buildingPlacer;
     private final BuildingsTracker buildingsTracker;
-    private final Texture buildingTexture;
-    private final Texture buildableBuildingTexture;
-    private final Texture nonBuildableBuildingTexture;
+    private final TextureRegion buildingRegion;
+    private final TextureRegion buildableBuildingRegion;
+    private final TextureRegion nonBuildableBuildingRegion;
+    private final FootprintMask footprintMask;
     private final String buildingType;
+    private final int menuIndex;
 
     public NewBuildingClickListener(BuildingPlacer buildingPlacer,
                                     BuildingsTracker buildingsTracker,
-                                    Texture buildingTexture,
-                                    Texture buildableBuildingTexture,
-                                    Texture nonBuildableBuildingTexture,
+                                    TextureRegion buildingRegion,
+                                    TextureRegion buildableBuildingRegion,
+                                    TextureRegion nonBuildableBuildingRegion,
+                                    FootprintMask footprintMask,
                                     BuildingUIManager buildingUIManager,
-                                    String buildingType) {
+                                    String buildingType,
+                                    int menuIndex) {
         this.buildingPlacer = buildingPlacer;
         this.buildingsTracker = buildingsTracker;
-        this.buildingTexture = buildingTexture;
-        this.buildableBuildingTexture = buildableBuildingTexture;
-        this.nonBuildableBuildingTexture = nonBuildableBuildingTexture;
+        this.buildingRegion = buildingRegion;
+        this.buildableBuildingRegion = buildableBuildingRegion;
+        this.nonBuildableBuildingRegion = nonBuildableBuildingRegion;
+        this.footprintMask = footprintMask;
         this.buildingUIManager = buildingUIManager;
         this.buildingType = buildingType;
+        this.menuIndex = menuIndex;
     }
 
     @Override
@@ -40,10 +46,10 @@ public class NewBuildingClickListener extends ClickListener {
             return;
         }
         // Otherwise allow building selection.
-        buildingPlacer.selectNewBuilding(buildingTexture, buildableBuildingTexture,
-                                      nonBuildableBuildingTexture,
-                                      buildingType);
-        buildingPlacer.enableBuildingActors();
+        buildingPlacer.selectNewBuilding(buildingRegion, buildableBuildingRegion,
+                                      nonBuildableBuildingRegion,
+                                      buildingType, footprintMask, menuIndex);
+        buildingPlacer.enableBuildingPicking();
         buildingUIManager.hideBuildingMenu();
     }
 }
@@ -0,0 +1,46 @@
+package com.badlogic.unisim;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Places a new building from the building menu with its bottom left corner
+ * on a tile.
+ */
+public class PlaceBuildingCommand extends BuildingCommand {
+    static final byte CODE = 1;
+    // Menu index, tile x and tile y.
+    static final int FIELD_BYTES = 2 + 2 + 2;
+    // Index of the building in the building menu, see BuildingAssetsManager.
+    private final int menuIndex;
+    private final int tileX;
+    private final int tileY;
+
+    public PlaceBuildingCommand(double gameTime, int menuIndex, int tileX, int tileY) {
+        super(gameTime);
+        this.menuIndex = menuIndex;
+        this.tileX = tileX;
+        this.tileY = tileY;
+    }
+
+    @Override
+    public boolean execute(BuildingCommandExecutor executor) {
+        return executor.place(menuIndex, tileX, tileY);
+    }
+
+    @Override
+    byte getCode() {
+        return CODE;
+    }
+
+    @Override
+    void writeFields(ByteBuffer buffer) {
+        buffer.putShort((short) menuIndex);
+        buffer.putShort((short) tileX);
+        buffer.putShort((short) tileY);
+    }
+
+    static PlaceBuildingCommand readFields(double gameTime, ByteBuffer buffer) {
+        return new PlaceBuildingCommand(gameTime, buffer.getShort(), buffer.getShort(),
+            buffer.getShort());
+    }
+}
@@ -0,0 +1,162 @@
+package com.badlogic.unisim;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Rectangle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class is responsible for drawing the placed buildings from a static
+ * vertex buffer. Placed buildings only change when one is placed, moved or
+ * deleted, so their sprites are uploaded once into a SpriteCache and the
+ * cache is only rebuilt when the BuildingsTracker's contents change. The map
+ * is split into square chunks, each with its own cache of the buildings
+ * whose bottom left corner is in it, so only the chunks the camera can see
+ * are drawn.
+ */
+public class PlacedBuildingsCache {
+    // Width and height of a chunk, measured in map tiles.
+    private static final int CHUNK_SIZE_IN_TILES = 16;
+    private final BuildingsTracker buildingsTracker;
+    private final int chunkWidth;
+    private final int chunkHeight;
+    private final int columns;
+    private final int rows;
+    // Cache ID of each chunk, row by row, or -1 if it has no buildings.
+    private final int[] chunkCacheIds;
+    // Buildings of each chunk, reused between rebuilds.
+    private final List<List<Building>> chunkBuildings;
+    private SpriteCache spriteCache;
+    private int capacity;
+    private int cachedModificationCount;
+    // Widest and tallest placed building, as far as a building can reach
+    // out of its chunk.
+    private int maxBuildingWidth;
+    private int maxBuildingHeight;
+
+    /**
+     * Creates an empty cache, built from the tracker's buildings when first
+     * drawn.
+     * @param buildingsTracker the tracker of the buildings to draw.
+     * @param mapTileWidth width of the map in tiles.
+     * @param mapTileHeight height of the map in tiles.
+     * @param tileWidth width of a map tile.
+     * @param tileHeight height of a map tile.
+     */
+    public PlacedBuildingsCache(BuildingsTracker buildingsTracker, int mapTileWidth,
+                                int mapTileHeight, int tileWidth, int tileHeight) {
+        this.buildingsTracker = buildingsTracker;
+        this.chunkWidth = tileWidth * CHUNK_SIZE_IN_TILES;
+        this.chunkHeight = tileHeight * CHUNK_SIZE_IN_TILES;
+        this.columns = Math.max(1, (mapTileWidth + CHUNK_SIZE_IN_TILES - 1) / CHUNK_SIZE_IN_TILES);
+        this.rows = Math.max(1, (mapTileHeight + CHUNK_SIZE_IN_TILES - 1) / CHUNK_SIZE_IN_TILES);
+        this.chunkCacheIds = new int[columns * rows];
+        Arrays.fill(chunkCacheIds, -1);
+        this.chunkBuildings = new ArrayList<>(columns * rows);
+        for (int chunk = 0; chunk < columns * rows; chunk++) {
+            chunkBuildings.add(new ArrayList<>());
+        }
+        this.capacity = 256;
+        this.spriteCache = new SpriteCache(capacity, false);
+        // Ensure the cache is built before it is first drawn.
+        this.cachedModificationCount = buildingsTracker.getModificationCount() - 1;
+    }
+
+    /**
+     * Draws the placed buildings inside a region of the map, rebuilding the
+     * cache first if buildings have been placed, moved or deleted since the
+     * last frame. Must not be called between SpriteBatch.begin and
+     * SpriteBatch.end.
+     * @param projection the projection matrix of the camera.
+     * @param visibleArea the region of the map the camera can see.
+     */
+    public void draw(Matrix4 projection, Rectangle visibleArea) {
+        if (cachedModificationCount != buildingsTracker.getModificationCount()) {
+            rebuild();
+        }
+        // A building can be seen from a chunk left of or below the region
+        // if it is big enough to reach into it.
+        int minColumn = toColumn(visibleArea.x - maxBuildingWidth);
+        int maxColumn = toColumn(visibleArea.x + visibleArea.width);
+        int minRow = toRow(visibleArea.y - maxBuildingHeight);
+        int maxRow = toRow(visibleArea.y + visibleArea.height);
+        // Unlike SpriteBatch, SpriteCache leaves blending to the caller and
+        // building textures are transparent around their edges.
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        spriteCache.setProjectionMatrix(projection);
+        spriteCache.begin();
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                int cacheId = chunkCacheIds[(row * columns) + column];
+                if (cacheId >= 0) {
+                    spriteCache.draw(cacheId);
+                }
+            }
+        }
+        spriteCache.end();
+        Gdx.gl.glDisable(GL20.GL_BLEND);
+    }
+
+    /**
+     * Uploads the sprites of all the placed buildings into the cache, a
+     * chunk at a time.
+     */
+    private void rebuild() {
+        cachedModificationCount = buildingsTracker.getModificationCount();
+        int buildingCount = buildingsTracker.getPlacedBuildingsToType().size();
+        if (buildingCount > capacity) {
+            // The cache cannot grow, so replace it with a larger one.
+            while (capacity < buildingCount) {
+                capacity *= 2;
+            }
+            spriteCache.dispose();
+            spriteCache = new SpriteCache(capacity, false);
+        }
+        spriteCache.clear();
+        Arrays.fill(chunkCacheIds, -1);
+        maxBuildingWidth = 0;
+        maxBuildingHeight = 0;
+        for (Building building : buildingsTracker.getPlacedBuildingsToType().keySet()) {
+            int chunk = (toRow(building.getPositionY()) * columns) + toColumn(building.getPositionX());
+            chunkBuildings.get(chunk).add(building);
+            maxBuildingWidth = Math.max(maxBuildingWidth, building.getWidth());
+            maxBuildingHeight = Math.max(maxBuildingHeight, building.getHeight());
+        }
+        for (int chunk = 0; chunk < chunkBuildings.size(); chunk++) {
+            List<Building> buildings = chunkBuildings.get(chunk);
+            if (buildings.isEmpty()) {
+                continue;
+            }
+            spriteCache.beginCache();
+            for (int i = 0; i < buildings.size(); i++) {
+                spriteCache.add(buildings.get(i).getBuildingSprite());
+            }
+            chunkCacheIds[chunk] = spriteCache.endCache();
+            buildings.clear();
+        }
+    }
+
+    /**
+     * Converts a map x-coordinate to a chunk column, clamped to the map.
+     */
+    private int toColumn(float x) {
+        return Math.min(Math.max((int) Math.floor(x / chunkWidth), 0), columns - 1);
+    }
+
+    /**
+     * Converts a map y-coordinate to a chunk row, clamped to the map.
+     */
+    private int toRow(float y) {
+        return Math.min(Math.max((int) Math.floor(y / chunkHeight), 0), rows - 1);
+    }
+
+    public void dispose() {
+        spriteCache.dispose();
+    }
+}
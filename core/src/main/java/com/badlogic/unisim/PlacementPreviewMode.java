@@ -0,0 +1,13 @@
+package com.badlogic.unisim;
+
+/**
+ * This enum defines how a selected building shows whether it can be placed at
+ * its current location on the map.
+ */
+public enum PlacementPreviewMode {
+    // Tints the building's default texture, so only that texture is loaded.
+    TINT,
+    // Swaps to the hand-made buildable and non-buildable textures, for art
+    // that needs its own variants.
+    TEXTURES
+}
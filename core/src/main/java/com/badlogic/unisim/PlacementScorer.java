@@ -0,0 +1,22 @@
+package com.badlogic.unisim;
+
+/**
+ * This interface is implemented by the ways of ranking the spots a building
+ * could be placed in. Spots are scored on a background thread, so a scorer
+ * must only read data it copied when it was created, never the live
+ * buildings.
+ */
+public interface PlacementScorer {
+    /**
+     * Scores placing a building with its bottom left corner on a tile. Only
+     * called for spots where the building can be placed.
+     * @param buildingTypeId the ID of the building's type, see BuildingType.
+     * @param tileX the tile x-coordinate of the spot.
+     * @param tileY the tile y-coordinate of the spot.
+     * @param buildingWidth the width of the building in tiles.
+     * @param buildingHeight the height of the building in tiles.
+     * @return the score of the spot, higher is better.
+     */
+    double score(int buildingTypeId, int tileX, int tileY, int buildingWidth,
+                 int buildingHeight);
+}
@@ -0,0 +1,236 @@
+package com.badlogic.unisim;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * This class is responsible for suggesting the best spots for the selected
+ * building. Whenever the selection or the placed buildings change, every
+ * tile the building could be placed on is checked with the same rules as
+ * the CollisionDetector and ranked by a PlacementScorer, on a background
+ * thread. A scan that is no longer needed is cancelled, and the results are
+ * published all at once so the render thread never waits for them.
+ */
+public class PlacementSuggester {
+    // Number of spots suggested.
+    static final int SUGGESTION_COUNT = 5;
+    private final BuildingsTracker buildingsTracker;
+    private final BuildingPlacer buildingPlacer;
+    private final CollisionDetector collisionDetector;
+    private final Supplier<PlacementScorer> scorerFactory;
+    private final int mapTileWidth;
+    private final int mapTileHeight;
+    private final ExecutorService scanExecutor;
+    private final AtomicReference<PlacementSuggestions> published;
+    private Future<?> pendingScan;
+    private volatile int latestVersion;
+    // What the latest scan was for.
+    private int scannedTypeId;
+    private int scannedWidth;
+    private int scannedHeight;
+    private FootprintMask scannedFootprintMask;
+    private int scannedModificationCount;
+
+    /**
+     * Creates a suggester with nothing selected yet.
+     * @param buildingsTracker the tracker of the placed buildings.
+     * @param buildingPlacer the placer holding the selected building.
+     * @param scorerFactory creates a scorer at the start of each scan, on the
+     *                      render thread, to rank the spots with.
+     * @param mapTileWidth width of the map in tiles.
+     * @param mapTileHeight height of the map in tiles.
+     */
+    public PlacementSuggester(BuildingsTracker buildingsTracker, BuildingPlacer buildingPlacer,
+                              Supplier<PlacementScorer> scorerFactory, int mapTileWidth,
+                              int mapTileHeight) {
+        this.buildingsTracker = buildingsTracker;
+        this.buildingPlacer = buildingPlacer;
+        this.collisionDetector = buildingPlacer.getCollisionDetector();
+        this.scorerFactory = scorerFactory;
+        this.mapTileWidth = mapTileWidth;
+        this.mapTileHeight = mapTileHeight;
+        this.scannedTypeId = -1;
+        this.published = new AtomicReference<>(PlacementSuggestions.none(0));
+        this.scanExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "placement-suggestions");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts a new scan if the selected building or the placed buildings
+     * have changed since the last one, cancelling the last one if it is
+     * still running. Suggestions are cleared once nothing is selected.
+     */
+    public void update() {
+        int typeId = buildingPlacer.getSelectedBuildingTypeId();
+        int buildingWidth = buildingPlacer.getSelectedWidthInTiles();
+        int buildingHeight = buildingPlacer.getSelectedHeightInTiles();
+        FootprintMask footprintMask = buildingPlacer.getSelectedFootprintMask();
+        int modificationCount = buildingsTracker.getModificationCount();
+        if (typeId == scannedTypeId && buildingWidth == scannedWidth
+            && buildingHeight == scannedHeight && footprintMask == scannedFootprintMask
+            && (typeId < 0 || modificationCount == scannedModificationCount)) {
+            return;
+        }
+        scannedTypeId = typeId;
+        scannedWidth = buildingWidth;
+        scannedHeight = buildingHeight;
+        scannedFootprintMask = footprintMask;
+        scannedModificationCount = modificationCount;
+        if (pendingScan != null) {
+            pendingScan.cancel(true);
+        }
+        int version = ++latestVersion;
+        if (typeId < 0) {
+            publish(PlacementSuggestions.none(version));
+            return;
+        }
+        // Copy what the scan needs now, as the buildings may change while it runs.
+        TileBitset occupiedTiles = buildingsTracker.getBuildingPicker().copyOccupiedTiles();
+        PlacementScorer scorer = scorerFactory.get();
+        pendingScan = scanExecutor.submit(() -> scan(version, typeId, buildingWidth,
+            buildingHeight, footprintMask, occupiedTiles, scorer));
+    }
+
+    /**
+     * Returns the latest suggestions, which may be for an earlier selection
+     * until the scan of the current one has finished.
+     * @return the suggested spots, best first.
+     */
+    public PlacementSuggestions getSuggestions() {
+        return published.get();
+    }
+
+    public void dispose() {
+        scanExecutor.shutdownNow();
+        try {
+            scanExecutor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Checks every tile as the bottom left corner of the building, keeping
+     * the best scoring spots. Gives up as soon as a newer scan is started.
+     */
+    private void scan(int version, int typeId, int buildingWidth, int buildingHeight,
+                      FootprintMask footprintMask, TileBitset occupiedTiles,
+                      PlacementScorer scorer) {
+        int[] tilesX = new int[SUGGESTION_COUNT];
+        int[] tilesY = new int[SUGGESTION_COUNT];
+        double[] scores = new double[SUGGESTION_COUNT];
+        int count = 0;
+        for (int tileY = 0; tileY + buildingHeight <= mapTileHeight; tileY++) {
+            // Check for cancellation once per row.
+            if (version != latestVersion || Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            for (int tileX = 0; tileX + buildingWidth <= mapTileWidth; tileX++) {
+                if (!collisionDetector.isBuildingBuildable(tileX, tileY, footprintMask,
+                    occupiedTiles)) {
+                    continue;
+                }
+                double score = scorer.score(typeId, tileX, tileY, buildingWidth, buildingHeight);
+                if (count == SUGGESTION_COUNT && score <= scores[count - 1]) {
+                    continue;
+                }
+                // Insert the spot in order, dropping the worst if full.
+                int index = Math.min(count, SUGGESTION_COUNT - 1);
+                while (index > 0 && scores[index - 1] < score) {
+                    tilesX[index] = tilesX[index - 1];
+                    tilesY[index] = tilesY[index - 1];
+                    scores[index] = scores[index - 1];
+                    index--;
+                }
+                tilesX[index] = tileX;
+                tilesY[index] = tileY;
+                scores[index] = score;
+                count = Math.min(count + 1, SUGGESTION_COUNT);
+            }
+        }
+        publish(new PlacementSuggestions(version, buildingWidth, buildingHeight, count,
+            tilesX, tilesY, scores));
+    }
+
+    /**
+     * Publishes suggestions, unless newer ones have already been published.
+     */
+    private void publish(PlacementSuggestions suggestions) {
+        published.getAndUpdate(current ->
+            current.version < suggestions.version ? suggestions : current);
+    }
+
+    /**
+     * The best spots found by one scan, which never change once published.
+     */
+    public static class PlacementSuggestions {
+        private final int version;
+        private final int buildingWidth;
+        private final int buildingHeight;
+        private final int count;
+        private final int[] tilesX;
+        private final int[] tilesY;
+        private final double[] scores;
+
+        PlacementSuggestions(int version, int buildingWidth, int buildingHeight, int count,
+                             int[] tilesX, int[] tilesY, double[] scores) {
+            this.version = version;
+            this.buildingWidth = buildingWidth;
+            this.buildingHeight = buildingHeight;
+            this.count = count;
+            this.tilesX = tilesX;
+            this.tilesY = tilesY;
+            this.scores = scores;
+        }
+
+        static PlacementSuggestions none(int version) {
+            return new PlacementSuggestions(version, 0, 0, 0, new int[0], new int[0],
+                new double[0]);
+        }
+
+        /**
+         * Returns the number of spots found.
+         * @return up to SUGGESTION_COUNT spots.
+         */
+        public int getCount() {
+            return count;
+        }
+
+        public int getBuildingWidth() {
+            return buildingWidth;
+        }
+
+        public int getBuildingHeight() {
+            return buildingHeight;
+        }
+
+        /**
+         * Returns the bottom left tile of a spot.
+         * @param rank the index of the spot, 0 being the best.
+         * @return the tile x-coordinate.
+         */
+        public int getTileX(int rank) {
+            return tilesX[rank];
+        }
+
+        /**
+         * Returns the bottom left tile of a spot.
+         * @param rank the index of the spot, 0 being the best.
+         * @return the tile y-coordinate.
+         */
+        public int getTileY(int rank) {
+            return tilesY[rank];
+        }
+
+        public double getScore(int rank) {
+            return scores[rank];
+        }
+    }
+}
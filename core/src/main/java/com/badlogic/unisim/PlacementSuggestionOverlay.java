@@ -0,0 +1,56 @@
+package com.badlogic.unisim;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.math.Matrix4;
+
+/**
+ * This class is responsible for marking the suggested spots for the selected
+ * building on the map, the best spot most brightly.
+ */
+public class PlacementSuggestionOverlay {
+    private final PlacementSuggester placementSuggester;
+    private final ShapeRenderer shapeRenderer;
+    private final int TILE_WIDTH;
+    private final int TILE_HEIGHT;
+
+    public PlacementSuggestionOverlay(PlacementSuggester placementSuggester, int tileWidth,
+                                      int tileHeight) {
+        this.placementSuggester = placementSuggester;
+        this.shapeRenderer = new ShapeRenderer();
+        this.TILE_WIDTH = tileWidth;
+        this.TILE_HEIGHT = tileHeight;
+    }
+
+    /**
+     * Draws an outline around each suggested spot. Must not be called
+     * between SpriteBatch.begin and SpriteBatch.end.
+     * @param projection the projection matrix of the camera.
+     */
+    public void draw(Matrix4 projection) {
+        PlacementSuggester.PlacementSuggestions suggestions = placementSuggester.getSuggestions();
+        if (suggestions.getCount() == 0) {
+            return;
+        }
+        float width = suggestions.getBuildingWidth() * TILE_WIDTH;
+        float height = suggestions.getBuildingHeight() * TILE_HEIGHT;
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        shapeRenderer.setProjectionMatrix(projection);
+        shapeRenderer.begin(ShapeRenderer.ShapeType.Line);
+        // Draw the worst spot first, so the best is on top where they overlap.
+        for (int rank = suggestions.getCount() - 1; rank >= 0; rank--) {
+            float alpha = 1f - (0.6f * rank / PlacementSuggester.SUGGESTION_COUNT);
+            shapeRenderer.setColor(0.3f, 0.9f, 1f, alpha);
+            shapeRenderer.rect(suggestions.getTileX(rank) * TILE_WIDTH,
+                suggestions.getTileY(rank) * TILE_HEIGHT, width, height);
+        }
+        shapeRenderer.end();
+        Gdx.gl.glDisable(GL20.GL_BLEND);
+    }
+
+    public void dispose() {
+        shapeRenderer.dispose();
+    }
+}
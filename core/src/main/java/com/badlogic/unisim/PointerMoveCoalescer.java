@@ -0,0 +1,76 @@
+package com.badlogic.unisim;
+
+/**
+ * This class is responsible for merging the mouse movements received between
+ * two frames into one, so that the selected building is only snapped to the
+ * grid once per rendered frame, using the latest mouse position.
+ */
+public class PointerMoveCoalescer {
+    private final BuildingPlacer buildingPlacer;
+    private int pendingScreenX;
+    private int pendingScreenY;
+    private boolean hasPendingMove;
+    private long eventsReceived;
+    private long eventsEvaluated;
+
+    public PointerMoveCoalescer(BuildingPlacer buildingPlacer) {
+        this.buildingPlacer = buildingPlacer;
+        this.hasPendingMove = false;
+    }
+
+    /**
+     * Stores the latest mouse position, replacing any position that has not
+     * been processed yet.
+     * @param screenX screen x-coordinate of the mouse.
+     * @param screenY screen y-coordinate of the mouse.
+     */
+    public void queueMove(int screenX, int screenY) {
+        pendingScreenX = screenX;
+        pendingScreenY = screenY;
+        hasPendingMove = true;
+        eventsReceived++;
+    }
+
+    /**
+     * Snaps the selected building to the latest mouse position, if the mouse
+     * has moved since the last frame. Called once per rendered frame.
+     */
+    public void flush() {
+        if (!hasPendingMove) {
+            return;
+        }
+        hasPendingMove = false;
+        // The building may have been placed or deselected since the move.
+        if (!buildingPlacer.isNewBuildingSelected && !buildingPlacer.isPlacedBuildingSelected) {
+            return;
+        }
+        if (buildingPlacer.snapBuildingToGrid(pendingScreenX, pendingScreenY)) {
+            eventsEvaluated++;
+        }
+    }
+
+    /**
+     * Drops the mouse position that has not been processed yet, e.g when a
+     * click has already been handled at a newer position.
+     */
+    public void discardPendingMove() {
+        hasPendingMove = false;
+    }
+
+    /**
+     * Returns the number of mouse movements received.
+     * @return the number of mouse movements received.
+     */
+    public long getEventsReceived() {
+        return eventsReceived;
+    }
+
+    /**
+     * Returns the number of mouse movements that led to a collision check,
+     * i.e that moved the selected building onto a different tile.
+     * @return the number of mouse movements evaluated.
+     */
+    public long getEventsEvaluated() {
+        return eventsEvaluated;
+    }
+}
@@ -0,0 +1,56 @@
+package com.badlogic.unisim;
+
+/**
+ * This class is responsible for scoring spots by how much placing a building
+ * there would add to the campus satisfaction, i.e the proximity points it
+ * would gain minus the crowding penalty it would cause. The placed
+ * buildings are copied when the scorer is created.
+ */
+public class SatisfactionPlacementScorer implements PlacementScorer {
+    private final int TILE_WIDTH;
+    private final int TILE_HEIGHT;
+    // Each placed building's type and bounds in map coordinates.
+    private final int[] typeIds;
+    private final int[] positionsX;
+    private final int[] positionsY;
+    private final int[] widths;
+    private final int[] heights;
+
+    public SatisfactionPlacementScorer(BuildingsTracker buildingsTracker, int tileWidth,
+                                       int tileHeight) {
+        this.TILE_WIDTH = tileWidth;
+        this.TILE_HEIGHT = tileHeight;
+        int buildingCount = buildingsTracker.getPlacedBuildingsToType().size();
+        this.typeIds = new int[buildingCount];
+        this.positionsX = new int[buildingCount];
+        this.positionsY = new int[buildingCount];
+        this.widths = new int[buildingCount];
+        this.heights = new int[buildingCount];
+        int index = 0;
+        for (Building building : buildingsTracker.getPlacedBuildingsToType().keySet()) {
+            typeIds[index] = building.getBuildingTypeId();
+            positionsX[index] = building.getPositionX();
+            positionsY[index] = building.getPositionY();
+            widths[index] = building.getWidth();
+            heights[index] = building.getHeight();
+            index++;
+        }
+    }
+
+    @Override
+    public double score(int buildingTypeId, int tileX, int tileY, int buildingWidth,
+                        int buildingHeight) {
+        int x = tileX * TILE_WIDTH;
+        int y = tileY * TILE_HEIGHT;
+        int width = buildingWidth * TILE_WIDTH;
+        int height = buildingHeight * TILE_HEIGHT;
+        double score = 0;
+        for (int i = 0; i < typeIds.length; i++) {
+            double distance = CampusSatisfaction.getGapInTiles(x, y, width, height,
+                positionsX[i], positionsY[i], widths[i], heights[i], TILE_WIDTH, TILE_HEIGHT);
+            score += CampusSatisfaction.scoreProximity(buildingTypeId, typeIds[i], distance)
+                - CampusSatisfaction.scoreCrowding(distance);
+        }
+        return score;
+    }
+}
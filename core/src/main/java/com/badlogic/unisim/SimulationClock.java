@@ -0,0 +1,71 @@
+package com.badlogic.unisim;
+
+/**
+ * This class is responsible for splitting the time between rendered frames
+ * into simulation ticks of a fixed length. Frame time is added to an
+ * accumulator and whole ticks are taken out of it, so the game advances by
+ * the same steps whatever the frame rate. The time left over is used to
+ * interpolate what is drawn between the last two ticks.
+ */
+public class SimulationClock {
+    // Longest frame that is caught up on, so that a stall, e.g while the
+    // window is dragged, doesn't cause a burst of ticks.
+    private static final double MAX_FRAME_SECONDS = 0.25;
+    private final double tickSeconds;
+    private double accumulatedTime;
+    private double timeScale;
+
+    public SimulationClock(int ticksPerSecond) {
+        if (ticksPerSecond <= 0) {
+            throw new IllegalArgumentException("The tick rate must be positive.");
+        }
+        this.tickSeconds = 1.0 / ticksPerSecond;
+        this.accumulatedTime = 0;
+        this.timeScale = 1;
+    }
+
+    /**
+     * Adds the time since the last frame to the clock.
+     * @param deltaTime the time since the last render in seconds.
+     * @return the number of ticks to simulate this frame.
+     */
+    public int advance(float deltaTime) {
+        accumulatedTime += Math.min(deltaTime, MAX_FRAME_SECONDS) * timeScale;
+        int ticks = (int) (accumulatedTime / tickSeconds);
+        accumulatedTime -= ticks * tickSeconds;
+        return ticks;
+    }
+
+    /**
+     * Returns how far the current frame is between the last tick and the
+     * next one, to interpolate the simulation's state when drawing it.
+     * @return a value between 0 (at the last tick) and 1 (at the next tick).
+     */
+    public float getAlpha() {
+        return (float) (accumulatedTime / tickSeconds);
+    }
+
+    /**
+     * Returns the game time simulated by each tick.
+     * @return the length of a tick in seconds.
+     */
+    public double getTickSeconds() {
+        return tickSeconds;
+    }
+
+    /**
+     * Sets how many seconds of game time pass per real second, e.g 0 stops
+     * the clock and 2 runs the game twice as fast.
+     * @param timeScale the multiplier applied to the time between frames.
+     */
+    public void setTimeScale(double timeScale) {
+        if (timeScale < 0) {
+            throw new IllegalArgumentException("The time scale must not be negative.");
+        }
+        this.timeScale = timeScale;
+    }
+
+    public double getTimeScale() {
+        return timeScale;
+    }
+}
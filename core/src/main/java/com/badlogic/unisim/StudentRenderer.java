@@ -0,0 +1,48 @@
+package com.badlogic.unisim;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.math.Matrix4;
+
+/**
+ * This class is responsible for drawing the students walking around the
+ * campus as small squares. Students inside a building are not drawn.
+ */
+public class StudentRenderer {
+    private static final float STUDENT_SIZE = 4;
+    private static final Color STUDENT_COLOUR = new Color(1f, 0.85f, 0.3f, 1f);
+    private final StudentSimulation studentSimulation;
+    private final ShapeRenderer shapeRenderer;
+
+    public StudentRenderer(StudentSimulation studentSimulation) {
+        this.studentSimulation = studentSimulation;
+        this.shapeRenderer = new ShapeRenderer();
+    }
+
+    /**
+     * Draws every student that is outside, between their positions of the
+     * last two ticks so they move smoothly at any frame rate. Must not be
+     * called between SpriteBatch.begin and SpriteBatch.end.
+     * @param projection the projection matrix of the camera.
+     * @param alpha how far between the last two ticks, from 0 to 1.
+     */
+    public void draw(Matrix4 projection, float alpha) {
+        float offset = STUDENT_SIZE / 2;
+        shapeRenderer.setProjectionMatrix(projection);
+        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
+        shapeRenderer.setColor(STUDENT_COLOUR);
+        for (int i = 0; i < studentSimulation.getStudentCount(); i++) {
+            if (studentSimulation.isUsingBuilding(i)) {
+                continue;
+            }
+            shapeRenderer.rect(studentSimulation.getPositionX(i, alpha) - offset,
+                studentSimulation.getPositionY(i, alpha) - offset,
+                STUDENT_SIZE, STUDENT_SIZE);
+        }
+        shapeRenderer.end();
+    }
+
+    public void dispose() {
+        shapeRenderer.dispose();
+    }
+}
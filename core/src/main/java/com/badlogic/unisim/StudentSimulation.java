@@ -0,0 +1,423 @@
+package com.badlogic.unisim;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class is responsible for simulating the students living on campus.
+ * Each student has a need for every building type (eat, learn, sleep and
+ * recreation) that slowly runs down, and walks to the nearest placed
+ * building of a type to meet it once it gets low, following the building's
+ * flow field around the other buildings. The nearest building is looked up
+ * in the walking distance fields, rather than by comparing every building.
+ * Students are stored as columns of primitives indexed by student, rather
+ * than as one object each, so an update streams through memory and can be
+ * split between the cores of a fork-join pool by index range.
+ */
+public class StudentSimulation {
+    // What a student is currently doing.
+    static final byte IDLE = 0;
+    static final byte WALKING = 1;
+    static final byte USING = 2;
+    // Needs go from 1 (fully met) down to 0, a student looks for a building
+    // once one of them drops below this.
+    private static final float NEED_THRESHOLD = 0.4f;
+    // How much of each need is lost per second of game time, indexed by
+    // building type ID.
+    private static final float[] NEED_DECAY_RATES = new float[BuildingType.COUNT];
+    // How much of a need is met per second spent in a building.
+    private static final float NEED_REFILL_RATE = 0.25f;
+    // Walking speed in map pixels per second, about 3 tiles.
+    private static final float WALKING_SPEED = 96;
+    // Number of fork-join tasks per thread, so threads that finish early
+    // can steal work from the others.
+    private static final int TASKS_PER_THREAD = 4;
+    // Fewest students updated by a fork-join task, enough to outweigh the
+    // task overhead.
+    private static final int MIN_STUDENTS_PER_TASK = 128;
+    private final int studentCount;
+    private final float mapWidth;
+    private final float mapHeight;
+    private final BuildingsTracker buildingsTracker;
+    private final FlowFieldCache flowFieldCache;
+    private final WalkingDistanceFields walkingDistanceFields;
+    private final int TILE_WIDTH;
+    private final int TILE_HEIGHT;
+    private final ForkJoinPool pool;
+    // Number of students updated by each fork-join task, worked out from the
+    // number of students and threads so every thread gets work.
+    private final int studentsPerTask;
+    // Student columns, each indexed by student.
+    private final float[] positionsX;
+    private final float[] positionsY;
+    private final float[] previousPositionsX;
+    private final float[] previousPositionsY;
+    private final float[] targetsX;
+    private final float[] targetsY;
+    private final byte[] states;
+    private final byte[] targetTypeIds;
+    private final int[] targetBuildingIds;
+    // The building targets a walking student's target was chosen from.
+    private final int[] targetVersions;
+    // One column per building type, indexed by type ID and then student.
+    private final float[][] needs;
+    // Centres of the placed buildings, indexed by type ID and then building.
+    // Replaced rather than changed, so the tasks always read a whole set.
+    private float[][] buildingCentresX;
+    private float[][] buildingCentresY;
+    private int[][] buildingIds;
+    // Index of each placed building in its type's centres, or -1, indexed
+    // by building ID.
+    private int[] buildingIndexesById;
+    // The flow fields used during the current tick.
+    private FlowFieldCache.FlowFieldSet flowFields;
+    private int buildingTargetsVersion;
+    private int cachedModificationCount;
+
+    static {
+        NEED_DECAY_RATES[BuildingType.EAT.getId()] = 1 / 20f;
+        NEED_DECAY_RATES[BuildingType.LEARN.getId()] = 1 / 30f;
+        NEED_DECAY_RATES[BuildingType.SLEEP.getId()] = 1 / 40f;
+        NEED_DECAY_RATES[BuildingType.RECREATION.getId()] = 1 / 60f;
+    }
+
+    /**
+     * Creates students spread at random over the map.
+     * @param buildingsTracker the tracker of the buildings students can use.
+     * @param flowFieldCache the flow fields students follow to buildings.
+     * @param walkingDistanceFields the fields students find the nearest
+     *                              building of each type with.
+     * @param studentCount the number of students.
+     * @param mapWidth the width of the map in pixels.
+     * @param mapHeight the height of the map in pixels.
+     * @param seed the seed of the students' starting positions and needs.
+     * @param parallelism the number of threads to update the students with.
+     */
+    public StudentSimulation(BuildingsTracker buildingsTracker, FlowFieldCache flowFieldCache,
+                             WalkingDistanceFields walkingDistanceFields, int studentCount,
+                             float mapWidth, float mapHeight, long seed, int parallelism) {
+        this.buildingsTracker = buildingsTracker;
+        this.flowFieldCache = flowFieldCache;
+        this.walkingDistanceFields = walkingDistanceFields;
+        this.TILE_WIDTH = flowFieldCache.getTileWidth();
+        this.TILE_HEIGHT = flowFieldCache.getTileHeight();
+        this.studentCount = studentCount;
+        this.mapWidth = mapWidth;
+        this.mapHeight = mapHeight;
+        this.pool = new ForkJoinPool(parallelism);
+        this.studentsPerTask = Math.max(MIN_STUDENTS_PER_TASK,
+            studentCount / (parallelism * TASKS_PER_THREAD));
+        this.positionsX = new float[studentCount];
+        this.positionsY = new float[studentCount];
+        this.previousPositionsX = new float[studentCount];
+        this.previousPositionsY = new float[studentCount];
+        this.targetsX = new float[studentCount];
+        this.targetsY = new float[studentCount];
+        this.states = new byte[studentCount];
+        this.targetTypeIds = new byte[studentCount];
+        this.targetBuildingIds = new int[studentCount];
+        this.targetVersions = new int[studentCount];
+        this.needs = new float[BuildingType.COUNT][studentCount];
+        this.buildingCentresX = new float[BuildingType.COUNT][0];
+        this.buildingCentresY = new float[BuildingType.COUNT][0];
+        this.buildingIds = new int[BuildingType.COUNT][0];
+        this.buildingIndexesById = new int[0];
+        // Ensure the building targets are found before the first update.
+        this.cachedModificationCount = buildingsTracker.getModificationCount() - 1;
+        Random random = new Random(seed);
+        for (int i = 0; i < studentCount; i++) {
+            positionsX[i] = random.nextFloat() * mapWidth;
+            positionsY[i] = random.nextFloat() * mapHeight;
+            previousPositionsX[i] = positionsX[i];
+            previousPositionsY[i] = positionsY[i];
+            // Stagger the needs so students don't all set off at once.
+            for (int typeId = 0; typeId < BuildingType.COUNT; typeId++) {
+                needs[typeId][i] = 0.5f + random.nextFloat() * 0.5f;
+            }
+        }
+    }
+
+    /**
+     * Advances every student by one tick, split between the pool's threads.
+     * @param tickSeconds the game time simulated by the tick in seconds.
+     */
+    public void update(double tickSeconds) {
+        if (cachedModificationCount != buildingsTracker.getModificationCount()) {
+            findBuildingTargets();
+        }
+        flowFields = flowFieldCache.getFlowFields();
+        pool.invoke(new UpdateTask(0, studentCount, (float) tickSeconds));
+    }
+
+    public int getStudentCount() {
+        return studentCount;
+    }
+
+    /**
+     * Returns the x-coordinate of a student between its last two positions.
+     * @param student the index of the student.
+     * @param alpha how far between the last two ticks, from 0 to 1.
+     * @return the map x-coordinate of the student.
+     */
+    public float getPositionX(int student, float alpha) {
+        return previousPositionsX[student]
+            + (positionsX[student] - previousPositionsX[student]) * alpha;
+    }
+
+    /**
+     * Returns the y-coordinate of a student between its last two positions.
+     * @param student the index of the student.
+     * @param alpha how far between the last two ticks, from 0 to 1.
+     * @return the map y-coordinate of the student.
+     */
+    public float getPositionY(int student, float alpha) {
+        return previousPositionsY[student]
+            + (positionsY[student] - previousPositionsY[student]) * alpha;
+    }
+
+    /**
+     * Checks whether a student is inside a building, and so not visible.
+     * @param student the index of the student.
+     * @return true if the student is using a building, false otherwise.
+     */
+    public boolean isUsingBuilding(int student) {
+        return states[student] == USING;
+    }
+
+    /**
+     * Returns how well a need of a student is met.
+     * @param student the index of the student.
+     * @param buildingTypeId the ID of the building type that meets the need.
+     * @return a value from 0 (not at all) to 1 (fully).
+     */
+    public float getNeed(int student, int buildingTypeId) {
+        return needs[buildingTypeId][student];
+    }
+
+    public void dispose() {
+        pool.shutdown();
+        try {
+            pool.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Collects the centres of the placed buildings of each type, for
+     * students to walk to.
+     */
+    private void findBuildingTargets() {
+        cachedModificationCount = buildingsTracker.getModificationCount();
+        float[][] centresX = new float[BuildingType.COUNT][];
+        float[][] centresY = new float[BuildingType.COUNT][];
+        int[][] ids = new int[BuildingType.COUNT][];
+        int[] counts = new int[BuildingType.COUNT];
+        int maxId = 0;
+        for (int typeId = 0; typeId < BuildingType.COUNT; typeId++) {
+            centresX[typeId] = new float[buildingsTracker.getBuildingCount(typeId)];
+            centresY[typeId] = new float[centresX[typeId].length];
+            ids[typeId] = new int[centresX[typeId].length];
+        }
+        for (Building building : buildingsTracker.getPlacedBuildingsToType().keySet()) {
+            int typeId = building.getBuildingTypeId();
+            // A building being moved is counted but not on the map, so there
+            // can be fewer placed buildings than the type's count.
+            int index = counts[typeId]++;
+            centresX[typeId][index] = building.getPositionX() + building.getWidth() / 2f;
+            centresY[typeId][index] = building.getPositionY() + building.getHeight() / 2f;
+            ids[typeId][index] = building.getBuildingId();
+            maxId = Math.max(maxId, building.getBuildingId());
+        }
+        int[] indexesById = new int[maxId + 1];
+        Arrays.fill(indexesById, -1);
+        for (int typeId = 0; typeId < BuildingType.COUNT; typeId++) {
+            if (counts[typeId] != centresX[typeId].length) {
+                centresX[typeId] = Arrays.copyOf(centresX[typeId], counts[typeId]);
+                centresY[typeId] = Arrays.copyOf(centresY[typeId], counts[typeId]);
+                ids[typeId] = Arrays.copyOf(ids[typeId], counts[typeId]);
+            }
+            for (int index = 0; index < counts[typeId]; index++) {
+                indexesById[ids[typeId][index]] = index;
+            }
+        }
+        buildingCentresX = centresX;
+        buildingCentresY = centresY;
+        buildingIds = ids;
+        buildingIndexesById = indexesById;
+        // Students walking to a building that may have moved choose again.
+        buildingTargetsVersion++;
+    }
+
+    /**
+     * Updates the students from start up to end, changing only their own
+     * entries in the columns.
+     */
+    private void updateStudents(int start, int end, float tickSeconds) {
+        float[][] centresX = buildingCentresX;
+        float[][] centresY = buildingCentresY;
+        int[][] ids = buildingIds;
+        int[] indexesById = buildingIndexesById;
+        FlowFieldCache.FlowFieldSet fields = flowFields;
+        float step = WALKING_SPEED * tickSeconds;
+        // Run down every need first, a column at a time.
+        for (int typeId = 0; typeId < BuildingType.COUNT; typeId++) {
+            float[] typeNeeds = needs[typeId];
+            float decay = NEED_DECAY_RATES[typeId] * tickSeconds;
+            for (int i = start; i < end; i++) {
+                typeNeeds[i] = Math.max(0, typeNeeds[i] - decay);
+            }
+        }
+        System.arraycopy(positionsX, start, previousPositionsX, start, end - start);
+        System.arraycopy(positionsY, start, previousPositionsY, start, end - start);
+        for (int i = start; i < end; i++) {
+            switch (states[i]) {
+                case IDLE:
+                    chooseTarget(i, centresX, centresY, ids, indexesById, fields);
+                    break;
+                case WALKING:
+                    if (targetVersions[i] != buildingTargetsVersion) {
+                        states[i] = IDLE;
+                        chooseTarget(i, centresX, centresY, ids, indexesById, fields);
+                    } else {
+                        walk(i, step, fields);
+                    }
+                    break;
+                default:
+                    float[] typeNeeds = needs[targetTypeIds[i]];
+                    typeNeeds[i] += NEED_REFILL_RATE * tickSeconds;
+                    if (typeNeeds[i] >= 1) {
+                        typeNeeds[i] = 1;
+                        states[i] = IDLE;
+                    }
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Sends an idle student to the nearest building of its most pressing
+     * need, if it has one. It stays idle if no building can meet the need.
+     * The nearest building is taken from the walking distance fields. If the
+     * student is somewhere the fields don't reach, buildings are compared by
+     * the walking distance of their flow field where it has been computed,
+     * and by straight line distance otherwise.
+     */
+    private void chooseTarget(int student, float[][] centresX, float[][] centresY,
+                              int[][] ids, int[] indexesById,
+                              FlowFieldCache.FlowFieldSet fields) {
+        int neediestTypeId = -1;
+        float lowestNeed = NEED_THRESHOLD;
+        for (int typeId = 0; typeId < BuildingType.COUNT; typeId++) {
+            if (needs[typeId][student] < lowestNeed && centresX[typeId].length > 0) {
+                lowestNeed = needs[typeId][student];
+                neediestTypeId = typeId;
+            }
+        }
+        if (neediestTypeId < 0) {
+            return;
+        }
+        float[] typeCentresX = centresX[neediestTypeId];
+        float[] typeCentresY = centresY[neediestTypeId];
+        int[] typeIds = ids[neediestTypeId];
+        float x = positionsX[student];
+        float y = positionsY[student];
+        int tileX = (int) (x / TILE_WIDTH);
+        int tileY = (int) (y / TILE_HEIGHT);
+        int nearestId = walkingDistanceFields.getNearestBuildingId(neediestTypeId, tileX, tileY);
+        int nearest = nearestId < indexesById.length ? indexesById[nearestId] : -1;
+        if (nearest < 0) {
+            nearest = 0;
+            float nearestDistance = Float.MAX_VALUE;
+            for (int building = 0; building < typeCentresX.length; building++) {
+                FlowField flowField = fields.getFlowField(typeIds[building]);
+                int steps = flowField != null ? flowField.getDistance(tileX, tileY) : FlowField.UNREACHABLE;
+                float distance;
+                if (steps != FlowField.UNREACHABLE) {
+                    distance = steps * TILE_WIDTH;
+                } else {
+                    float dx = typeCentresX[building] - x;
+                    float dy = typeCentresY[building] - y;
+                    distance = (float) Math.sqrt(dx * dx + dy * dy);
+                }
+                if (distance < nearestDistance) {
+                    nearestDistance = distance;
+                    nearest = building;
+                }
+            }
+        }
+        targetsX[student] = typeCentresX[nearest];
+        targetsY[student] = typeCentresY[nearest];
+        targetTypeIds[student] = (byte) neediestTypeId;
+        targetBuildingIds[student] = typeIds[nearest];
+        targetVersions[student] = buildingTargetsVersion;
+        states[student] = WALKING;
+    }
+
+    /**
+     * Moves a walking student towards the next tile of its target's flow
+     * field, or straight at the target once it is next to the building or
+     * if the flow field has no way there. The student goes into the
+     * building once it arrives.
+     */
+    private void walk(int student, float step, FlowFieldCache.FlowFieldSet fields) {
+        float x = positionsX[student];
+        float y = positionsY[student];
+        float goalX = targetsX[student];
+        float goalY = targetsY[student];
+        FlowField flowField = fields.getFlowField(targetBuildingIds[student]);
+        if (flowField != null) {
+            int tileX = (int) (x / TILE_WIDTH);
+            int tileY = (int) (y / TILE_HEIGHT);
+            byte direction = flowField.getDirection(tileX, tileY);
+            if (flowField.getDistance(tileX, tileY) > 1 && direction != FlowField.NO_DIRECTION) {
+                // Head for the centre of the next tile along the field.
+                goalX = (tileX + FlowField.getDirectionX(direction) + 0.5f) * TILE_WIDTH;
+                goalY = (tileY + FlowField.getDirectionY(direction) + 0.5f) * TILE_HEIGHT;
+            }
+        }
+        float dx = goalX - x;
+        float dy = goalY - y;
+        float distance = (float) Math.sqrt(dx * dx + dy * dy);
+        if (distance <= step && goalX == targetsX[student] && goalY == targetsY[student]) {
+            positionsX[student] = targetsX[student];
+            positionsY[student] = targetsY[student];
+            states[student] = USING;
+            return;
+        }
+        float scale = Math.min(1, step / distance);
+        positionsX[student] = Math.min(mapWidth, Math.max(0, x + dx * scale));
+        positionsY[student] = Math.min(mapHeight, Math.max(0, y + dy * scale));
+    }
+
+    /**
+     * Updates a range of students, splitting it in half until each part is
+     * small enough to update on one thread.
+     */
+    private class UpdateTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int start;
+        private final int end;
+        private final float tickSeconds;
+
+        UpdateTask(int start, int end, float tickSeconds) {
+            this.start = start;
+            this.end = end;
+            this.tickSeconds = tickSeconds;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= studentsPerTask) {
+                updateStudents(start, end, tickSeconds);
+                return;
+            }
+            int middle = (start + end) >>> 1;
+            invokeAll(new UpdateTask(start, middle, tickSeconds),
+                new UpdateTask(middle, end, tickSeconds));
+        }
+    }
+}
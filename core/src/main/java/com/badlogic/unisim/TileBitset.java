@@ -0,0 +1,212 @@
+package com.badlogic.unisim;
+
+import java.util.Arrays;
+
+/**
+ * This class is responsible for storing one bit per tile of the map, e.g
+ * whether each tile is buildable or covered by a building. Each row is
+ * stored as a run of longs, so a row of a FootprintMask can be checked
+ * against it with one or two AND operations instead of a loop over its
+ * tiles. Tiles outside the map count as unset.
+ */
+public class TileBitset {
+    private static final int WORD_SHIFT = 6;
+    private static final int WORD_BITS = 1 << WORD_SHIFT;
+    private final int width;
+    private final int height;
+    private final int wordsPerRow;
+    // Row by row, bit x % 64 of word x / 64 of a row holds tile x.
+    private final long[] words;
+
+    public TileBitset(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.wordsPerRow = (width + WORD_BITS - 1) >>> WORD_SHIFT;
+        this.words = new long[wordsPerRow * height];
+    }
+
+    /**
+     * Copies the bits of another bitset, e.g to check placements against on
+     * another thread while the original keeps changing.
+     * @param other the bitset to copy.
+     */
+    public TileBitset(TileBitset other) {
+        this.width = other.width;
+        this.height = other.height;
+        this.wordsPerRow = other.wordsPerRow;
+        this.words = other.words.clone();
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public boolean get(int tileX, int tileY) {
+        if (tileX < 0 || tileY < 0 || tileX >= width || tileY >= height) {
+            return false;
+        }
+        return (words[getWordIndex(tileX, tileY)] & (1L << tileX)) != 0;
+    }
+
+    /**
+     * Sets or clears a tile, tiles outside the map are ignored.
+     * @param tileX the tile x-coordinate.
+     * @param tileY the tile y-coordinate.
+     * @param isSet true to set the tile, false to clear it.
+     */
+    public void set(int tileX, int tileY, boolean isSet) {
+        if (tileX < 0 || tileY < 0 || tileX >= width || tileY >= height) {
+            return;
+        }
+        if (isSet) {
+            words[getWordIndex(tileX, tileY)] |= 1L << tileX;
+        } else {
+            words[getWordIndex(tileX, tileY)] &= ~(1L << tileX);
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(words, 0);
+    }
+
+    /**
+     * Sets every tile covered by a mask, tiles outside the map are ignored.
+     * @param mask the footprint to set.
+     * @param tileX the tile under the bottom left corner of the mask.
+     * @param tileY the tile under the bottom left corner of the mask.
+     */
+    public void setMask(FootprintMask mask, int tileX, int tileY) {
+        for (int y = 0; y < mask.getHeightInTiles(); y++) {
+            for (int x = 0; x < mask.getWidthInTiles(); x++) {
+                if (mask.isCovered(x, y)) {
+                    set(tileX + x, tileY + y, true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks if every tile covered by a mask is set.
+     * @param mask the footprint to check.
+     * @param tileX the tile under the bottom left corner of the mask.
+     * @param tileY the tile under the bottom left corner of the mask.
+     * @return true if all the covered tiles are set and the whole of the
+     * mask is on the map, false otherwise.
+     */
+    public boolean containsMask(FootprintMask mask, int tileX, int tileY) {
+        if (tileX < 0 || tileY < 0 || tileX + mask.getWidthInTiles() > width
+            || tileY + mask.getHeightInTiles() > height) {
+            return false;
+        }
+        for (int y = 0; y < mask.getHeightInTiles(); y++) {
+            if (!containsRow(mask.getRow(y), tileX, tileY + y)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if any tile covered by a mask is set.
+     * @param mask the footprint to check.
+     * @param tileX the tile under the bottom left corner of the mask.
+     * @param tileY the tile under the bottom left corner of the mask.
+     * @return true if at least one covered tile is set, false otherwise.
+     */
+    public boolean intersectsMask(FootprintMask mask, int tileX, int tileY) {
+        for (int y = Math.max(0, -tileY); y < mask.getHeightInTiles() && tileY + y < height; y++) {
+            if (intersectsRow(mask.getRow(y), tileX, tileY + y)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if every tile inside a rectangle is set.
+     * @param tileX bottom left tile x-coordinate of the rectangle.
+     * @param tileY bottom left tile y-coordinate of the rectangle.
+     * @param areaWidth width of the rectangle in tiles.
+     * @param areaHeight height of the rectangle in tiles.
+     * @return true if all the tiles are set and on the map, false otherwise.
+     */
+    public boolean containsRectangle(int tileX, int tileY, int areaWidth, int areaHeight) {
+        if (tileX < 0 || tileY < 0 || tileX + areaWidth > width || tileY + areaHeight > height) {
+            return false;
+        }
+        for (int y = tileY; y < tileY + areaHeight; y++) {
+            // Rectangles wider than a long are checked a long at a time.
+            for (int x = tileX; x < tileX + areaWidth; x += FootprintMask.MAX_WIDTH) {
+                if (!containsRow(FootprintMask.getRowBits(tileX + areaWidth - x), x, y)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if any tile inside a rectangle is set.
+     * @param tileX bottom left tile x-coordinate of the rectangle.
+     * @param tileY bottom left tile y-coordinate of the rectangle.
+     * @param areaWidth width of the rectangle in tiles.
+     * @param areaHeight height of the rectangle in tiles.
+     * @return true if at least one tile is set, false otherwise.
+     */
+    public boolean intersectsRectangle(int tileX, int tileY, int areaWidth, int areaHeight) {
+        for (int y = Math.max(tileY, 0); y < Math.min(tileY + areaHeight, height); y++) {
+            for (int x = tileX; x < tileX + areaWidth; x += FootprintMask.MAX_WIDTH) {
+                if (intersectsRow(FootprintMask.getRowBits(tileX + areaWidth - x), x, y)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if every bit of a row of a mask is set, the row starting at a
+     * tile that is on the map, and ending on the map.
+     */
+    private boolean containsRow(long rowBits, int tileX, int tileY) {
+        int wordIndex = getWordIndex(tileX, tileY);
+        int shift = tileX & (WORD_BITS - 1);
+        long low = rowBits << shift;
+        if ((words[wordIndex] & low) != low) {
+            return false;
+        }
+        // The part of the row that spills into the next word.
+        long high = shift == 0 ? 0 : rowBits >>> (WORD_BITS - shift);
+        return high == 0 || (words[wordIndex + 1] & high) == high;
+    }
+
+    /**
+     * Checks if any bit of a row of a mask is set, ignoring the part of the
+     * row off the map.
+     */
+    private boolean intersectsRow(long rowBits, int tileX, int tileY) {
+        if (tileX < 0) {
+            rowBits = -tileX >= WORD_BITS ? 0 : rowBits >>> -tileX;
+            tileX = 0;
+        }
+        if (tileX >= width) {
+            return false;
+        }
+        rowBits &= FootprintMask.getRowBits(width - tileX);
+        int wordIndex = getWordIndex(tileX, tileY);
+        int shift = tileX & (WORD_BITS - 1);
+        if ((words[wordIndex] & (rowBits << shift)) != 0) {
+            return true;
+        }
+        long high = shift == 0 ? 0 : rowBits >>> (WORD_BITS - shift);
+        return high != 0 && (words[wordIndex + 1] & high) != 0;
+    }
+
+    private int getWordIndex(int tileX, int tileY) {
+        return (tileY * wordsPerRow) + (tileX >>> WORD_SHIFT);
+    }
+}
@@ -1,8 +1,6 @@
 package com.badlogic.unisim;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.scenes.scene2d.Stage;
-import com.badlogic.gdx.scenes.scene2d.ui.*;
 
 /**
  * This class is responsible for the overall UI of the GameScreen, containing
@@ -13,27 +11,47 @@ import com.badlogic.gdx.scenes.scene2d.ui.*;
  *  - DeleteBuildingPrompt: the prompt that indicates what key to press to
  *  delete a building.
  *  - BuildingCounter: the number of buildings placed on the map.
+ *  - Satisfaction: the campus satisfaction score and its components.
  */
 public class UIManager {
-    private final Skin skin;
     private final UniSimGame game;
     private final Stage stage;
     private final BuildingPlacer buildingPlacer;
     private final BuildingsTracker buildingsTracker;
     private final BuildingUIManager buildingUIManager;
+    private final HudLabel[] buildingCounterLabels;
+    private final CampusSatisfaction campusSatisfaction;
+    private final HudLabel satisfactionLabel;
+    // The rounded numbers the satisfaction label shows.
+    private long shownScore;
+    private long shownMixScore;
+    private long shownProximityScore;
+    private long shownCrowdingPenalty;
+    private boolean isSatisfactionShown;
     private boolean isBuildingMenuPromptVisible;
 
-    public UIManager(UniSimGame game, Stage stage, BuildingPlacer buildingPlacer, BuildingsTracker buildingsTracker) {
+    public UIManager(UniSimGame game, Stage stage, BuildingPlacer buildingPlacer,
+                     BuildingsTracker buildingsTracker,
+                     BuildingAssetsManager buildingAssetsManager,
+                     CampusSatisfaction campusSatisfaction) {
         this.game = game;
         this.stage = stage;
         this.buildingPlacer = buildingPlacer;
         this.buildingsTracker = buildingsTracker;
-        // Load the skin which is like a texture for UI elements
-        skin = new Skin(Gdx.files.internal("skins/uiskin.json"));
         // Hide prompts at start of game
         this.isBuildingMenuPromptVisible = false;
         // Instantiate UI for building selection
-        buildingUIManager = new BuildingUIManager(game, stage, buildingPlacer, buildingsTracker);
+        buildingUIManager = new BuildingUIManager(game, stage, buildingPlacer, buildingsTracker,
+                                                  buildingAssetsManager);
+        // Create a reusable label for the counter of each building type.
+        buildingCounterLabels = new HudLabel[BuildingType.COUNT];
+        int yPosition = 1040;
+        for (int typeId = 0; typeId < BuildingType.COUNT; typeId++) {
+            buildingCounterLabels[typeId] = new HudLabel(game.font, 10, yPosition);
+            yPosition -= 40;
+        }
+        this.campusSatisfaction = campusSatisfaction;
+        this.satisfactionLabel = new HudLabel(game.font, 10, yPosition);
     }
 
     /**
@@ -73,14 +91,41 @@ public class UIManager {
     }
 
     public void drawBuildingCounter() {
-        String[] buildingTypes = new String[]{"Eat", "Learn", "Sleep", "Recreation"};
-        int yPosition = 1040;
-        for (String buildingType : buildingTypes) {
-            String lowercaseType = buildingType.toLowerCase();
-            game.font.draw(game.batch, buildingType + ": "
-                + buildingsTracker.getBuildingCount(lowercaseType), 10, yPosition);
-            yPosition -= 40;
+        for (int typeId = 0; typeId < BuildingType.COUNT; typeId++) {
+            HudLabel counterLabel = buildingCounterLabels[typeId];
+            int buildingCount = buildingsTracker.getBuildingCount(typeId);
+            // Only rebuild the text when the count has changed.
+            if (counterLabel.updateValue(buildingCount)) {
+                counterLabel.editText()
+                    .append(BuildingType.fromId(typeId).getDisplayName())
+                    .append(": ")
+                    .append(buildingCount);
+            }
+            counterLabel.draw(game.batch);
+        }
+    }
+
+    public void drawSatisfaction() {
+        long score = Math.round(campusSatisfaction.getScore());
+        long mixScore = Math.round(campusSatisfaction.getMixScore());
+        long proximityScore = Math.round(campusSatisfaction.getProximityScore());
+        long crowdingPenalty = Math.round(campusSatisfaction.getCrowdingPenalty());
+        // Only rebuild the text when one of the rounded numbers has changed.
+        if (!isSatisfactionShown || score != shownScore || mixScore != shownMixScore
+            || proximityScore != shownProximityScore || crowdingPenalty != shownCrowdingPenalty) {
+            shownScore = score;
+            shownMixScore = mixScore;
+            shownProximityScore = proximityScore;
+            shownCrowdingPenalty = crowdingPenalty;
+            isSatisfactionShown = true;
+            satisfactionLabel.editText()
+                .append("Satisfaction: ").append(score)
+                .append(" (mix ").append(mixScore)
+                .append(", nearby ").append(proximityScore)
+                .append(", crowding -").append(crowdingPenalty)
+                .append(')');
         }
+        satisfactionLabel.draw(game.batch);
     }
 
     public void showBuildingMenu() {
@@ -98,8 +143,6 @@ public class UIManager {
 
     public void dispose() {
         stage.dispose();
-        skin.dispose();
-        buildingUIManager.dispose();
     }
 }
 
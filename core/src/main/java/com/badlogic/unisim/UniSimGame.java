@@ -2,8 +2,12 @@ package com.badlogic.unisim;
 
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TmxMapLoader;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 
 /** {@link com.badlogic.gdx.ApplicationListener} implementation shared by all platforms. */
@@ -11,6 +15,7 @@ public class UniSimGame extends Game {
     public SpriteBatch batch;
     public BitmapFont font;
     public Skin skin;
+    public AssetManager assetManager;
 
     @Override
     public void create() {
@@ -18,6 +23,10 @@ public class UniSimGame extends Game {
         batch = new SpriteBatch();
         skin = new Skin(Gdx.files.internal("skins/uiskin.json"));
         font = skin.getFont("font-label");
+        // Loads assets in the background, e.g the game screen's assets while
+        // the main menu is showing.
+        assetManager = new AssetManager();
+        assetManager.setLoader(TiledMap.class, new TmxMapLoader(new InternalFileHandleResolver()));
         // Set the initial screen
         setScreen(new MainMenuScreen(this));
     }
@@ -34,6 +43,7 @@ public class UniSimGame extends Game {
         batch.dispose();
         font.dispose();
         skin.dispose();
+        assetManager.dispose();
         super.dispose();
     }
 }
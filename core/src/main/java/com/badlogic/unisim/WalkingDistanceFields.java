@@ -0,0 +1,263 @@
+package com.badlogic.unisim;
+
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+
+import java.util.Arrays;
+
+/**
+ * This class is responsible for knowing how many steps each tile of the map
+ * is from the nearest building of each type, e.g 'tiles to the nearest eat
+ * building', and which building that is. Each type has a field of distances
+ * kept by a breadth-first search out from all of its buildings at once.
+ * Steps can be taken between the sides of ground tiles. Unlike the flow
+ * fields, buildings don't block the way, so placing or removing a building
+ * only changes the tiles it is, or was, the nearest building to:
+ *  - Placing a building spreads out from it only as far as tiles get closer.
+ *  - Removing a building clears the tiles it was nearest to, then fills
+ *  them in again from the edge of the cleared region.
+ * Every query is a single array lookup.
+ */
+public class WalkingDistanceFields implements BuildingsTrackerListener {
+    // Distance of tiles with no building of the type to walk to.
+    public static final short UNREACHABLE = Short.MAX_VALUE;
+    // Owner of tiles with no building of the type to walk to.
+    private static final int NO_BUILDING = 0;
+    private static final int[] SIDES_X = {1, -1, 0, 0};
+    private static final int[] SIDES_Y = {0, 0, 1, -1};
+    private final BuildingsTracker buildingsTracker;
+    private final int mapTileWidth;
+    private final int mapTileHeight;
+    private final int TILE_WIDTH;
+    private final int TILE_HEIGHT;
+    // 1 for each tile of the ground layer with a cell, row by row.
+    private final byte[] walkable;
+    // Indexed by building type ID, then tile.
+    private final short[][] distances;
+    // ID of the nearest building of the type to each tile, see BuildingPicker.
+    private final int[][] owners;
+    // Reused between updates, each big enough for every tile.
+    private final int[] queue;
+    private final int[] clearedTiles;
+    private final int[] seeds;
+    private final int[] sortedSeeds;
+    private final boolean[] isSeed;
+    private final int[] seedCounts;
+
+    public WalkingDistanceFields(BuildingsTracker buildingsTracker, TiledMapTileLayer groundLayer) {
+        this.buildingsTracker = buildingsTracker;
+        this.mapTileWidth = groundLayer.getWidth();
+        this.mapTileHeight = groundLayer.getHeight();
+        this.TILE_WIDTH = groundLayer.getTileWidth();
+        this.TILE_HEIGHT = groundLayer.getTileHeight();
+        int tileCount = mapTileWidth * mapTileHeight;
+        this.walkable = new byte[tileCount];
+        for (int y = 0; y < mapTileHeight; y++) {
+            for (int x = 0; x < mapTileWidth; x++) {
+                walkable[(y * mapTileWidth) + x] = (byte) (groundLayer.getCell(x, y) != null ? 1 : 0);
+            }
+        }
+        this.distances = new short[BuildingType.COUNT][tileCount];
+        this.owners = new int[BuildingType.COUNT][tileCount];
+        this.queue = new int[tileCount];
+        this.clearedTiles = new int[tileCount];
+        this.seeds = new int[tileCount];
+        this.sortedSeeds = new int[tileCount];
+        this.isSeed = new boolean[tileCount];
+        // Seeds are sorted by distance, which is at most one per tile.
+        this.seedCounts = new int[tileCount + 1];
+        buildingsTracker.addListener(this);
+        buildingsReplaced();
+    }
+
+    /**
+     * Returns the number of steps from a tile to the nearest building of a type.
+     * @param buildingTypeId the ID of the building type, see BuildingType.
+     * @param tileX the tile x-coordinate.
+     * @param tileY the tile y-coordinate.
+     * @return the number of steps, 0 on the building itself, or UNREACHABLE
+     * if no building of the type can be walked to or the tile is off the map.
+     */
+    public int getDistance(int buildingTypeId, int tileX, int tileY) {
+        if (tileX < 0 || tileY < 0 || tileX >= mapTileWidth || tileY >= mapTileHeight) {
+            return UNREACHABLE;
+        }
+        return distances[buildingTypeId][(tileY * mapTileWidth) + tileX];
+    }
+
+    /**
+     * Returns the nearest building of a type to a tile.
+     * @param buildingTypeId the ID of the building type, see BuildingType.
+     * @param tileX the tile x-coordinate.
+     * @param tileY the tile y-coordinate.
+     * @return the ID of the building, see BuildingPicker, or 0 if no
+     * building of the type can be walked to or the tile is off the map.
+     */
+    public int getNearestBuildingId(int buildingTypeId, int tileX, int tileY) {
+        if (tileX < 0 || tileY < 0 || tileX >= mapTileWidth || tileY >= mapTileHeight) {
+            return NO_BUILDING;
+        }
+        return owners[buildingTypeId][(tileY * mapTileWidth) + tileX];
+    }
+
+    @Override
+    public void buildingAdded(Building building) {
+        int typeId = building.getBuildingTypeId();
+        int seedCount = seedFootprint(building, typeId);
+        spread(typeId, seeds, seedCount);
+    }
+
+    @Override
+    public void buildingRemoved(Building building) {
+        int typeId = building.getBuildingTypeId();
+        short[] typeDistances = distances[typeId];
+        int[] typeOwners = owners[typeId];
+        int buildingId = building.getBuildingId();
+        // Clear every tile the building was nearest to. They are connected
+        // to its footprint, as each was reached from a neighbour it owned.
+        int clearedCount = 0;
+        int minX = Math.max(building.getPositionX() / TILE_WIDTH, 0);
+        int minY = Math.max(building.getPositionY() / TILE_HEIGHT, 0);
+        int maxX = Math.min((building.getPositionX() + building.getWidth()) / TILE_WIDTH, mapTileWidth);
+        int maxY = Math.min((building.getPositionY() + building.getHeight()) / TILE_HEIGHT, mapTileHeight);
+        for (int y = minY; y < maxY; y++) {
+            for (int x = minX; x < maxX; x++) {
+                int tile = (y * mapTileWidth) + x;
+                if (typeOwners[tile] == buildingId) {
+                    clearTile(typeDistances, typeOwners, tile);
+                    clearedTiles[clearedCount++] = tile;
+                }
+            }
+        }
+        for (int i = 0; i < clearedCount; i++) {
+            int x = clearedTiles[i] % mapTileWidth;
+            int y = clearedTiles[i] / mapTileWidth;
+            for (int side = 0; side < SIDES_X.length; side++) {
+                int neighbour = getNeighbour(x, y, side);
+                if (neighbour >= 0 && typeOwners[neighbour] == buildingId) {
+                    clearTile(typeDistances, typeOwners, neighbour);
+                    clearedTiles[clearedCount++] = neighbour;
+                }
+            }
+        }
+        // The tiles next to the cleared region that are still reached from
+        // another building carry on the search from where they are.
+        int seedCount = 0;
+        int maxDistance = 0;
+        for (int i = 0; i < clearedCount; i++) {
+            int x = clearedTiles[i] % mapTileWidth;
+            int y = clearedTiles[i] / mapTileWidth;
+            for (int side = 0; side < SIDES_X.length; side++) {
+                int neighbour = getNeighbour(x, y, side);
+                if (neighbour >= 0 && typeOwners[neighbour] != NO_BUILDING && !isSeed[neighbour]) {
+                    isSeed[neighbour] = true;
+                    seeds[seedCount++] = neighbour;
+                    maxDistance = Math.max(maxDistance, typeDistances[neighbour]);
+                }
+            }
+        }
+        // Counting sort the seeds by distance, as the search must visit
+        // tiles closest first.
+        Arrays.fill(seedCounts, 0, maxDistance + 2, 0);
+        for (int i = 0; i < seedCount; i++) {
+            isSeed[seeds[i]] = false;
+            seedCounts[typeDistances[seeds[i]] + 1]++;
+        }
+        for (int distance = 1; distance <= maxDistance + 1; distance++) {
+            seedCounts[distance] += seedCounts[distance - 1];
+        }
+        for (int i = 0; i < seedCount; i++) {
+            sortedSeeds[seedCounts[typeDistances[seeds[i]]]++] = seeds[i];
+        }
+        spread(typeId, sortedSeeds, seedCount);
+    }
+
+    /**
+     * Recomputes every field from scratch.
+     */
+    @Override
+    public void buildingsReplaced() {
+        for (int typeId = 0; typeId < BuildingType.COUNT; typeId++) {
+            Arrays.fill(distances[typeId], UNREACHABLE);
+            Arrays.fill(owners[typeId], NO_BUILDING);
+        }
+        for (Building building : buildingsTracker.getPlacedBuildingsToType().keySet()) {
+            buildingAdded(building);
+        }
+    }
+
+    /**
+     * Makes every tile covered by a building the start of its type's search.
+     * @return the number of tiles added to the seeds.
+     */
+    private int seedFootprint(Building building, int typeId) {
+        short[] typeDistances = distances[typeId];
+        int[] typeOwners = owners[typeId];
+        int seedCount = 0;
+        int minX = Math.max(building.getPositionX() / TILE_WIDTH, 0);
+        int minY = Math.max(building.getPositionY() / TILE_HEIGHT, 0);
+        int maxX = Math.min((building.getPositionX() + building.getWidth()) / TILE_WIDTH, mapTileWidth);
+        int maxY = Math.min((building.getPositionY() + building.getHeight()) / TILE_HEIGHT, mapTileHeight);
+        for (int y = minY; y < maxY; y++) {
+            for (int x = minX; x < maxX; x++) {
+                int tile = (y * mapTileWidth) + x;
+                typeDistances[tile] = 0;
+                typeOwners[tile] = building.getBuildingId();
+                seeds[seedCount++] = tile;
+            }
+        }
+        return seedCount;
+    }
+
+    /**
+     * Carries on a breadth-first search from the given tiles, which must be
+     * in order of distance, only visiting tiles that get closer to a
+     * building. Seeds and tiles reached by the search are taken closest
+     * first, so each tile is only queued once.
+     */
+    private void spread(int typeId, int[] sortedSeeds, int seedCount) {
+        short[] typeDistances = distances[typeId];
+        int[] typeOwners = owners[typeId];
+        int nextSeed = 0;
+        int head = 0;
+        int tail = 0;
+        while (nextSeed < seedCount || head < tail) {
+            int tile;
+            if (head == tail || (nextSeed < seedCount
+                && typeDistances[sortedSeeds[nextSeed]] <= typeDistances[queue[head]])) {
+                tile = sortedSeeds[nextSeed++];
+            } else {
+                tile = queue[head++];
+            }
+            int x = tile % mapTileWidth;
+            int y = tile / mapTileWidth;
+            short nextDistance = (short) Math.min(typeDistances[tile] + 1, UNREACHABLE - 1);
+            for (int side = 0; side < SIDES_X.length; side++) {
+                int neighbour = getNeighbour(x, y, side);
+                if (neighbour >= 0 && walkable[neighbour] != 0
+                    && nextDistance < typeDistances[neighbour]) {
+                    typeDistances[neighbour] = nextDistance;
+                    typeOwners[neighbour] = typeOwners[tile];
+                    queue[tail++] = neighbour;
+                }
+            }
+        }
+    }
+
+    private void clearTile(short[] typeDistances, int[] typeOwners, int tile) {
+        typeDistances[tile] = UNREACHABLE;
+        typeOwners[tile] = NO_BUILDING;
+    }
+
+    /**
+     * Returns the tile next to a tile on one side, or -1 if it is off the map.
+     */
+    private int getNeighbour(int x, int y, int side) {
+        int neighbourX = x + SIDES_X[side];
+        int neighbourY = y + SIDES_Y[side];
+        if (neighbourX < 0 || neighbourY < 0 || neighbourX >= mapTileWidth
+            || neighbourY >= mapTileHeight) {
+            return -1;
+        }
+        return (neighbourY * mapTileWidth) + neighbourX;
+    }
+}
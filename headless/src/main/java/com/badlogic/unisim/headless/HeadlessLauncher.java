@@ -0,0 +1,42 @@
+package com.badlogic.unisim.headless;
+
+import com.badlogic.gdx.ApplicationListener;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.unisim.CommandJournal;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Launches scripted game sessions without a window, GPU or frame limit.
+ * Arguments are either the number of sessions to run (default 1) and the seed
+ * of the first session's script (default 0), or 'replay', the path of a
+ * command journal and optionally 'realtime' to replay it at the speed it
+ * was played, or 'optimize' and optionally the number of layout searches
+ * (default 16), the moves per search (default 200000) and the seed
+ * (default 0) to measure the layout optimizer.
+ */
+public class HeadlessLauncher {
+    public static void main(String[] args) throws IOException {
+        ApplicationListener listener;
+        if (args.length > 1 && args[0].equals("replay")) {
+            boolean isRealTime = args.length > 2 && args[2].equals("realtime");
+            listener = new SimulationRunner(CommandJournal.read(Paths.get(args[1])),
+                isRealTime);
+        } else if (args.length > 0 && args[0].equals("optimize")) {
+            int restarts = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+            int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 200_000;
+            long seed = args.length > 3 ? Long.parseLong(args[3]) : 0L;
+            listener = new LayoutOptimizerRunner(restarts, iterations, seed);
+        } else {
+            int sessionCount = args.length > 0 ? Integer.parseInt(args[0]) : 1;
+            long seed = args.length > 1 ? Long.parseLong(args[1]) : 0L;
+            listener = new SimulationRunner(sessionCount, seed);
+        }
+        HeadlessApplicationConfiguration configuration = new HeadlessApplicationConfiguration();
+        // Everything runs to completion in create, render is never needed.
+        configuration.updatesPerSecond = -1;
+        new HeadlessApplication(listener, configuration);
+    }
+}
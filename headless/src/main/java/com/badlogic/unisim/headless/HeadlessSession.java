@@ -0,0 +1,131 @@
+package com.badlogic.unisim.headless;
+
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.unisim.BuildingCommand;
+import com.badlogic.unisim.BuildingCommandExecutor;
+import com.badlogic.unisim.BuildingPlacer;
+import com.badlogic.unisim.BuildingType;
+import com.badlogic.unisim.BuildingTypeRegions;
+import com.badlogic.unisim.BuildingsTracker;
+import com.badlogic.unisim.GameTimer;
+import com.badlogic.unisim.PlacementPreviewMode;
+
+/**
+ * This class is responsible for playing one game session without rendering.
+ * It uses the same timer, tracker and placer as the GameScreen, but advances
+ * the timer by a fixed step per tick as fast as possible, rather than by the
+ * time since the last frame, so a whole session takes milliseconds.
+ */
+public class HeadlessSession {
+    // Game time simulated by each tick, the same as one frame at 60 FPS.
+    public static final double TICK_SECONDS = 1.0 / 60;
+    private static final int SESSION_MINUTES = 5;
+    private final GameTimer gameTimer;
+    private final BuildingsTracker buildingsTracker;
+    private final BuildingCommandExecutor commandExecutor;
+    private final BuildingTypeRegions buildingTypeRegions;
+    private final int mapTileWidth;
+    private final int mapTileHeight;
+
+    public HeadlessSession(TiledMapTileLayer buildableLayer,
+                           BuildingTypeRegions buildingTypeRegions) {
+        this.mapTileWidth = buildableLayer.getWidth();
+        this.mapTileHeight = buildableLayer.getHeight();
+        this.buildingTypeRegions = buildingTypeRegions;
+        this.gameTimer = new GameTimer(SESSION_MINUTES);
+        this.buildingsTracker = new BuildingsTracker(buildableLayer);
+        // No game or viewport is needed, as buildings are only placed by tile
+        // and never drawn.
+        BuildingPlacer buildingPlacer = new BuildingPlacer(null, buildingsTracker, null,
+            buildableLayer, PlacementPreviewMode.TINT);
+        this.commandExecutor = new BuildingCommandExecutor(buildingsTracker, buildingPlacer,
+            buildingTypeRegions, buildableLayer);
+    }
+
+    /**
+     * Plays the session until the game timer runs out.
+     * @param script the actions to take during the session.
+     * @param isRealTime true to take as long as the session would in the
+     *                   game, false to play it as fast as possible.
+     * @return the outcome of the session.
+     */
+    public SessionResult run(SessionScript script, boolean isRealTime) {
+        long tick = 0;
+        long startTime = System.nanoTime();
+        gameTimer.resumeTime();
+        while (!gameTimer.isTimeEnded()) {
+            script.onTick(this, tick);
+            gameTimer.updateTime(TICK_SECONDS);
+            tick++;
+            if (isRealTime) {
+                waitUntil(startTime + (long) (tick * TICK_SECONDS * 1_000_000_000L));
+            }
+        }
+        int[] buildingCounts = new int[BuildingType.COUNT];
+        for (int i = 0; i < BuildingType.COUNT; i++) {
+            buildingCounts[i] = buildingsTracker.getBuildingCount(i);
+        }
+        return new SessionResult(tick, commandExecutor.getCommandsExecuted(),
+            commandExecutor.getCommandsSucceeded(), buildingCounts);
+    }
+
+    /**
+     * Carries out a building command, as the player's clicks would.
+     * @param command the command to carry out.
+     * @return true if the placed buildings were changed, false otherwise.
+     */
+    public boolean execute(BuildingCommand command) {
+        return commandExecutor.execute(command);
+    }
+
+    /**
+     * Returns the number of buildings in the building menu, to place.
+     * @return the number of buildings in the menu.
+     */
+    public int getMenuBuildingCount() {
+        return buildingTypeRegions.getMenuBuildingCount();
+    }
+
+    /**
+     * Returns the game time that has passed, to timestamp commands with.
+     * @return the time elapsed in seconds.
+     */
+    public double getGameTime() {
+        return gameTimer.getElapsedTime();
+    }
+
+    public GameTimer getGameTimer() {
+        return gameTimer;
+    }
+
+    public BuildingsTracker getBuildingsTracker() {
+        return buildingsTracker;
+    }
+
+    public BuildingCommandExecutor getCommandExecutor() {
+        return commandExecutor;
+    }
+
+    public int getMapTileWidth() {
+        return mapTileWidth;
+    }
+
+    public int getMapTileHeight() {
+        return mapTileHeight;
+    }
+
+    /**
+     * Sleeps until System.nanoTime reaches the given time.
+     */
+    private static void waitUntil(long time) {
+        long remaining;
+        while ((remaining = time - System.nanoTime()) > 0) {
+            try {
+                Thread.sleep(remaining / 1_000_000, (int) (remaining % 1_000_000));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
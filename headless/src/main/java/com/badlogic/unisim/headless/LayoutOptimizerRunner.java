@@ -0,0 +1,91 @@
+package com.badlogic.unisim.headless;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TmxMapLoader;
+import com.badlogic.unisim.BuildingType;
+import com.badlogic.unisim.BuildingTypeRegions;
+import com.badlogic.unisim.BuildingsTracker;
+import com.badlogic.unisim.CampusLayout;
+import com.badlogic.unisim.CollisionDetector;
+import com.badlogic.unisim.GameScreenAssets;
+import com.badlogic.unisim.LayoutOptimizer;
+import com.badlogic.unisim.PlacementPreviewMode;
+
+/**
+ * This class is responsible for measuring the layout optimizer on the game's
+ * map. The same search is run with 1, 2, 4... threads up to the number of
+ * cores, logging the best layout score and the time taken for each.
+ */
+public class LayoutOptimizerRunner extends ApplicationAdapter {
+    private static final String TAG = "LayoutOptimizerRunner";
+    private final int restarts;
+    private final int iterations;
+    private final long seed;
+
+    /**
+     * Measures the optimizer with the same settings for each thread count.
+     * @param restarts the number of independent searches in each run.
+     * @param iterations the number of moves tried by each search.
+     * @param seed the seed of the first search.
+     */
+    public LayoutOptimizerRunner(int restarts, int iterations, long seed) {
+        this.restarts = restarts;
+        this.iterations = iterations;
+        this.seed = seed;
+    }
+
+    @Override
+    public void create() {
+        NoOpGL20.install();
+        AssetManager assetManager = new AssetManager();
+        assetManager.setLoader(TiledMap.class, new TmxMapLoader(new InternalFileHandleResolver()));
+        GameScreenAssets gameScreenAssets = new GameScreenAssets(assetManager,
+            PlacementPreviewMode.TINT);
+        gameScreenAssets.queue();
+        assetManager.finishLoading();
+
+        TiledMapTileLayer buildableLayer = (TiledMapTileLayer) gameScreenAssets.getMap()
+            .getLayers().get("BuildableLayer");
+        BuildingTypeRegions buildingTypeRegions = new BuildingTypeRegions(
+            gameScreenAssets.getBuildingAssetsManager(), buildableLayer.getTileWidth(),
+            buildableLayer.getTileHeight());
+        BuildingsTracker buildingsTracker = new BuildingsTracker(buildableLayer);
+        LayoutOptimizer layoutOptimizer = LayoutOptimizer.forBuildingLimits(buildingsTracker,
+            new CollisionDetector(buildableLayer, buildingsTracker.getBuildingPicker()),
+            buildingTypeRegions, buildableLayer.getTileWidth(), buildableLayer.getTileHeight(),
+            buildableLayer.getWidth(), buildableLayer.getHeight());
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int parallelism = 1; ; parallelism = Math.min(parallelism * 2, cores)) {
+            long startTime = System.nanoTime();
+            CampusLayout layout = layoutOptimizer.optimize(restarts, iterations, seed, parallelism);
+            long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+            if (layout == null) {
+                Gdx.app.log(TAG, "The buildings don't fit on the map");
+                break;
+            }
+            Gdx.app.log(TAG, parallelism + " threads: score " + layout.getScore()
+                + " in " + elapsedMillis + "ms (" + restarts + " restarts of "
+                + iterations + " moves)");
+            if (parallelism == cores) {
+                logLayout(layout);
+                break;
+            }
+        }
+        gameScreenAssets.unload();
+        assetManager.dispose();
+        Gdx.app.exit();
+    }
+
+    private void logLayout(CampusLayout layout) {
+        for (int building = 0; building < layout.getBuildingCount(); building++) {
+            Gdx.app.log(TAG, BuildingType.fromId(layout.getTypeId(building)).getDisplayName()
+                + " at tile " + layout.getTileX(building) + ", " + layout.getTileY(building));
+        }
+    }
+}
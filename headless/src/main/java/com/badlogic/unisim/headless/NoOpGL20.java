@@ -0,0 +1,46 @@
+package com.badlogic.unisim.headless;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+
+import java.lang.reflect.Proxy;
+
+/**
+ * This class is responsible for standing in for OpenGL, which the headless
+ * backend does not provide. Every call does nothing and returns 0, false or
+ * null, so that textures can be created without a GPU.
+ */
+public final class NoOpGL20 {
+
+    private NoOpGL20() {
+    }
+
+    /**
+     * Makes Gdx.gl and Gdx.gl20 a GL that does nothing, if they are not set.
+     */
+    public static synchronized void install() {
+        if (Gdx.gl != null) {
+            return;
+        }
+        GL20 gl = (GL20) Proxy.newProxyInstance(GL20.class.getClassLoader(),
+            new Class<?>[]{GL20.class}, (proxy, method, args) -> defaultValue(method.getReturnType()));
+        Gdx.gl = gl;
+        Gdx.gl20 = gl;
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == float.class) {
+            return 0f;
+        }
+        return null;
+    }
+}
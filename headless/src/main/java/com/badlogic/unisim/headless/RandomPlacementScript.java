@@ -0,0 +1,43 @@
+package com.badlogic.unisim.headless;
+
+import com.badlogic.unisim.DeleteBuildingCommand;
+import com.badlogic.unisim.MoveBuildingCommand;
+import com.badlogic.unisim.PlaceBuildingCommand;
+
+import java.util.Random;
+
+/**
+ * A script that places, moves and deletes buildings at random tiles every
+ * half a second of game time. Sessions with the same seed play out the same.
+ */
+public class RandomPlacementScript implements SessionScript {
+    private static final int TICKS_PER_ACTION = 30;
+    private final Random random;
+
+    public RandomPlacementScript(long seed) {
+        this.random = new Random(seed);
+    }
+
+    @Override
+    public void onTick(HeadlessSession session, long tick) {
+        if (tick % TICKS_PER_ACTION != 0) {
+            return;
+        }
+        int mapWidth = session.getMapTileWidth();
+        int mapHeight = session.getMapTileHeight();
+        double gameTime = session.getGameTime();
+        int action = random.nextInt(10);
+        if (action < 7) {
+            session.execute(new PlaceBuildingCommand(gameTime,
+                random.nextInt(session.getMenuBuildingCount()),
+                random.nextInt(mapWidth), random.nextInt(mapHeight)));
+        } else if (action < 9) {
+            session.execute(new MoveBuildingCommand(gameTime,
+                random.nextInt(mapWidth), random.nextInt(mapHeight),
+                random.nextInt(mapWidth), random.nextInt(mapHeight)));
+        } else {
+            session.execute(new DeleteBuildingCommand(gameTime,
+                random.nextInt(mapWidth), random.nextInt(mapHeight)));
+        }
+    }
+}
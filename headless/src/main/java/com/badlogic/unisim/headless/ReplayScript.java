@@ -0,0 +1,36 @@
+package com.badlogic.unisim.headless;
+
+import com.badlogic.unisim.BuildingCommand;
+import com.badlogic.unisim.JournalReplayer;
+
+import java.util.List;
+
+/**
+ * A script that carries out the commands of a recorded journal, each at the
+ * game time it was recorded at.
+ */
+public class ReplayScript implements SessionScript {
+    private final List<BuildingCommand> commands;
+    private JournalReplayer journalReplayer;
+
+    public ReplayScript(List<BuildingCommand> commands) {
+        this.commands = commands;
+    }
+
+    @Override
+    public void onTick(HeadlessSession session, long tick) {
+        if (journalReplayer == null) {
+            journalReplayer = new JournalReplayer(commands, session.getCommandExecutor());
+        }
+        journalReplayer.replayUntil(session.getGameTime());
+    }
+
+    /**
+     * Returns the number of commands that did not do what they did when
+     * they were recorded.
+     * @return the number of commands that failed.
+     */
+    public int getCommandsFailed() {
+        return journalReplayer == null ? 0 : journalReplayer.getCommandsFailed();
+    }
+}
@@ -0,0 +1,49 @@
+package com.badlogic.unisim.headless;
+
+/**
+ * The outcome of a headless game session.
+ */
+public class SessionResult {
+    private final long ticks;
+    private final long commandsExecuted;
+    private final long commandsSucceeded;
+    // Indexed by building type ID, see BuildingType.
+    private final int[] buildingCounts;
+
+    public SessionResult(long ticks, long commandsExecuted, long commandsSucceeded,
+                         int[] buildingCounts) {
+        this.ticks = ticks;
+        this.commandsExecuted = commandsExecuted;
+        this.commandsSucceeded = commandsSucceeded;
+        this.buildingCounts = buildingCounts;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Returns the game time the session lasted.
+     * @return the simulated time in seconds.
+     */
+    public double getSimulatedSeconds() {
+        return ticks * HeadlessSession.TICK_SECONDS;
+    }
+
+    public long getCommandsExecuted() {
+        return commandsExecuted;
+    }
+
+    public long getCommandsSucceeded() {
+        return commandsSucceeded;
+    }
+
+    /**
+     * Returns the number of buildings of a type on the map when the session ended.
+     * @param buildingTypeId the ID of the building type, see BuildingType.
+     * @return the number of buildings of the type placed on the map.
+     */
+    public int getBuildingCount(int buildingTypeId) {
+        return buildingCounts[buildingTypeId];
+    }
+}
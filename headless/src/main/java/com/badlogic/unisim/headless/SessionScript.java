@@ -0,0 +1,15 @@
+package com.badlogic.unisim.headless;
+
+/**
+ * The actions a player takes during a headless session, in place of mouse
+ * and keyboard input.
+ */
+public interface SessionScript {
+
+    /**
+     * Called once per simulation tick, before the game timer is advanced.
+     * @param session the session being played.
+     * @param tick the number of ticks simulated so far.
+     */
+    void onTick(HeadlessSession session, long tick);
+}
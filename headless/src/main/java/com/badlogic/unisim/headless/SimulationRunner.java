@@ -0,0 +1,105 @@
+package com.badlogic.unisim.headless;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TmxMapLoader;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.badlogic.unisim.BuildingCommand;
+import com.badlogic.unisim.BuildingType;
+import com.badlogic.unisim.BuildingTypeRegions;
+import com.badlogic.unisim.GameScreenAssets;
+import com.badlogic.unisim.PlacementPreviewMode;
+
+import java.util.List;
+
+/**
+ * This class is responsible for loading the map and building textures once,
+ * then playing scripted sessions one after another and logging a summary.
+ */
+public class SimulationRunner extends ApplicationAdapter {
+    private static final String TAG = "SimulationRunner";
+    private final int sessionCount;
+    private final long seed;
+    // Commands of the journal to replay, or null to play random sessions.
+    private final List<BuildingCommand> replayCommands;
+    private final boolean isRealTime;
+
+    /**
+     * Plays sessions with random actions, as fast as possible.
+     * @param sessionCount the number of sessions to play.
+     * @param seed the seed of the first session, each session adds 1 to it.
+     */
+    public SimulationRunner(int sessionCount, long seed) {
+        this.sessionCount = sessionCount;
+        this.seed = seed;
+        this.replayCommands = null;
+        this.isRealTime = false;
+    }
+
+    /**
+     * Replays a recorded session.
+     * @param replayCommands the commands of the journal to replay.
+     * @param isRealTime true to replay at the speed the session was played,
+     *                   false to replay as fast as possible.
+     */
+    public SimulationRunner(List<BuildingCommand> replayCommands, boolean isRealTime) {
+        this.sessionCount = 1;
+        this.seed = 0;
+        this.replayCommands = replayCommands;
+        this.isRealTime = isRealTime;
+    }
+
+    @Override
+    public void create() {
+        NoOpGL20.install();
+        AssetManager assetManager = new AssetManager();
+        assetManager.setLoader(TiledMap.class, new TmxMapLoader(new InternalFileHandleResolver()));
+        GameScreenAssets gameScreenAssets = new GameScreenAssets(assetManager,
+            PlacementPreviewMode.TINT);
+        gameScreenAssets.queue();
+        assetManager.finishLoading();
+
+        TiledMapTileLayer buildableLayer = (TiledMapTileLayer) gameScreenAssets.getMap()
+            .getLayers().get("BuildableLayer");
+        BuildingTypeRegions buildingTypeRegions = new BuildingTypeRegions(
+            gameScreenAssets.getBuildingAssetsManager(), buildableLayer.getTileWidth(),
+            buildableLayer.getTileHeight());
+
+        long startTime = TimeUtils.millis();
+        double simulatedSeconds = 0;
+        long commandsExecuted = 0;
+        long commandsSucceeded = 0;
+        long[] buildingCounts = new long[BuildingType.COUNT];
+        for (int i = 0; i < sessionCount; i++) {
+            HeadlessSession session = new HeadlessSession(buildableLayer, buildingTypeRegions);
+            SessionScript script = replayCommands != null
+                ? new ReplayScript(replayCommands)
+                : new RandomPlacementScript(seed + i);
+            SessionResult result = session.run(script, isRealTime);
+            simulatedSeconds += result.getSimulatedSeconds();
+            commandsExecuted += result.getCommandsExecuted();
+            commandsSucceeded += result.getCommandsSucceeded();
+            for (int type = 0; type < BuildingType.COUNT; type++) {
+                buildingCounts[type] += result.getBuildingCount(type);
+            }
+        }
+        long elapsedMillis = TimeUtils.millis() - startTime;
+
+        Gdx.app.log(TAG, "Played " + sessionCount + " sessions (" + (long) simulatedSeconds
+            + "s of game time) in " + elapsedMillis + "ms");
+        Gdx.app.log(TAG, commandsSucceeded + " of " + commandsExecuted
+            + " building commands succeeded");
+        for (int type = 0; type < BuildingType.COUNT; type++) {
+            Gdx.app.log(TAG, BuildingType.fromId(type).getDisplayName()
+                + " buildings at the end of a session: "
+                + (sessionCount > 0 ? (double) buildingCounts[type] / sessionCount : 0));
+        }
+        gameScreenAssets.unload();
+        assetManager.dispose();
+        Gdx.app.exit();
+    }
+}